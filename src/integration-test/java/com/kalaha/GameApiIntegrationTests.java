@@ -0,0 +1,257 @@
+package com.kalaha;
+
+import com.kalaha.domain.PositionCodec;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.apache.http.HttpStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.RestAssured.when;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.isOneOf;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT)
+@TestPropertySource(locations = "classpath:application-test.properties")
+public class GameApiIntegrationTests {
+
+    private final String baseUrl = "http://localhost:8082/api/games";
+
+    @Test
+    @DisplayName("post on /api/games should return the state of a new game")
+    void postGames() {
+        Response response =
+                when()
+                        .post(baseUrl)
+                .then()
+                        .assertThat()
+                        .statusCode(HttpStatus.SC_CREATED)
+                        .body("version", equalTo(0))
+                        .body("southTurn", equalTo(true))
+                        .body("pits", contains(6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0))
+                        .body("legalMoves", contains(0, 1, 2, 3, 4, 5))
+                .and()
+                        .extract()
+                        .response();
+
+        assertThat(response.getHeader("Location")).isEqualTo("/api/games/" + response.path("id"));
+        assertThat(response.getHeader("ETag")).isEqualTo("\"0\"");
+    }
+
+    @Test
+    @DisplayName("get on /api/games/{id} should return not modified while the version is unchanged")
+    void getGameNotModified() {
+        String gameId = createGame();
+
+        given()
+                .header("If-None-Match", "\"0\"")
+        .when()
+                .get(baseUrl + "/" + gameId)
+        .then()
+                .assertThat()
+                .statusCode(HttpStatus.SC_NOT_MODIFIED);
+
+        playMove(gameId, 1);
+
+        given()
+                .header("If-None-Match", "\"0\"")
+        .when()
+                .get(baseUrl + "/" + gameId)
+        .then()
+                .assertThat()
+                .statusCode(HttpStatus.SC_OK)
+                .header("ETag", "\"1\"")
+                .body("version", equalTo(1));
+    }
+
+    @Test
+    @DisplayName("post on /moves should return the updated state and the result of the move")
+    void postMove() {
+        String gameId = createGame();
+
+        playMove(gameId, 0)
+                .then()
+                .assertThat()
+                .statusCode(HttpStatus.SC_OK)
+                .body("pits", contains(0, 7, 7, 7, 7, 7, 1, 6, 6, 6, 6, 6, 6, 0))
+                .body("southTurn", equalTo(true))
+                .body("lastMove.pit", equalTo(0))
+                .body("lastMove.stonesGained", equalTo(1))
+                .body("lastMove.extraTurn", equalTo(true))
+                .body("legalMoves", contains(1, 2, 3, 4, 5));
+    }
+
+    @Test
+    @DisplayName("post on /moves should reject a pit of the opponent")
+    void postIllegalMove() {
+        String gameId = createGame();
+
+        playMove(gameId, 8)
+                .then()
+                .assertThat()
+                .statusCode(HttpStatus.SC_BAD_REQUEST)
+                .body("message", equalTo("Pit 8 does not belong to the player to move"));
+    }
+
+    @Test
+    @DisplayName("post on /moves with a stale version should return conflict")
+    void postStaleMove() {
+        String gameId = createGame();
+        playMove(gameId, 0);
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"pit\": 1, \"version\": 0}")
+        .when()
+                .post(baseUrl + "/" + gameId + "/moves")
+        .then()
+                .assertThat()
+                .statusCode(HttpStatus.SC_CONFLICT)
+                .body("message", equalTo("Game " + gameId + " is at version 1, not 0"));
+    }
+
+    @Test
+    @DisplayName("post on /moves/batch should play all moves and return the result of each")
+    void postMoveBatch() {
+        String gameId = createGame();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"pits\": [0, 1, 8], \"version\": 0}")
+        .when()
+                .post(baseUrl + "/" + gameId + "/moves/batch")
+        .then()
+                .assertThat()
+                .statusCode(HttpStatus.SC_OK)
+                .header("ETag", "\"3\"")
+                .body("version", equalTo(3))
+                .body("pits", contains(1, 1, 8, 8, 8, 8, 2, 7, 0, 7, 7, 7, 7, 1))
+                .body("moves.pit", contains(0, 1, 8))
+                .body("moves.extraTurn", contains(true, false, false))
+                .body("lastMove.pit", equalTo(8));
+    }
+
+    @Test
+    @DisplayName("post on /moves/batch with an illegal move should play none of the moves")
+    void postMoveBatchWithIllegalMove() {
+        String gameId = createGame();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"pits\": [0, 1, 2]}")
+        .when()
+                .post(baseUrl + "/" + gameId + "/moves/batch")
+        .then()
+                .assertThat()
+                .statusCode(HttpStatus.SC_BAD_REQUEST)
+                .body("message", equalTo("Pit 2 does not belong to the player to move"));
+
+        when()
+                .get(baseUrl + "/" + gameId)
+        .then()
+                .assertThat()
+                .body("version", equalTo(0));
+    }
+
+    @Test
+    @DisplayName("post on /api/games/moves/batch should play the moves of each game on its own")
+    void postMoveBatchOfGames() {
+        String gameId = createGame();
+        String otherGameId = createGame();
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("[{\"gameId\": \"" + gameId + "\", \"pits\": [0, 1]}, "
+                        + "{\"gameId\": \"" + otherGameId + "\", \"pits\": [2], \"version\": 5}, "
+                        + "{\"gameId\": \"0\", \"pits\": [2]}]")
+        .when()
+                .post(baseUrl + "/moves/batch")
+        .then()
+                .assertThat()
+                .statusCode(HttpStatus.SC_OK)
+                .body("gameId", contains(gameId, otherGameId, "0"))
+                .body("status", contains(200, 409, 404))
+                .body("[0].state.version", equalTo(2))
+                .body("[0].state.southTurn", equalTo(false))
+                .body("[1].message", equalTo("Game " + otherGameId + " is at version 0, not 5"))
+                .body("[2].message", equalTo("Game 0 does not exist"));
+    }
+
+    @Test
+    @DisplayName("get on /position should return the packed position")
+    void getPosition() {
+        String gameId = createGame();
+
+        byte[] body =
+                when()
+                        .get(baseUrl + "/" + gameId + "/position")
+                .then()
+                        .assertThat()
+                        .statusCode(HttpStatus.SC_OK)
+                        .contentType("application/octet-stream")
+                .and()
+                        .extract()
+                        .asByteArray();
+
+        PositionCodec codec = new PositionCodec(body[0], 72);
+        int[] pits = new int[14];
+        boolean southTurn = codec.unpack(codec.fromBytes(Arrays.copyOfRange(body, 2, body.length)), pits);
+        assertThat(body).hasSize(15);
+        assertThat(body[1]).isEqualTo((byte) 7);
+        assertThat(pits).containsExactly(6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0);
+        assertThat(southTurn).isTrue();
+    }
+
+    @Test
+    @DisplayName("get on /hint should return a legal move of the player to move")
+    void getHint() {
+        String gameId = createGame();
+        playMove(gameId, 0);
+
+        when()
+                .get(baseUrl + "/" + gameId + "/hint")
+        .then()
+                .assertThat()
+                .statusCode(HttpStatus.SC_OK)
+                .body("pit", isOneOf(1, 2, 3, 4, 5))
+                .body("depth", greaterThan(0));
+    }
+
+    @Test
+    @DisplayName("get on an unknown game should return not found")
+    void getUnknownGame() {
+        when()
+                .get(baseUrl + "/0")
+        .then()
+                .assertThat()
+                .statusCode(HttpStatus.SC_NOT_FOUND)
+                .body("message", equalTo("Game 0 does not exist"));
+    }
+
+    private String createGame() {
+        return when()
+                .post(baseUrl)
+        .then()
+                .extract()
+                .path("id");
+    }
+
+    private Response playMove(final String gameId, final int pit) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body("{\"pit\": " + pit + "}")
+        .when()
+                .post(baseUrl + "/" + gameId + "/moves");
+    }
+}
@@ -1,6 +1,7 @@
 package com.kalaha;
 
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpStatus;
 import org.junit.jupiter.api.DisplayName;
@@ -41,14 +42,43 @@ public class KalahaGameIntegrationTests {
         assertThat(response.getBody().print()).isEqualToIgnoringWhitespace(indexPage);
     }
 
+    @Test
+    @DisplayName("post on /games should redirect to the board of a new game")
+    void postGames() {
+        String location =
+                given()
+                        .redirects().follow(false)
+                .when()
+                        .post(baseUrl + "/games")
+                .then()
+                        .assertThat()
+                        .statusCode(HttpStatus.SC_MOVED_TEMPORARILY)
+                .and()
+                        .extract()
+                        .header("Location");
+
+        assertThat(location).matches(".*/games/\\d+/play");
+    }
+
+    @Test
+    @DisplayName("get on /play of an unknown game should return not found")
+    void getPlayUnknownGame() {
+        when()
+                .get(baseUrl + "/games/0/play")
+        .then()
+                .assertThat()
+                .statusCode(HttpStatus.SC_NOT_FOUND);
+    }
+
     @Test
     @DisplayName("get on /play should successfully return new board")
     void getPlay() throws IOException {
-        String newBoard = getFileContent("/newBoard.html");
+        String gameId = createGame();
+        String newBoard = getFileContent("/newBoard.html").replace("{gameId}", gameId);
 
         Response response =
                 when()
-                        .get(baseUrl + "/play")
+                        .get(baseUrl + "/games/" + gameId + "/play")
                 .then()
                         .assertThat()
                         .statusCode(HttpStatus.SC_OK)
@@ -62,14 +92,15 @@ public class KalahaGameIntegrationTests {
     @Test
     @DisplayName("post on /play should successfully return a correctly updated board")
     void postPlay() throws IOException {
-        String updatedBoard = getFileContent("/updatedBoard.html");
+        String gameId = createGame();
+        String updatedBoard = getFileContent("/updatedBoard.html").replace("{gameId}", gameId);
 
         Response response =
                 given()
                         .queryParam("index", "0")
-                        .queryParam("isSouthTurn", "true")
+                        .queryParam("version", "0")
                 .when()
-                        .post(baseUrl + "/play")
+                        .post(baseUrl + "/games/" + gameId + "/play")
                 .then()
                         .assertThat()
                         .statusCode(HttpStatus.SC_OK)
@@ -80,6 +111,155 @@ public class KalahaGameIntegrationTests {
         assertThat(response.getBody().print()).isEqualToIgnoringWhitespace(updatedBoard);
     }
 
+    @Test
+    @DisplayName("post on /play against the computer should return the turn to player south")
+    void postPlayAgainstComputer() {
+        String gameId = createGame(true);
+
+        Response response =
+                given()
+                        .queryParam("index", "1")
+                        .queryParam("version", "0")
+                .when()
+                        .post(baseUrl + "/games/" + gameId + "/play")
+                .then()
+                        .assertThat()
+                        .statusCode(HttpStatus.SC_OK)
+                .and()
+                        .extract()
+                        .response();
+
+        assertThat(response.getBody().print()).containsPattern("Player Turn:\\s*South");
+    }
+
+    @Test
+    @DisplayName("post on /play with a stale version should not play the move")
+    void postPlayStaleVersion() {
+        String gameId = createGame();
+        given()
+                .queryParam("index", "0")
+                .queryParam("version", "0")
+        .when()
+                .post(baseUrl + "/games/" + gameId + "/play");
+
+        Response response =
+                given()
+                        .queryParam("index", "1")
+                        .queryParam("version", "0")
+                .when()
+                        .post(baseUrl + "/games/" + gameId + "/play")
+                .then()
+                        .assertThat()
+                        .statusCode(HttpStatus.SC_OK)
+                .and()
+                        .extract()
+                        .response();
+
+        assertThat(response.getBody().print())
+                .contains("The board has changed since you selected a pit please select again")
+                .contains("<td>7</td>");
+    }
+
+    @Test
+    @DisplayName("post on /play without a pit or with a pit outside the row should not play a move")
+    void postPlayInvalidPit() {
+        String gameId = createGame();
+
+        assertInvalidPit(given().queryParam("version", "0"), gameId);
+        assertInvalidPit(given().queryParam("version", "0").queryParam("index", "6"), gameId);
+        assertInvalidPit(given().queryParam("version", "0").queryParam("index", "-1"), gameId);
+    }
+
+    @Test
+    @DisplayName("post on /takeback against the computer should undo its move and the move of player south")
+    void postTakeBack() {
+        String gameId = createGame(true);
+        String played =
+                given()
+                        .queryParam("index", "1")
+                        .queryParam("version", "0")
+                .when()
+                        .post(baseUrl + "/games/" + gameId + "/play")
+                .then()
+                        .extract()
+                        .body()
+                        .asString();
+        long version = Long.parseLong(played.replaceAll("(?s).*value=\"(\\d+)\" id=\"version\".*", "$1"));
+
+        Response response =
+                given()
+                        .queryParam("version", version)
+                .when()
+                        .post(baseUrl + "/games/" + gameId + "/takeback")
+                .then()
+                        .assertThat()
+                        .statusCode(HttpStatus.SC_OK)
+                .and()
+                        .extract()
+                        .response();
+
+        assertThat(response.getBody().print())
+                .containsPattern("Player Turn:\\s*South")
+                .contains("value=\"" + (version + 1) + "\" id=\"version\"")
+                .doesNotContain("<td>7</td>")
+                .doesNotContain("Take back");
+    }
+
+    @Test
+    @DisplayName("get on /hint should show the best move on the board")
+    void getHint() {
+        String gameId = createGame();
+
+        Response response =
+                when()
+                        .get(baseUrl + "/games/" + gameId + "/hint")
+                .then()
+                        .assertThat()
+                        .statusCode(HttpStatus.SC_OK)
+                .and()
+                        .extract()
+                        .response();
+
+        assertThat(response.getBody().print())
+                .containsPattern("Hint: select pit [1-6] \\(evaluation [+-]\\d+ at depth \\d+\\)")
+                .containsPattern("Player Turn:\\s*South");
+    }
+
+    private void assertInvalidPit(final RequestSpecification request, final String gameId) {
+        Response response =
+                request
+                .when()
+                        .post(baseUrl + "/games/" + gameId + "/play")
+                .then()
+                        .assertThat()
+                        .statusCode(HttpStatus.SC_OK)
+                .and()
+                        .extract()
+                        .response();
+
+        assertThat(response.getBody().print())
+                .contains("Please select one of the pits of your row")
+                .contains("value=\"0\" id=\"version\"");
+    }
+
+    private String createGame() {
+        return createGame(false);
+    }
+
+    private String createGame(final boolean computerNorth) {
+        String location =
+                given()
+                        .redirects().follow(false)
+                        .queryParam("computerNorth", computerNorth)
+                .when()
+                        .post(baseUrl + "/games")
+                .then()
+                        .extract()
+                        .header("Location");
+
+        return location.replaceAll(".*/games/(\\d+)/play", "$1");
+    }
+
     private String getFileContent(final String file) throws IOException {
         return IOUtils.toString(KalahaGameIntegrationTests.class.getResourceAsStream(file), "UTF-8");
     }
@@ -0,0 +1,189 @@
+package com.kalaha.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Simulates players of the board page against a running application. Players arrive at random
+ * with the configured mean rate, create a game and post moves to /play with random think times
+ * in between, playing both sides unless the computer plays North. Arrivals and moves follow their
+ * own schedule, so a slow server delays requests rather than slowing down the load, and every
+ * latency is measured from the time the request was due.
+ */
+final class LoadGenerator {
+
+    private static final String CREATE = "create";
+    private static final String MOVE = "move";
+    private static final Pattern GAME_ID = Pattern.compile("/games/(\\d+)/play");
+    private static final Pattern VERSION = Pattern.compile("value=\"(\\d+)\" id=\"version\"");
+
+    private final String baseUrl;
+    private final LoadProfile profile;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService connections;
+    private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong rejectedMoves = new AtomicLong();
+    private final AtomicLong finishedGames = new AtomicLong();
+    private CountDownLatch leftPlayers;
+
+    LoadGenerator(final String baseUrl, final LoadProfile profile) {
+        this.baseUrl = baseUrl;
+        this.profile = profile;
+        this.connections = Executors.newFixedThreadPool(profile.getConnections());
+        latencies.put(CREATE, new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3));
+        latencies.put(MOVE, new ConcurrentHistogram(TimeUnit.MINUTES.toNanos(1), 3));
+    }
+
+    LoadReport run(final long timeout, final TimeUnit unit) throws InterruptedException {
+        leftPlayers = new CountDownLatch(profile.getPlayers());
+        long start = System.nanoTime();
+        long arrival = start;
+        for (int i = 0; i < profile.getPlayers(); i++) {
+            arrival += randomInterval(TimeUnit.SECONDS.toNanos(1) / profile.getArrivalRatePerSecond());
+            boolean computerNorth = ThreadLocalRandom.current().nextDouble() < profile.getComputerShare();
+            at(arrival, new Player(computerNorth)::create);
+        }
+        boolean finished = leftPlayers.await(timeout, unit);
+        long elapsed = System.nanoTime() - start;
+        scheduler.shutdownNow();
+        connections.shutdownNow();
+        if (!finished)
+            errors.addAndGet(leftPlayers.getCount());
+
+        return LoadReport.builder()
+                .profile(profile)
+                .elapsedNanos(elapsed)
+                .requests(requests.get())
+                .errors(errors.get())
+                .rejectedMoves(rejectedMoves.get())
+                .finishedGames(finishedGames.get())
+                .latencies(latencies)
+                .build();
+    }
+
+    private void at(final long dueNanos, final Task task) {
+        scheduler.schedule(() -> connections.execute(() -> {
+            try {
+                task.run(dueNanos);
+            } catch (IOException | RuntimeException e) {
+                errors.incrementAndGet();
+                leftPlayers.countDown();
+            }
+        }), dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private long randomInterval(final double meanNanos) {
+        return (long) (-meanNanos * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+    }
+
+    private Response post(final String path, final String operation, final long dueNanos) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setInstanceFollowRedirects(false);
+        int status = connection.getResponseCode();
+        Response response = new Response(status, connection.getHeaderField("Location"), read(connection));
+        latencies.get(operation).recordValue(Math.max(0, System.nanoTime() - dueNanos));
+        requests.incrementAndGet();
+        if (status >= 400)
+            throw new IOException(String.format("POST %s returned %s", path, status));
+        return response;
+    }
+
+    private static String read(final HttpURLConnection connection) throws IOException {
+        InputStream in = connection.getResponseCode() >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        if (in == null)
+            return "";
+        try (InputStream body = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        void run(long dueNanos) throws IOException;
+    }
+
+    private static final class Response {
+        private final int status;
+        private final String location;
+        private final String body;
+
+        private Response(final int status, final String location, final String body) {
+            this.status = status;
+            this.location = location;
+            this.body = body;
+        }
+    }
+
+    private final class Player {
+        private final boolean computerNorth;
+        private String gameId;
+        private long version;
+        private int moves;
+
+        private Player(final boolean computerNorth) {
+            this.computerNorth = computerNorth;
+        }
+
+        private void create(final long dueNanos) throws IOException {
+            Response response = post("/games?computerNorth=" + computerNorth, CREATE, dueNanos);
+            Matcher matcher = GAME_ID.matcher(response.location == null ? "" : response.location);
+            if (response.status != HttpURLConnection.HTTP_MOVED_TEMP || !matcher.find())
+                throw new IOException("Creating a game returned " + response.status);
+            gameId = matcher.group(1);
+            thinkAndMove();
+        }
+
+        private void thinkAndMove() {
+            long due = System.nanoTime() + randomInterval(TimeUnit.MILLISECONDS.toNanos(profile.getThinkTimeMillis()));
+            at(due, dueNanos -> {
+                int index = ThreadLocalRandom.current().nextInt(6);
+                Response response = post("/games/" + gameId + "/play?index=" + index + "&version=" + version,
+                        MOVE, dueNanos);
+                Matcher matcher = VERSION.matcher(response.body);
+                if (response.body.contains("contains no stones"))
+                    rejectedMoves.incrementAndGet();
+                else
+                    ++moves;
+
+                if (response.body.contains("class=\"gameover\"")) {
+                    finishedGames.incrementAndGet();
+                    leftPlayers.countDown();
+                } else if (!matcher.find()) {
+                    throw new IOException("The board of game " + gameId + " has no version");
+                } else if (moves >= profile.getMovesPerPlayer()) {
+                    leftPlayers.countDown();
+                } else {
+                    version = Long.parseLong(matcher.group(1));
+                    thinkAndMove();
+                }
+            });
+        }
+    }
+}
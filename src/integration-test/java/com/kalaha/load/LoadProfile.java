@@ -0,0 +1,37 @@
+package com.kalaha.load;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Shape of a load test, read from the load.* system properties that the loadTest task passes
+ * on, e.g. gradle loadTest -Pload.players=5000 -Pload.arrivalRate=500.
+ */
+@Value
+@Builder
+class LoadProfile {
+    private int players;
+    private double arrivalRatePerSecond;
+    private long thinkTimeMillis;
+    private int movesPerPlayer;
+    private double computerShare;
+    private int connections;
+    private double maxErrorRate;
+
+    static LoadProfile fromSystemProperties() {
+        return LoadProfile.builder()
+                .players(Integer.getInteger("load.players", 1000))
+                .arrivalRatePerSecond(doubleProperty("load.arrivalRate", 100))
+                .thinkTimeMillis(Long.getLong("load.thinkTimeMillis", 200))
+                .movesPerPlayer(Integer.getInteger("load.movesPerPlayer", 10))
+                .computerShare(doubleProperty("load.computerShare", 0))
+                .connections(Integer.getInteger("load.connections", 64))
+                .maxErrorRate(doubleProperty("load.maxErrorRate", 0.01))
+                .build();
+    }
+
+    private static double doubleProperty(final String name, final double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
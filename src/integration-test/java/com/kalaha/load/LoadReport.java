@@ -0,0 +1,52 @@
+package com.kalaha.load;
+
+import lombok.Builder;
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Value
+@Builder
+class LoadReport {
+    private LoadProfile profile;
+    private long elapsedNanos;
+    private long requests;
+    private long errors;
+    private long rejectedMoves;
+    private long finishedGames;
+    private Map<String, Histogram> latencies;
+
+    double getThroughputPerSecond() {
+        return requests * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    double getErrorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder(String.format(
+                "%d players arriving at %.0f/s, %d ms think time, %d moves each, %d connections%n"
+                        + "%d requests in %.1f s: %.0f requests/s, %d errors (%.2f%%), %d rejected moves, "
+                        + "%d finished games%n"
+                        + "%-8s %8s %8s %8s %8s %8s %8s%n",
+                profile.getPlayers(), profile.getArrivalRatePerSecond(), profile.getThinkTimeMillis(),
+                profile.getMovesPerPlayer(), profile.getConnections(),
+                requests, elapsedNanos / 1e9, getThroughputPerSecond(), errors, 100 * getErrorRate(),
+                rejectedMoves, finishedGames,
+                "ms", "count", "p50", "p90", "p99", "p99.9", "max"));
+        latencies.forEach((operation, histogram) -> report.append(String.format(
+                "%-8s %8d %8.1f %8.1f %8.1f %8.1f %8.1f%n", operation, histogram.getTotalCount(),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()))));
+        return report.toString();
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,34 @@
+package com.kalaha.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("load")
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "server.tomcat.max-threads=400")
+public class PlayLoadTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @DisplayName("players creating games and posting moves to /play stay within the error budget")
+    void playLoad() throws InterruptedException {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+
+        LoadReport report = new LoadGenerator("http://localhost:" + port, profile).run(10, TimeUnit.MINUTES);
+
+        System.out.print(report);
+        assertThat(report.getErrorRate()).isLessThanOrEqualTo(profile.getMaxErrorRate());
+    }
+}
@@ -0,0 +1,89 @@
+package com.kalaha.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays {@link #PLIES} moves on each of {@link #BOARDS} mid-game positions, once through a batch and
+ * once through an ArrayBoard per position. Every call first restores the positions from copies
+ * built once per trial, so the cost of the reset is spread over the plies. Scores are moves per
+ * microsecond.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchBoardBenchmark {
+
+    private static final int BOARDS = 1024;
+    private static final int PLIES = 8;
+
+    @Param({"6", "12"})
+    public int pitsPerPlayer;
+
+    private Board[] boards;
+    private int[][] startPits;
+    private boolean[] startSouthTurn;
+    private BatchBoard start;
+    private BatchBoard batch;
+    private int[][] moves;
+
+    @Setup(Level.Trial)
+    public void newBoards() {
+        boards = new Board[BOARDS];
+        startPits = new int[BOARDS][];
+        startSouthTurn = new boolean[BOARDS];
+        start = new BatchBoard(pitsPerPlayer, BOARDS);
+        batch = new BatchBoard(pitsPerPlayer, BOARDS);
+        moves = new int[PLIES][BOARDS];
+        for (int b = 0; b < BOARDS; b++) {
+            boards[b] = Boards.midGameBoard("array", pitsPerPlayer, 4);
+            start.add(boards[b]);
+            startPits[b] = boards[b].getPitList().stream().mapToInt(Integer::intValue).toArray();
+            startSouthTurn[b] = boards[b].isSouthTurn();
+            for (int ply = 0; ply < PLIES; ply++) {
+                moves[ply][b] = boards[b].isGameOver() ? BatchBoard.NO_MOVE : Boards.nextMove(boards[b], b + ply);
+                if (moves[ply][b] != BatchBoard.NO_MOVE)
+                    boards[b].makeMove(moves[ply][b]);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS * PLIES)
+    public BatchBoard batch() {
+        batch.copyFrom(start);
+        for (int ply = 0; ply < PLIES; ply++) {
+            batch.makeMoves(moves[ply]);
+        }
+        return batch;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS * PLIES)
+    public Board[] boardPerPosition() {
+        for (int b = 0; b < BOARDS; b++) {
+            boards[b].load(startPits[b], startSouthTurn[b]);
+            for (int ply = 0; ply < PLIES; ply++) {
+                if (moves[ply][b] != BatchBoard.NO_MOVE)
+                    boards[b].makeMove(moves[ply][b]);
+            }
+        }
+        return boards;
+    }
+}
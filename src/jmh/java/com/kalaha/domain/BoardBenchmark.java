@@ -0,0 +1,55 @@
+package com.kalaha.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    @Param({"6", "12"})
+    public int pitsPerPlayer;
+
+    @Param({"4", "6"})
+    public int stonesPerPit;
+
+    @Param({"list", "array", "packed"})
+    public String implementation;
+
+    private Board board;
+    private int seed;
+
+    @Setup(Level.Iteration)
+    public void newBoard() {
+        board = Boards.newBoard(implementation, pitsPerPlayer, stonesPerPit);
+    }
+
+    @Benchmark
+    public Board makeMove() {
+        if (board.isGameOver())
+            newBoard();
+        board.makeMove(Boards.nextMove(board, seed++));
+        return board;
+    }
+
+    @Benchmark
+    public boolean isGameOver() {
+        return board.isGameOver();
+    }
+}
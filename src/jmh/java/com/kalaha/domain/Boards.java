@@ -0,0 +1,45 @@
+package com.kalaha.domain;
+
+public final class Boards {
+
+    private Boards() {
+    }
+
+    public static Board newBoard(final String implementation, final int pitsPerPlayer, final int stonesPerPit) {
+        if ("list".equals(implementation)) {
+            return BoardImpl.builder()
+                    .pitList(pitsPerPlayer, stonesPerPit)
+                    .southTurn(true)
+                    .build();
+        }
+        if ("packed".equals(implementation)) {
+            return PackedBoard.builder()
+                    .pits(pitsPerPlayer, stonesPerPit)
+                    .southTurn(true)
+                    .build();
+        }
+        return ArrayBoard.builder()
+                .pits(pitsPerPlayer, stonesPerPit)
+                .southTurn(true)
+                .build();
+    }
+
+    public static int nextMove(final Board board, final int seed) {
+        int pitsPerPlayer = board.getIndexKalahaSouth();
+        int offset = board.isSouthTurn() ? 0 : pitsPerPlayer + 1;
+        for (int i = 0; i < pitsPerPlayer; i++) {
+            int index = offset + (seed + i) % pitsPerPlayer;
+            if (!board.isEmpty(index))
+                return index;
+        }
+        throw new IllegalStateException("No legal move left");
+    }
+
+    public static Board midGameBoard(final String implementation, final int pitsPerPlayer, final int stonesPerPit) {
+        Board board = newBoard(implementation, pitsPerPlayer, stonesPerPit);
+        for (int move = 0; move < pitsPerPlayer && !board.isGameOver(); move++) {
+            board.makeMove(nextMove(board, 7 * move));
+        }
+        return board;
+    }
+}
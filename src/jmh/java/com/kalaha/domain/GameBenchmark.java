@@ -0,0 +1,53 @@
+package com.kalaha.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+
+    @Param({"6", "12"})
+    public int pitsPerPlayer;
+
+    @Param({"4", "6"})
+    public int stonesPerPit;
+
+    @Param({"list", "array", "packed"})
+    public String implementation;
+
+    private Game game;
+
+    @Setup
+    public void newGame() {
+        game = Game.builder()
+                .board(Boards.midGameBoard(implementation, pitsPerPlayer, stonesPerPit))
+                .build();
+    }
+
+    @Benchmark
+    public List<Integer> getPitListSouth() {
+        return game.getPitListSouth();
+    }
+
+    @Benchmark
+    public List<Integer> getPitListNorth() {
+        return game.getPitListNorth();
+    }
+}
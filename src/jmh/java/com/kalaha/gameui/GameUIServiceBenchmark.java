@@ -0,0 +1,68 @@
+package com.kalaha.gameui;
+
+import com.kalaha.domain.Boards;
+import com.kalaha.domain.Game;
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameUIServiceBenchmark {
+
+    @Param({"6", "12"})
+    public int pitsPerPlayer;
+
+    @Param({"4", "6"})
+    public int stonesPerPit;
+
+    @Param({"list", "array"})
+    public String implementation;
+
+    private final GameUIService gameUIService = new GameUIService();
+    private Game game;
+    private Template boardTemplate;
+
+    @Setup
+    public void init() throws IOException {
+        game = Game.builder()
+                .board(Boards.midGameBoard(implementation, pitsPerPlayer, stonesPerPit))
+                .build();
+
+        try (Reader reader = new InputStreamReader(
+                GameUIServiceBenchmark.class.getResourceAsStream("/templates/board.mustache"),
+                StandardCharsets.UTF_8)) {
+            boardTemplate = Mustache.compiler().compile(reader);
+        }
+    }
+
+    @Benchmark
+    public BoardHtmlData getBoardHtmlDataFrom() {
+        return gameUIService.getBoardHtmlDataFrom(game);
+    }
+
+    @Benchmark
+    public String renderBoard() {
+        return boardTemplate.execute(gameUIService.getBoardAttributesFrom(1L, game));
+    }
+}
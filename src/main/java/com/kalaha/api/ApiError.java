@@ -0,0 +1,8 @@
+package com.kalaha.api;
+
+import lombok.Value;
+
+@Value
+class ApiError {
+    private String message;
+}
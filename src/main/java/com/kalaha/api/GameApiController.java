@@ -0,0 +1,280 @@
+package com.kalaha.api;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Board;
+import com.kalaha.domain.Game;
+import com.kalaha.domain.GameActors;
+import com.kalaha.domain.GameBusyException;
+import com.kalaha.domain.GameNotFoundException;
+import com.kalaha.domain.GameRegistry;
+import com.kalaha.domain.GameSnapshot;
+import com.kalaha.domain.PositionCodec;
+import com.kalaha.domain.StaleVersionException;
+import com.kalaha.engine.ComputerPlayer;
+import com.kalaha.hint.Hint;
+import com.kalaha.hint.HintService;
+import com.kalaha.metrics.GameMetrics;
+import com.kalaha.push.GameEventPublisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@RestController
+@RequestMapping("/api/games")
+public final class GameApiController {
+
+    private final GameRegistry gameRegistry;
+    private final GameActors gameActors;
+    private final ComputerPlayer computerPlayer;
+    private final GameEventPublisher gameEventPublisher;
+    private final GameMetrics gameMetrics;
+    private final HintService hintService;
+
+    @Autowired
+    public GameApiController(final GameRegistry gameRegistry, final GameActors gameActors,
+                             final ComputerPlayer computerPlayer, final GameEventPublisher gameEventPublisher,
+                             final GameMetrics gameMetrics, final HintService hintService) {
+        this.gameRegistry = gameRegistry;
+        this.gameActors = gameActors;
+        this.computerPlayer = computerPlayer;
+        this.gameEventPublisher = gameEventPublisher;
+        this.gameMetrics = gameMetrics;
+        this.hintService = hintService;
+    }
+
+    @PostMapping
+    public ResponseEntity<GameState> createGame(@RequestParam(defaultValue = "false") final boolean computerNorth) {
+        long gameId = gameRegistry.create(computerNorth);
+        Game game = gameRegistry.get(gameId);
+        computerPlayer.playTurn(game);
+
+        GameState state = GameState.of(game.snapshot(), null);
+        return ResponseEntity.created(URI.create("/api/games/" + gameId))
+                .eTag(eTag(state))
+                .body(state);
+    }
+
+    @GetMapping("/{gameId}")
+    public ResponseEntity<GameState> getGame(@PathVariable final long gameId) {
+        GameState state = GameState.of(gameRegistry.get(gameId).snapshot(), null);
+        return ResponseEntity.ok()
+                .eTag(eTag(state))
+                .body(state);
+    }
+
+    @GetMapping(path = "/{gameId}/position", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getPosition(@PathVariable final long gameId) {
+        GameSnapshot snapshot = gameRegistry.get(gameId).snapshot();
+        return ResponseEntity.ok()
+                .eTag(Long.toString(snapshot.getVersion()))
+                .body(pack(snapshot));
+    }
+
+    @GetMapping("/{gameId}/hint")
+    public Hint getHint(@PathVariable final long gameId) {
+        return hintService.hintFor(gameRegistry.get(gameId))
+                .orElseThrow(() -> new IllegalMoveException("The game is over"));
+    }
+
+    @GetMapping(path = "/{gameId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@PathVariable final long gameId) {
+        return gameEventPublisher.subscribe(gameRegistry.get(gameId));
+    }
+
+    @PostMapping("/{gameId}/moves")
+    public ResponseEntity<GameState> performMove(@PathVariable final long gameId,
+                                                 @RequestBody final MoveRequest move) {
+        Game game = gameRegistry.get(gameId);
+        MoveResult result = play(game, move.getPit(), move.getVersion());
+        computerPlayer.playTurn(game);
+
+        GameState state = GameState.of(game.snapshot(), result);
+        return ResponseEntity.ok()
+                .eTag(eTag(state))
+                .body(state);
+    }
+
+    /**
+     * Plays several moves of one game at once, as a bot does during a chain of extra turns. Either
+     * all moves are played or none, and the computer replies once after the last one.
+     */
+    @PostMapping("/{gameId}/moves/batch")
+    public ResponseEntity<GameState> performMoves(@PathVariable final long gameId,
+                                                  @RequestBody final MoveBatchRequest batch) {
+        GameState state = playBatch(gameRegistry.get(gameId), batch);
+        return ResponseEntity.ok()
+                .eTag(eTag(state))
+                .body(state);
+    }
+
+    /**
+     * Plays the moves of several games in one request. The moves of each game are played or
+     * rejected together, independently of the other games.
+     */
+    @PostMapping("/moves/batch")
+    public List<MoveBatchResult> performMoves(@RequestBody final List<MoveBatchRequest> batches) {
+        List<MoveBatchResult> results = new ArrayList<>(batches.size());
+        for (MoveBatchRequest batch : batches) {
+            results.add(tryPlayBatch(batch));
+        }
+        return results;
+    }
+
+    @ExceptionHandler(GameNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    ApiError handleGameNotFound(final GameNotFoundException e) {
+        return new ApiError(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalMoveException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    ApiError handleIllegalMove(final IllegalMoveException e) {
+        gameMetrics.countIllegalMove();
+        return new ApiError(e.getMessage());
+    }
+
+    @ExceptionHandler(StaleVersionException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    ApiError handleStaleVersion(final StaleVersionException e) {
+        gameMetrics.countStaleMove();
+        return new ApiError(e.getMessage());
+    }
+
+    @ExceptionHandler(GameBusyException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    ApiError handleGameBusy(final GameBusyException e) {
+        return new ApiError(e.getMessage());
+    }
+
+    private MoveResult play(final Game game, final int pit, final Long version) {
+        GameSnapshot before = game.snapshot();
+        long expectedVersion = version != null ? version : before.getVersion();
+        if (before.getVersion() != expectedVersion)
+            throw new StaleVersionException(before.getId(), expectedVersion, before.getVersion());
+        checkLegalMove(before, pit);
+
+        GameSnapshot after = gameMetrics.timeMove(() -> gameActors.ask(game, () -> game.play(pit, expectedVersion)));
+        return moveResult(pit, before, after);
+    }
+
+    private MoveBatchResult tryPlayBatch(final MoveBatchRequest batch) {
+        MoveBatchResult.MoveBatchResultBuilder result = MoveBatchResult.builder().gameId(batch.getGameId());
+        try {
+            if (batch.getGameId() == null)
+                throw new IllegalMoveException("The game of the moves is missing");
+            GameState state = playBatch(gameRegistry.get(batch.getGameId()), batch);
+            return result.status(HttpStatus.OK.value()).state(state).build();
+        } catch (GameNotFoundException e) {
+            return result.status(HttpStatus.NOT_FOUND.value()).message(e.getMessage()).build();
+        } catch (IllegalMoveException e) {
+            gameMetrics.countIllegalMove();
+            return result.status(HttpStatus.BAD_REQUEST.value()).message(e.getMessage()).build();
+        } catch (StaleVersionException e) {
+            gameMetrics.countStaleMove();
+            return result.status(HttpStatus.CONFLICT.value()).message(e.getMessage()).build();
+        } catch (GameBusyException e) {
+            return result.status(HttpStatus.TOO_MANY_REQUESTS.value()).message(e.getMessage()).build();
+        }
+    }
+
+    /**
+     * Checks every move on a copy of the board of the expected version before any is played, so
+     * an illegal move rejects the whole batch, then plays them all in one command of the game.
+     */
+    private GameState playBatch(final Game game, final MoveBatchRequest batch) {
+        int[] pits = batch.getPits();
+        if (pits == null || pits.length == 0)
+            throw new IllegalMoveException("No moves to play");
+
+        GameSnapshot before = game.snapshot();
+        long expectedVersion = batch.getVersion() != null ? batch.getVersion() : before.getVersion();
+        if (before.getVersion() != expectedVersion)
+            throw new StaleVersionException(before.getId(), expectedVersion, before.getVersion());
+
+        Board board = ArrayBoard.builder().pits(before.getPits()).southTurn(before.isSouthTurn()).build();
+        List<MoveResult> moves = new ArrayList<>(pits.length);
+        GameSnapshot position = before;
+        for (int pit : pits) {
+            checkLegalMove(position, pit);
+
+            board.makeMove(pit);
+            GameSnapshot next = snapshotOf(board, before);
+            moves.add(moveResult(pit, position, next));
+            position = next;
+        }
+
+        gameActors.ask(game, () -> game.playAll(pits, expectedVersion));
+        computerPlayer.playTurn(game);
+        return GameState.ofBatch(game.snapshot(), moves);
+    }
+
+    private static MoveResult moveResult(final int pit, final GameSnapshot before, final GameSnapshot after) {
+        int kalaha = before.isSouthTurn() ? before.getIndexKalahaSouth() : before.getIndexKalahaNorth();
+        return MoveResult.builder()
+                .pit(pit)
+                .southMoved(before.isSouthTurn())
+                .stonesGained(after.getPits()[kalaha] - before.getPits()[kalaha])
+                .extraTurn(!after.isGameOver() && after.isSouthTurn() == before.isSouthTurn())
+                .gameOver(after.isGameOver())
+                .build();
+    }
+
+    private static GameSnapshot snapshotOf(final Board board, final GameSnapshot game) {
+        int[] pits = new int[board.getIndexKalahaNorth() + 1];
+        for (int i = 0; i < pits.length; i++) {
+            pits[i] = board.getStonesInPit(i);
+        }
+        return GameSnapshot.builder()
+                .id(game.getId())
+                .computerNorth(game.isComputerNorth())
+                .southTurn(board.isSouthTurn())
+                .gameOver(board.isGameOver())
+                .pits(pits)
+                .build();
+    }
+
+    private static void checkLegalMove(final GameSnapshot snapshot, final int pit) {
+        if (snapshot.isGameOver())
+            throw new IllegalMoveException("The game is over");
+        if (snapshot.isComputerNorth() && !snapshot.isSouthTurn())
+            throw new IllegalMoveException("The computer is to move");
+
+        int first = snapshot.isSouthTurn() ? 0 : snapshot.getIndexKalahaSouth() + 1;
+        int last = snapshot.isSouthTurn() ? snapshot.getIndexKalahaSouth() : snapshot.getIndexKalahaNorth();
+        if (pit < first || pit >= last)
+            throw new IllegalMoveException(String.format("Pit %s does not belong to the player to move", pit));
+        if (snapshot.getPits()[pit] == 0)
+            throw new IllegalMoveException(String.format("Pit %s contains no stones", pit));
+    }
+
+    private static byte[] pack(final GameSnapshot snapshot) {
+        int[] pits = snapshot.getPits();
+        PositionCodec codec = new PositionCodec(snapshot.getIndexKalahaSouth(), IntStream.of(pits).sum());
+        byte[] position = codec.toBytes(codec.pack(pits, snapshot.isSouthTurn()));
+        byte[] body = new byte[position.length + 2];
+        body[0] = (byte) snapshot.getIndexKalahaSouth();
+        body[1] = (byte) codec.getBitsPerPit();
+        System.arraycopy(position, 0, body, 2, position.length);
+        return body;
+    }
+
+    private static String eTag(final GameState state) {
+        return Long.toString(state.getVersion());
+    }
+}
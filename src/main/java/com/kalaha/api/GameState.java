@@ -0,0 +1,80 @@
+package com.kalaha.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.kalaha.domain.GameSnapshot;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GameState {
+    @JsonSerialize(using = ToStringSerializer.class)
+    private long id;
+    private long version;
+    private boolean southTurn;
+    private boolean computerNorth;
+    private boolean gameOver;
+    private int[] pits;
+    private MoveResult lastMove;
+    private List<MoveResult> moves;
+
+    public static GameState of(final GameSnapshot snapshot, final MoveResult lastMove) {
+        return GameState.builder()
+                .id(snapshot.getId())
+                .version(snapshot.getVersion())
+                .southTurn(snapshot.isSouthTurn())
+                .computerNorth(snapshot.isComputerNorth())
+                .gameOver(snapshot.isGameOver())
+                .pits(snapshot.getPits())
+                .lastMove(lastMove)
+                .build();
+    }
+
+    public static GameState ofBatch(final GameSnapshot snapshot, final List<MoveResult> moves) {
+        return GameState.builder()
+                .id(snapshot.getId())
+                .version(snapshot.getVersion())
+                .southTurn(snapshot.isSouthTurn())
+                .computerNorth(snapshot.isComputerNorth())
+                .gameOver(snapshot.isGameOver())
+                .pits(snapshot.getPits())
+                .lastMove(moves.get(moves.size() - 1))
+                .moves(moves)
+                .build();
+    }
+
+    public int[] getLegalMoves() {
+        if (gameOver)
+            return new int[0];
+
+        int kalahaSouth = pits.length / 2 - 1;
+        int first = southTurn ? 0 : kalahaSouth + 1;
+        int last = southTurn ? kalahaSouth : pits.length - 1;
+        int count = 0;
+        for (int pit = first; pit < last; pit++) {
+            if (pits[pit] != 0)
+                ++count;
+        }
+        int[] moves = new int[count];
+        for (int pit = first, i = 0; pit < last; pit++) {
+            if (pits[pit] != 0)
+                moves[i++] = pit;
+        }
+        return moves;
+    }
+
+    public String getWinner() {
+        if (!gameOver)
+            return null;
+
+        int exceedingStonesSouth = pits[pits.length / 2 - 1] - pits[pits.length - 1];
+        if (exceedingStonesSouth == 0)
+            return "tie";
+        return exceedingStonesSouth > 0 ? "south" : "north";
+    }
+}
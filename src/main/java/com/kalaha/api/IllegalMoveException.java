@@ -0,0 +1,8 @@
+package com.kalaha.api;
+
+public final class IllegalMoveException extends RuntimeException {
+
+    public IllegalMoveException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.kalaha.api;
+
+import lombok.Data;
+
+@Data
+class MoveBatchRequest {
+    private Long gameId;
+    private int[] pits;
+    private Long version;
+}
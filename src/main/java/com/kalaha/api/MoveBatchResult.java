@@ -0,0 +1,22 @@
+package com.kalaha.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The outcome of the moves of one game in a batch over several games: the new state when they
+ * were played, or the status and message the single game endpoint would have answered.
+ */
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MoveBatchResult {
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long gameId;
+    private int status;
+    private GameState state;
+    private String message;
+}
@@ -0,0 +1,9 @@
+package com.kalaha.api;
+
+import lombok.Data;
+
+@Data
+class MoveRequest {
+    private int pit;
+    private Long version;
+}
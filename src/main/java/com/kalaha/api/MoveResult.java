@@ -0,0 +1,14 @@
+package com.kalaha.api;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class MoveResult {
+    private int pit;
+    private boolean southMoved;
+    private int stonesGained;
+    private boolean extraTurn;
+    private boolean gameOver;
+}
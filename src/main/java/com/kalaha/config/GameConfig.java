@@ -1,37 +1,327 @@
 package com.kalaha.config;
 
+import com.kalaha.domain.ArrayBoard;
 import com.kalaha.domain.Board;
 import com.kalaha.domain.BoardImpl;
 import com.kalaha.domain.Game;
+import com.kalaha.domain.GameActors;
+import com.kalaha.domain.GameListener;
+import com.kalaha.domain.GameRegistry;
+import com.kalaha.domain.GameStore;
+import com.kalaha.domain.InMemoryGameStore;
+import com.kalaha.domain.PackedBoard;
+import com.kalaha.engine.AlphaBetaEngine;
+import com.kalaha.engine.ComputerPlayer;
+import com.kalaha.engine.EndgameDatabase;
+import com.kalaha.engine.MctsEngine;
+import com.kalaha.engine.OpeningBook;
+import com.kalaha.engine.OpeningBookEngine;
+import com.kalaha.engine.SearchEngine;
+import com.kalaha.hint.HintService;
+import com.kalaha.journal.GameJournal;
+import com.kalaha.metrics.GameMetrics;
+import com.kalaha.metrics.RenderTimingInterceptor;
+import com.kalaha.push.GameEventPublisher;
+import com.kalaha.store.HibernatingGameStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurationSupport;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
 @Configuration
 public class GameConfig extends WebMvcConfigurationSupport {
     private final int pitsPerPlayer;
     private final int stonesPerPit;
     private final boolean southTurn;
+    private final String implementation;
+    private final String computerEngine;
+    private final int computerMaxDepth;
+    private final long computerTimeBudgetMillis;
+    private final int computerParallelism;
+    private final int computerTranspositionTableEntries;
+    private final double computerMctsExploration;
+    private final long computerMctsReusedNodes;
+    private final String endgameDatabasePath;
+    private final String openingBookPath;
+    private final long hintTimeBudgetMillis;
+    private final int hintThreads;
+    private final int hintQueueCapacity;
+    private final long hintCacheEntries;
+    private final int hintWarmUpMoves;
+    private final String journalDirectory;
+    private final int journalQueueCapacity;
+    private final long journalSnapshotIntervalSeconds;
+    private final int pushThreads;
+    private final long pushTimeoutMillis;
+    private final int actorThreads;
+    private final int actorMailboxCapacity;
+    private final String storeDirectory;
+    private final long storeMemoryBudgetMegabytes;
+    private final long storeIdleSeconds;
+    private final MeterRegistry meterRegistry;
 
     public GameConfig(@Value("${board.pitsPerPlayer: 6}") final int pitsPerPlayer,
                       @Value("${board.stonesPerPit: 6}") final int stonesPerPit,
-                      @Value("${board.southTurn: true}") final boolean southTurn) {
+                      @Value("${board.southTurn: true}") final boolean southTurn,
+                      @Value("${board.implementation: array}") final String implementation,
+                      @Value("${computer.engine: alphabeta}") final String computerEngine,
+                      @Value("${computer.maxDepth: 20}") final int computerMaxDepth,
+                      @Value("${computer.timeBudgetMillis: 200}") final long computerTimeBudgetMillis,
+                      @Value("${computer.parallelism: 0}") final int computerParallelism,
+                      @Value("${computer.transpositionTableEntries: 1048576}")
+                      final int computerTranspositionTableEntries,
+                      @Value("${computer.mcts.exploration: 1.4}") final double computerMctsExploration,
+                      @Value("${computer.mcts.reusedNodes: 1000000}") final long computerMctsReusedNodes,
+                      @Value("${computer.endgameDatabase:}") final String endgameDatabasePath,
+                      @Value("${computer.openingBook:}") final String openingBookPath,
+                      @Value("${hint.timeBudgetMillis: 200}") final long hintTimeBudgetMillis,
+                      @Value("${hint.threads: 1}") final int hintThreads,
+                      @Value("${hint.queueCapacity: 1024}") final int hintQueueCapacity,
+                      @Value("${hint.cacheEntries: 100000}") final long hintCacheEntries,
+                      @Value("${hint.warmUpMoves: 2}") final int hintWarmUpMoves,
+                      @Value("${journal.directory:}") final String journalDirectory,
+                      @Value("${journal.queueCapacity: 65536}") final int journalQueueCapacity,
+                      @Value("${journal.snapshotIntervalSeconds: 60}") final long journalSnapshotIntervalSeconds,
+                      @Value("${push.threads: 0}") final int pushThreads,
+                      @Value("${push.timeoutMillis: 1800000}") final long pushTimeoutMillis,
+                      @Value("${actor.threads: 0}") final int actorThreads,
+                      @Value("${actor.mailboxCapacity: 16}") final int actorMailboxCapacity,
+                      @Value("${store.directory:}") final String storeDirectory,
+                      @Value("${store.memoryBudgetMegabytes: 256}") final long storeMemoryBudgetMegabytes,
+                      @Value("${store.idleSeconds: 1800}") final long storeIdleSeconds,
+                      final MeterRegistry meterRegistry) {
         this.pitsPerPlayer = pitsPerPlayer;
         this.stonesPerPit = stonesPerPit;
         this.southTurn = southTurn;
+        this.implementation = checkImplementation(implementation);
+        this.computerEngine = computerEngine;
+        this.computerMaxDepth = computerMaxDepth;
+        this.computerTimeBudgetMillis = computerTimeBudgetMillis;
+        this.computerParallelism = computerParallelism > 0
+                ? computerParallelism
+                : Runtime.getRuntime().availableProcessors();
+        this.computerTranspositionTableEntries = computerTranspositionTableEntries;
+        this.computerMctsExploration = computerMctsExploration;
+        this.computerMctsReusedNodes = computerMctsReusedNodes;
+        this.endgameDatabasePath = endgameDatabasePath;
+        this.openingBookPath = openingBookPath;
+        this.hintTimeBudgetMillis = hintTimeBudgetMillis;
+        this.hintThreads = hintThreads;
+        this.hintQueueCapacity = hintQueueCapacity;
+        this.hintCacheEntries = hintCacheEntries;
+        this.hintWarmUpMoves = hintWarmUpMoves;
+        this.journalDirectory = journalDirectory;
+        this.journalQueueCapacity = journalQueueCapacity;
+        this.journalSnapshotIntervalSeconds = journalSnapshotIntervalSeconds;
+        this.pushThreads = pushThreads > 0 ? pushThreads : Runtime.getRuntime().availableProcessors();
+        this.pushTimeoutMillis = pushTimeoutMillis;
+        this.actorThreads = actorThreads > 0 ? actorThreads : Runtime.getRuntime().availableProcessors();
+        this.actorMailboxCapacity = actorMailboxCapacity;
+        this.storeDirectory = storeDirectory;
+        this.storeMemoryBudgetMegabytes = storeMemoryBudgetMegabytes;
+        this.storeIdleSeconds = storeIdleSeconds;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(new RenderTimingInterceptor(meterRegistry));
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty("journal.directory")
+    public GameJournal getGameJournalBean() throws IOException {
+        return new GameJournal(Paths.get(journalDirectory), journalQueueCapacity);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty("store.directory")
+    public HibernatingGameStore getHibernatingGameStoreBean() throws IOException {
+        return new HibernatingGameStore(Paths.get(storeDirectory), storeMemoryBudgetMegabytes << 20,
+                storeIdleSeconds, meterRegistry);
+    }
+
+    @Bean
+    public GameEventPublisher getGameEventPublisherBean() {
+        return new GameEventPublisher(Executors.newFixedThreadPool(pushThreads), pushTimeoutMillis);
+    }
+
+    @Bean(destroyMethod = "close")
+    public GameActors getGameActorsBean() {
+        GameActors gameActors = new GameActors(actorThreads, actorMailboxCapacity);
+        FunctionCounter.builder("kalaha.actor.rejected", gameActors, GameActors::getRejectedCount)
+                .description("Commands rejected because the mailbox of their game was full")
+                .register(meterRegistry);
+        return gameActors;
+    }
+
+    @Bean
+    public GameMetrics getGameMetricsBean() {
+        return new GameMetrics(meterRegistry);
     }
 
     @Bean
-    public Game getGameBean() {
-        return Game.builder().board(getBoardBean()).build();
+    public GameRegistry getGameRegistryBean(final Optional<GameJournal> journal,
+                                            final Optional<HibernatingGameStore> store) throws IOException {
+        GameListener listener = getGameEventPublisherBean()
+                .andThen(getGameMetricsBean())
+                .andThen(getHintServiceBean());
+        GameStore games = store.<GameStore>map(Function.identity()).orElseGet(InMemoryGameStore::new);
+        if (!journal.isPresent())
+            return monitored(new GameRegistry(this::newGame, listener, games));
+
+        GameRegistry registry = new GameRegistry(this::newGame, journal.get().andThen(listener), games);
+        journal.get().recover(registry);
+        if (journalSnapshotIntervalSeconds > 0)
+            journal.get().scheduleSnapshots(registry, journalSnapshotIntervalSeconds);
+        return monitored(registry);
     }
 
     @Bean
-    public Board getBoardBean() {
-        return BoardImpl.builder()
-                .pitList(pitsPerPlayer, stonesPerPit)
+    public SearchEngine getSearchEngineBean() throws IOException {
+        SearchEngine engine = newSearchEngine();
+        OpeningBook openingBook = getOpeningBookBean();
+        if (openingBook == null)
+            return engine;
+
+        OpeningBookEngine bookEngine = new OpeningBookEngine(openingBook, engine);
+        FunctionCounter.builder("kalaha.engine.book.moves", bookEngine, OpeningBookEngine::getBookMoveCount)
+                .description("Computer moves taken from the opening book without a search")
+                .register(meterRegistry);
+        return bookEngine;
+    }
+
+    /**
+     * The engine of the hints has no pool, every analysis searches on the thread that runs it, so
+     * {@code hint.threads} analyses and any number of requests search side by side.
+     */
+    @Bean(destroyMethod = "close")
+    public HintService getHintServiceBean() throws IOException {
+        AlphaBetaEngine engine = AlphaBetaEngine.builder()
+                .maxDepth(computerMaxDepth)
+                .timeBudgetMillis(hintTimeBudgetMillis)
+                .parallelism(1)
+                .transpositionTableEntries(computerTranspositionTableEntries)
+                .endgameDatabase(getEndgameDatabaseBean())
+                .build();
+        OpeningBook openingBook = getOpeningBookBean();
+        SearchEngine hintEngine = openingBook == null ? engine : new OpeningBookEngine(openingBook, engine);
+        HintService hintService = new HintService(hintEngine, hintThreads, hintQueueCapacity, hintCacheEntries,
+                meterRegistry);
+        hintService.warmUp(newBoard(), hintWarmUpMoves);
+        return hintService;
+    }
+
+    /**
+     * The endgame database shared by the computer and the hints, or null when none is configured.
+     */
+    @Bean
+    public EndgameDatabase getEndgameDatabaseBean() throws IOException {
+        if (endgameDatabasePath.isEmpty())
+            return null;
+
+        EndgameDatabase endgameDatabase = EndgameDatabase.open(Paths.get(endgameDatabasePath));
+        if (endgameDatabase.getPitsPerPlayer() != pitsPerPlayer)
+            throw new IllegalStateException(String.format("Endgame database %s is built for %s pits per player",
+                    endgameDatabasePath, endgameDatabase.getPitsPerPlayer()));
+        return endgameDatabase;
+    }
+
+    /**
+     * The opening book shared by the computer and the hints, or null when none is configured.
+     */
+    @Bean
+    public OpeningBook getOpeningBookBean() throws IOException {
+        if (openingBookPath.isEmpty())
+            return null;
+
+        OpeningBook openingBook = OpeningBook.open(Paths.get(openingBookPath));
+        if (openingBook.getPitsPerPlayer() != pitsPerPlayer || openingBook.getStonesPerPit() != stonesPerPit)
+            throw new IllegalStateException(String.format("Opening book %s is built for %s pits of %s stones",
+                    openingBookPath, openingBook.getPitsPerPlayer(), openingBook.getStonesPerPit()));
+        return openingBook;
+    }
+
+    @Bean
+    public ComputerPlayer getComputerPlayerBean(final GameRegistry gameRegistry) throws IOException {
+        return new ComputerPlayer(getSearchEngineBean(), getGameActorsBean(), gameRegistry);
+    }
+
+    private SearchEngine newSearchEngine() throws IOException {
+        if ("mcts".equalsIgnoreCase(computerEngine)) {
+            MctsEngine engine = MctsEngine.builder()
+                    .timeBudgetMillis(computerTimeBudgetMillis)
+                    .parallelism(computerParallelism)
+                    .exploration(computerMctsExploration)
+                    .reusedNodes(computerMctsReusedNodes)
+                    .build();
+            Gauge.builder("kalaha.engine.mcts.reusable.trees", engine, MctsEngine::getReusableTreeCount)
+                    .description("Search trees kept for positions the computer may have to move from next")
+                    .register(meterRegistry);
+            return engine;
+        }
+
+        AlphaBetaEngine engine = AlphaBetaEngine.builder()
+                .maxDepth(computerMaxDepth)
+                .timeBudgetMillis(computerTimeBudgetMillis)
+                .parallelism(computerParallelism)
+                .transpositionTableEntries(computerTranspositionTableEntries)
+                .endgameDatabase(getEndgameDatabaseBean())
+                .build();
+        Gauge.builder("kalaha.engine.transposition.hit.rate", engine, e -> e.getTranspositionTable().getHitRate())
+                .description("Share of transposition table probes that found their position")
+                .register(meterRegistry);
+        return engine;
+    }
+
+    private GameRegistry monitored(final GameRegistry registry) {
+        getGameMetricsBean().monitor(registry);
+        return registry;
+    }
+
+    private Game newGame() {
+        return Game.builder().board(newBoard()).build();
+    }
+
+    private Board newBoard() {
+        if ("list".equalsIgnoreCase(implementation)) {
+            return BoardImpl.builder()
+                    .pitList(pitsPerPlayer, stonesPerPit)
+                    .southTurn(southTurn)
+                    .build();
+        }
+        if ("packed".equalsIgnoreCase(implementation)) {
+            return PackedBoard.builder()
+                    .pits(pitsPerPlayer, stonesPerPit)
+                    .southTurn(southTurn)
+                    .build();
+        }
+        return ArrayBoard.builder()
+                .pits(pitsPerPlayer, stonesPerPit)
                 .southTurn(southTurn)
                 .build();
     }
+
+    /**
+     * Fails the start on an unknown board, which would otherwise be played and measured as an
+     * array board without notice.
+     */
+    private static String checkImplementation(final String implementation) {
+        if (!"list".equalsIgnoreCase(implementation) && !"array".equalsIgnoreCase(implementation)
+                && !"packed".equalsIgnoreCase(implementation))
+            throw new IllegalArgumentException(String.format("Unknown board.implementation %s, expected list, "
+                    + "array or packed", implementation));
+        return implementation;
+    }
 }
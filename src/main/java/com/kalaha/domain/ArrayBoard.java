@@ -0,0 +1,265 @@
+package com.kalaha.domain;
+
+import lombok.Builder;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntConsumer;
+
+public final class ArrayBoard implements Board {
+
+    private boolean southTurn;
+    private final int[] pits;
+    private final List<Integer> pitListView = new PitListView();
+    private final BitSet changedPits = new BitSet();
+    private final SowingTable sowingSouth;
+    private final SowingTable sowingNorth;
+    private final MoveHistory history;
+    private int stonesSouth;
+    private int stonesNorth;
+    private long zobristKey;
+
+    @Builder
+    public ArrayBoard(final boolean southTurn, final int[] pits) {
+        this.pits = pits;
+        this.sowingSouth = SowingTable.forSide(pits.length, true);
+        this.sowingNorth = SowingTable.forSide(pits.length, false);
+        this.history = new MoveHistory(this, pits.length, this::addStones);
+        load(pits, southTurn);
+    }
+
+    /**
+     * Copies the position and shares the sowing tables, the row totals and the key of the source
+     * instead of computing them again.
+     */
+    private ArrayBoard(final ArrayBoard source) {
+        this.southTurn = source.southTurn;
+        this.pits = source.pits.clone();
+        this.sowingSouth = source.sowingSouth;
+        this.sowingNorth = source.sowingNorth;
+        this.history = new MoveHistory(this, pits.length, this::addStones);
+        this.stonesSouth = source.stonesSouth;
+        this.stonesNorth = source.stonesNorth;
+        this.zobristKey = source.zobristKey;
+    }
+
+    @Override
+    public void load(final int[] position, final boolean southTurn) {
+        System.arraycopy(position, 0, pits, 0, pits.length);
+        this.southTurn = southTurn;
+        this.changedPits.clear();
+        this.history.clear();
+        this.stonesSouth = sum(0, getIndexKalahaSouth());
+        this.stonesNorth = sum(getIndexKalahaSouth() + 1, getIndexKalahaNorth());
+        this.zobristKey = Zobrist.turnKey(southTurn);
+        for (int i = 0; i < pits.length; i++) {
+            zobristKey ^= Zobrist.pitKey(i, pits[i]);
+        }
+    }
+
+    @Override
+    public void makeMove(final int index) {
+        changedPits.clear();
+        boolean southMoved = southTurn;
+        int stones = pits[index];
+        int lastPit = allocateStonesAndGetLastPit(index);
+        int capturedStones = captureIfLastPitIsOwnEmptyPit(lastPit);
+        boolean collected = collectLastStonesIfGameIsOver();
+        switchTurnsIfLastPitIsNotOwnKalaha(lastPit);
+        history.push(index, stones, capturedStones, southMoved, collected);
+    }
+
+    @Override
+    public void unmakeMove() {
+        changedPits.clear();
+        history.undo();
+    }
+
+    @Override
+    public boolean canUnmakeMove() {
+        return !history.isEmpty();
+    }
+
+    @Override
+    public List<Integer> getPitList() {
+        return pitListView;
+    }
+
+    @Override
+    public int getStonesInPit(final int index) {
+        return pits[index];
+    }
+
+    @Override
+    public int getIndexKalahaSouth() {
+        return pits.length / 2 - 1;
+    }
+
+    @Override
+    public int getIndexKalahaNorth() {
+        return pits.length - 1;
+    }
+
+    @Override
+    public boolean isSouthTurn() {
+        return southTurn;
+    }
+
+    @Override
+    public void setSouthTurn(final boolean southTurn) {
+        zobristKey ^= Zobrist.turnKey(this.southTurn) ^ Zobrist.turnKey(southTurn);
+        this.southTurn = southTurn;
+    }
+
+    @Override
+    public boolean isEmpty(final int index) {
+        return pits[index] == 0;
+    }
+
+    @Override
+    public boolean isGameOver() {
+        return stonesSouth == 0 || stonesNorth == 0;
+    }
+
+    @Override
+    public int getTotalStonesInPitsSouth() {
+        return stonesSouth;
+    }
+
+    @Override
+    public int getTotalStonesInPitsNorth() {
+        return stonesNorth;
+    }
+
+    @Override
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    @Override
+    public void forEachPitChangedByLastMove(final IntConsumer action) {
+        changedPits.stream().forEach(action);
+    }
+
+    @Override
+    public Board copy() {
+        return new ArrayBoard(this);
+    }
+
+    private int allocateStonesAndGetLastPit(final int index) {
+        int stones = pits[index];
+        SowingTable sowing = southTurn ? sowingSouth : sowingNorth;
+        int[] order = sowing.getOrder();
+        int laps = stones / sowing.getLap();
+        int start = sowing.getPosition(index);
+        emptyPit(index);
+        if (laps > 0) {
+            for (int i = 0; i < sowing.getLap(); i++) {
+                addStones(order[i], laps);
+            }
+        }
+        for (int i = start + 1; i <= start + stones % sowing.getLap(); i++) {
+            addStones(order[i], 1);
+        }
+        return sowing.getLandingPit(index, stones);
+    }
+
+    private int captureIfLastPitIsOwnEmptyPit(final int index) {
+        if (pits[index] == 1 && isARegularPit(index) && landsInPlayersOwnPit(index)) {
+            int kalaha = southTurn ? getIndexKalahaSouth() : getIndexKalahaNorth();
+            int oppositePit = 2 * getIndexKalahaSouth() - index;
+            int capturedStones = pits[oppositePit];
+
+            addStones(kalaha, pits[index] + capturedStones);
+            emptyPit(index);
+            emptyPit(oppositePit);
+            return capturedStones;
+        }
+        return MoveHistory.NO_CAPTURE;
+    }
+
+    private boolean isARegularPit(final int index) {
+        return index != getIndexKalahaSouth() && index != getIndexKalahaNorth();
+    }
+
+    private boolean landsInPlayersOwnPit(final int index) {
+        return southTurn ? index < getIndexKalahaSouth() : index > getIndexKalahaSouth();
+    }
+
+    private boolean collectLastStonesIfGameIsOver() {
+        if (isGameOver()) {
+            history.saveBeforeCollecting();
+            addStones(getIndexKalahaSouth(), stonesSouth);
+            addStones(getIndexKalahaNorth(), stonesNorth);
+            for (int i = 0; i < getIndexKalahaNorth(); i++) {
+                if (i != getIndexKalahaSouth())
+                    emptyPit(i);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void switchTurnsIfLastPitIsNotOwnKalaha(final int lastPit) {
+        int ownKalaha = southTurn ? getIndexKalahaSouth() : getIndexKalahaNorth();
+        if (lastPit != ownKalaha) {
+            setSouthTurn(!southTurn);
+        }
+    }
+
+    private void addStones(final int index, final int amount) {
+        zobristKey ^= Zobrist.pitKey(index, pits[index]) ^ Zobrist.pitKey(index, pits[index] + amount);
+        pits[index] += amount;
+        changedPits.set(index);
+        if (index < getIndexKalahaSouth())
+            stonesSouth += amount;
+        else if (index > getIndexKalahaSouth() && index < getIndexKalahaNorth())
+            stonesNorth += amount;
+    }
+
+    private void emptyPit(final int index) {
+        addStones(index, -pits[index]);
+    }
+
+    private int sum(final int fromIndex, final int toIndex) {
+        int total = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            total += pits[i];
+        }
+        return total;
+    }
+
+    private final class PitListView extends AbstractList<Integer> implements RandomAccess {
+        @Override
+        public Integer get(final int index) {
+            return pits[index];
+        }
+
+        @Override
+        public int size() {
+            return pits.length;
+        }
+    }
+
+    public static final class ArrayBoardBuilder {
+        private int[] pits;
+
+        public ArrayBoardBuilder pits(final int pitsPerPlayer, final int stonesPerPit) {
+            int[] array = new int[2 * pitsPerPlayer + 2];
+            Arrays.fill(array, stonesPerPit);
+            array[array.length / 2 - 1] = 0;
+            array[array.length - 1] = 0;
+
+            this.pits = array;
+            return this;
+        }
+
+        public ArrayBoardBuilder pits(final int[] pits) {
+            this.pits = pits.clone();
+            return this;
+        }
+    }
+}
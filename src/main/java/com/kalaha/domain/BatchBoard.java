@@ -0,0 +1,246 @@
+package com.kalaha.domain;
+
+import java.util.Arrays;
+
+/**
+ * Holds many boards of the same size in flat arrays, laid out pit-major: the stones of pit p on
+ * board b are at p * capacity + b. Moves are applied to all boards at once, one pit at a time,
+ * so the inner loops run over consecutive ints of the same pit without branching on the board
+ * and the JIT can vectorize them. Boards are loaded from and exported to any {@link Board}.
+ */
+public final class BatchBoard {
+
+    public static final int NO_MOVE = -1;
+
+    private final int pitCount;
+    private final int capacity;
+    private final int kalahaSouth;
+    private final int kalahaNorth;
+    private final SowingTable sowingSouth;
+    private final SowingTable sowingNorth;
+    private final int[] stones;
+    private final boolean[] southTurn;
+    private final int[] startPits;
+    private final int[] startPositions;
+    private final int[] laps;
+    private final int[] remainders;
+    private final int[] lastPits;
+    private final int[] stonesSouth;
+    private final int[] stonesNorth;
+    private final boolean[] collect;
+    private int size;
+
+    public BatchBoard(final int pitsPerPlayer, final int capacity) {
+        this.pitCount = 2 * pitsPerPlayer + 2;
+        this.capacity = capacity;
+        this.kalahaSouth = pitsPerPlayer;
+        this.kalahaNorth = pitCount - 1;
+        this.sowingSouth = SowingTable.forSide(pitCount, true);
+        this.sowingNorth = SowingTable.forSide(pitCount, false);
+        this.stones = new int[pitCount * capacity];
+        this.southTurn = new boolean[capacity];
+        this.startPits = new int[capacity];
+        this.startPositions = new int[capacity];
+        this.laps = new int[capacity];
+        this.remainders = new int[capacity];
+        this.lastPits = new int[capacity];
+        this.stonesSouth = new int[capacity];
+        this.stonesNorth = new int[capacity];
+        this.collect = new boolean[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getPitCount() {
+        return pitCount;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends the position of a board to the batch and returns its index.
+     */
+    public int add(final Board board) {
+        if (size == capacity)
+            throw new IllegalStateException(String.format("The batch is full with %s boards", capacity));
+        load(size, board);
+        return size++;
+    }
+
+    public void load(final int board, final Board source) {
+        if (source.getPitList().size() != pitCount)
+            throw new IllegalArgumentException(String.format("Board has %s pits, the batch %s",
+                    source.getPitList().size(), pitCount));
+        for (int pit = 0; pit < pitCount; pit++) {
+            stones[pit * capacity + board] = source.getStonesInPit(pit);
+        }
+        southTurn[board] = source.isSouthTurn();
+    }
+
+    /**
+     * Replaces the boards of this batch with those of another batch of the same shape, copying the
+     * flat arrays as they are.
+     */
+    public void copyFrom(final BatchBoard source) {
+        if (source.pitCount != pitCount || source.capacity != capacity)
+            throw new IllegalArgumentException(String.format("Batch holds %s boards of %s pits, expected %s of %s",
+                    source.capacity, source.pitCount, capacity, pitCount));
+        System.arraycopy(source.stones, 0, stones, 0, stones.length);
+        System.arraycopy(source.southTurn, 0, southTurn, 0, southTurn.length);
+        size = source.size;
+    }
+
+    public void exportTo(final int board, final Board target) {
+        target.load(getPits(board), southTurn[board]);
+    }
+
+    public Board toBoard(final int board) {
+        return ArrayBoard.builder()
+                .pits(getPits(board))
+                .southTurn(southTurn[board])
+                .build();
+    }
+
+    public int getStonesInPit(final int board, final int pit) {
+        return stones[pit * capacity + board];
+    }
+
+    public boolean isSouthTurn(final int board) {
+        return southTurn[board];
+    }
+
+    /**
+     * Makes one move on every board of the batch, pits[b] being the pit to sow on board b or
+     * {@link #NO_MOVE} to leave it as it is. Like {@link Board#makeMove(int)}, moves are not
+     * checked to be legal.
+     */
+    public void makeMoves(final int[] pits) {
+        if (pits.length < size)
+            throw new IllegalArgumentException(String.format("Expected moves for %s boards, got %s", size, pits.length));
+        takeStones(pits);
+        sow();
+        captureAndSwitchTurns();
+        collectLastStonesOfFinishedGames();
+    }
+
+    /**
+     * Marks the boards whose game is over and returns how many there are.
+     */
+    public int findGameOver(final boolean[] gameOver) {
+        sumStonesPerSide();
+        int count = 0;
+        for (int b = 0; b < size; b++) {
+            gameOver[b] = stonesSouth[b] == 0 || stonesNorth[b] == 0;
+            count += gameOver[b] ? 1 : 0;
+        }
+        return count;
+    }
+
+    private int[] getPits(final int board) {
+        int[] pits = new int[pitCount];
+        for (int pit = 0; pit < pitCount; pit++) {
+            pits[pit] = stones[pit * capacity + board];
+        }
+        return pits;
+    }
+
+    private void takeStones(final int[] pits) {
+        int lap = sowingSouth.getLap();
+        for (int b = 0; b < size; b++) {
+            int pit = pits[b];
+            SowingTable sowing = southTurn[b] ? sowingSouth : sowingNorth;
+            int taken = pit == NO_MOVE ? 0 : stones[pit * capacity + b];
+            startPits[b] = pit;
+            startPositions[b] = pit == NO_MOVE ? 0 : sowing.getPosition(pit);
+            laps[b] = taken / lap;
+            remainders[b] = taken % lap;
+            lastPits[b] = pit == NO_MOVE ? NO_MOVE : sowing.getLandingPit(pit, taken);
+        }
+    }
+
+    /**
+     * A pit at distance d (1 to lap) after the start pit in the sowing order of the mover gets a
+     * stone per lap and one more when d does not exceed the remainder. The kalaha of the opponent
+     * has no position and gets nothing.
+     */
+    private void sow() {
+        int lap = sowingSouth.getLap();
+        for (int pit = 0; pit < pitCount; pit++) {
+            int base = pit * capacity;
+            int positionSouth = sowingSouth.getPosition(pit);
+            int positionNorth = sowingNorth.getPosition(pit);
+            for (int b = 0; b < size; b++) {
+                int position = southTurn[b] ? positionSouth : positionNorth;
+                int distance = position - startPositions[b];
+                distance += distance <= 0 ? lap : 0;
+                int sown = position < 0 ? 0 : laps[b] + (distance <= remainders[b] ? 1 : 0);
+                int current = startPits[b] == pit ? 0 : stones[base + b];
+                stones[base + b] = current + sown;
+            }
+        }
+    }
+
+    private void captureAndSwitchTurns() {
+        for (int b = 0; b < size; b++) {
+            int lastPit = lastPits[b];
+            if (lastPit == NO_MOVE)
+                continue;
+
+            boolean south = southTurn[b];
+            int kalaha = south ? kalahaSouth : kalahaNorth;
+            boolean ownPit = south ? lastPit < kalahaSouth : lastPit > kalahaSouth && lastPit < kalahaNorth;
+            if (ownPit && stones[lastPit * capacity + b] == 1) {
+                int opposite = (2 * kalahaSouth - lastPit) * capacity + b;
+                stones[kalaha * capacity + b] += 1 + stones[opposite];
+                stones[lastPit * capacity + b] = 0;
+                stones[opposite] = 0;
+            }
+            if (lastPit != kalaha)
+                southTurn[b] = !south;
+        }
+    }
+
+    private void collectLastStonesOfFinishedGames() {
+        sumStonesPerSide();
+        for (int b = 0; b < size; b++) {
+            collect[b] = startPits[b] != NO_MOVE && (stonesSouth[b] == 0 || stonesNorth[b] == 0);
+        }
+        for (int b = 0; b < size; b++) {
+            stones[kalahaSouth * capacity + b] += collect[b] ? stonesSouth[b] : 0;
+            stones[kalahaNorth * capacity + b] += collect[b] ? stonesNorth[b] : 0;
+        }
+        for (int pit = 0; pit < kalahaNorth; pit++) {
+            if (pit == kalahaSouth)
+                continue;
+            int base = pit * capacity;
+            for (int b = 0; b < size; b++) {
+                stones[base + b] = collect[b] ? 0 : stones[base + b];
+            }
+        }
+    }
+
+    private void sumStonesPerSide() {
+        Arrays.fill(stonesSouth, 0, size, 0);
+        Arrays.fill(stonesNorth, 0, size, 0);
+        for (int pit = 0; pit < kalahaSouth; pit++) {
+            int base = pit * capacity;
+            for (int b = 0; b < size; b++) {
+                stonesSouth[b] += stones[base + b];
+            }
+        }
+        for (int pit = kalahaSouth + 1; pit < kalahaNorth; pit++) {
+            int base = pit * capacity;
+            for (int b = 0; b < size; b++) {
+                stonesNorth[b] += stones[base + b];
+            }
+        }
+    }
+}
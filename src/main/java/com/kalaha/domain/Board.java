@@ -1,13 +1,20 @@
 package com.kalaha.domain;
 
 import java.util.List;
+import java.util.function.IntConsumer;
 
 public interface Board {
 
     void makeMove(int index);
 
+    void unmakeMove();
+
+    boolean canUnmakeMove();
+
     List<Integer> getPitList();
 
+    int getStonesInPit(int index);
+
     int getIndexKalahaSouth();
 
     int getIndexKalahaNorth();
@@ -19,4 +26,16 @@ public interface Board {
     boolean isEmpty(int index);
 
     boolean isGameOver();
+
+    int getTotalStonesInPitsSouth();
+
+    int getTotalStonesInPitsNorth();
+
+    long getZobristKey();
+
+    void forEachPitChangedByLastMove(IntConsumer action);
+
+    Board copy();
+
+    void load(int[] position, boolean southTurn);
 }
@@ -1,40 +1,83 @@
 package com.kalaha.domain;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-@Builder
-@AllArgsConstructor
 public final class BoardImpl implements Board {
 
     private boolean southTurn;
     private final List<Integer> pitList;
+    private final BitSet changedPits = new BitSet();
+    private final MoveHistory history;
+    private int totalStonesInPitsSouth;
+    private int totalStonesInPitsNorth;
+    private long zobristKey;
+
+    @Builder
+    public BoardImpl(final boolean southTurn, final List<Integer> pitList) {
+        this.southTurn = southTurn;
+        this.pitList = pitList;
+        this.history = new MoveHistory(this, pitList.size(),
+                (index, amount) -> setStonesInPit(index, getStonesInPit(index) + amount));
+        this.totalStonesInPitsSouth = IntStream.range(0, getIndexKalahaSouth())
+                .map(this::getStonesInPit)
+                .sum();
+        this.totalStonesInPitsNorth = IntStream.range(getIndexKalahaSouth() + 1, getIndexKalahaNorth())
+                .map(this::getStonesInPit)
+                .sum();
+        this.zobristKey = IntStream.range(0, pitList.size())
+                .mapToLong(index -> Zobrist.pitKey(index, getStonesInPit(index)))
+                .reduce(Zobrist.turnKey(southTurn), (left, right) -> left ^ right);
+    }
 
     @Override
     public void makeMove(final int index) {
+        changedPits.clear();
+        boolean southMoved = isSouthTurn();
+        int stones = getStonesInPit(index);
         int lastPit = allocateStonesAndGetLastPit(index);
-        captureIfLastPitIsOwnEmptyPit(lastPit);
-        collectLastStonesIfGameIsOver();
+        int capturedStones = captureIfLastPitIsOwnEmptyPit(lastPit);
+        boolean collected = collectLastStonesIfGameIsOver();
         switchTurnsIfLastPitIsNotOwnKalaha(lastPit);
+        history.push(index, stones, capturedStones, southMoved, collected);
+    }
+
+    @Override
+    public void unmakeMove() {
+        changedPits.clear();
+        history.undo();
+    }
+
+    @Override
+    public boolean canUnmakeMove() {
+        return !history.isEmpty();
     }
 
     @Override
     public List<Integer> getPitList() {
-        return pitList;
+        return Collections.unmodifiableList(pitList);
+    }
+
+    @Override
+    public int getStonesInPit(final int index) {
+        return pitList.get(index);
     }
 
     @Override
     public int getIndexKalahaSouth() {
-        return getPitList().size() / 2 - 1;
+        return pitList.size() / 2 - 1;
     }
 
     @Override
     public int getIndexKalahaNorth() {
-        return getPitList().size() - 1;
+        return pitList.size() - 1;
     }
 
     @Override
@@ -44,6 +87,7 @@ public final class BoardImpl implements Board {
 
     @Override
     public void setSouthTurn(final boolean southTurn) {
+        zobristKey ^= Zobrist.turnKey(this.southTurn) ^ Zobrist.turnKey(southTurn);
         this.southTurn = southTurn;
     }
 
@@ -57,15 +101,50 @@ public final class BoardImpl implements Board {
         return getTotalStonesInPitsSouth() == 0 || getTotalStonesInPitsNorth() == 0;
     }
 
+    @Override
+    public int getTotalStonesInPitsSouth() {
+        return totalStonesInPitsSouth;
+    }
+
+    @Override
+    public int getTotalStonesInPitsNorth() {
+        return totalStonesInPitsNorth;
+    }
+
+    @Override
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    @Override
+    public void forEachPitChangedByLastMove(final IntConsumer action) {
+        changedPits.stream().forEach(action);
+    }
+
+    @Override
+    public Board copy() {
+        return new BoardImpl(southTurn, new ArrayList<>(pitList));
+    }
+
+    @Override
+    public void load(final int[] position, final boolean southTurn) {
+        for (int i = 0; i < pitList.size(); i++) {
+            setStonesInPit(i, position[i]);
+        }
+        setSouthTurn(southTurn);
+        changedPits.clear();
+        history.clear();
+    }
+
     private int allocateStonesAndGetLastPit(final int index) {
         int stones = getStonesInPit(index);
         int lastPit = index;
+        emptyPit(index);
         while (stones > 0) {
             lastPit = nextPit(lastPit);
             incrementStonesInPit(lastPit);
             --stones;
         }
-        emptyPit(index);
         return lastPit;
     }
 
@@ -82,15 +161,18 @@ public final class BoardImpl implements Board {
         setStonesInPit(index, getStonesInPit(index) + 1);
     }
 
-    private void captureIfLastPitIsOwnEmptyPit(final int index) {
+    private int captureIfLastPitIsOwnEmptyPit(final int index) {
         if (pitContainsOneStone(index) && isARegularPit(index) && landsInPlayersOwnPit(index)) {
             int kalaha = isSouthTurn() ? getIndexKalahaSouth() : getIndexKalahaNorth();
-            int capturedStones = getStonesInPit(index) + getStonesInPit(oppositePit(index));
+            int stonesOppositePit = getStonesInPit(oppositePit(index));
+            int capturedStones = getStonesInPit(index) + stonesOppositePit;
 
             setStonesInPit(kalaha, getStonesInPit(kalaha) + capturedStones);
             emptyPit(index);
             emptyPit(oppositePit(index));
+            return stonesOppositePit;
         }
+        return MoveHistory.NO_CAPTURE;
     }
 
     private boolean pitContainsOneStone(final int index) {
@@ -110,14 +192,17 @@ public final class BoardImpl implements Board {
         return 2 * getIndexKalahaSouth() - index;
     }
 
-    private void collectLastStonesIfGameIsOver() {
+    private boolean collectLastStonesIfGameIsOver() {
         if (isGameOver()) {
+            history.saveBeforeCollecting();
             int lastStonesSouth = getTotalStonesInPitsSouth();
             int lastStonesNorth = getTotalStonesInPitsNorth();
 
             collectStones(lastStonesSouth, lastStonesNorth);
             emptyRegularPits();
+            return true;
         }
+        return false;
     }
 
     private void collectStones(final int lastStonesSouth, final int lastStonesNorth) {
@@ -147,28 +232,19 @@ public final class BoardImpl implements Board {
                 || isNotSouthTurn() && index != getIndexKalahaNorth();
     }
 
-    private int getStonesInPit(final int index) {
-        return getPitList().get(index);
-    }
-
     private void setStonesInPit(final int index, final int value) {
-        getPitList().set(index, value);
+        int previousValue = pitList.set(index, value);
+        changedPits.set(index);
+        int difference = value - previousValue;
+        zobristKey ^= Zobrist.pitKey(index, previousValue) ^ Zobrist.pitKey(index, value);
+        if (index < getIndexKalahaSouth())
+            totalStonesInPitsSouth += difference;
+        else if (isARegularPit(index))
+            totalStonesInPitsNorth += difference;
     }
 
     private void emptyPit(final int index) {
-        getPitList().set(index, 0);
-    }
-
-    private int getTotalStonesInPitsSouth() {
-        return IntStream.range(0, getIndexKalahaSouth())
-                .map(this::getStonesInPit)
-                .sum();
-    }
-
-    private int getTotalStonesInPitsNorth() {
-        return IntStream.range(getIndexKalahaSouth() + 1, getIndexKalahaNorth())
-                .map(this::getStonesInPit)
-                .sum();
+        setStonesInPit(index, 0);
     }
 
     private int skipKalahaOpponent(final int index) {
@@ -199,5 +275,10 @@ public final class BoardImpl implements Board {
             this.pitList = list;
             return this;
         }
+
+        public BoardImplBuilder pitList(final List<Integer> pitList) {
+            this.pitList = new ArrayList<>(pitList);
+            return this;
+        }
     }
 }
@@ -1,19 +1,134 @@
 package com.kalaha.domain;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.List;
-
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A game is changed by a single writer at a time, the actor of the game, and takes no lock. After
+ * every command it publishes a copy of its state, which readers on other threads see instead. A
+ * game set up outside its actor is published by the {@link GameRegistry} that hands it out.
+ */
 @Data
 @Builder
 public final class Game {
 
+    private long id;
     private Board board;
+    private boolean computerNorth;
+    private long version;
+    @Builder.Default
+    private GameListener listener = GameListener.NONE;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile Game published;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean takeBackAllowed;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile boolean writing;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile boolean hibernated;
 
     public void play(final int index) {
-        board.makeMove(index);
+        write(() -> {
+            apply(index, true);
+            return null;
+        });
+    }
+
+    public GameSnapshot play(final int index, final long expectedVersion) {
+        return write(() -> {
+            checkVersion(expectedVersion);
+            apply(index, true);
+            return copyState();
+        });
+    }
+
+    /**
+     * Plays the moves one after another in a single command, so no other move can come between
+     * them. The moves must have been checked against the state of the expected version.
+     */
+    public GameSnapshot playAll(final int[] indexes, final long expectedVersion) {
+        return write(() -> {
+            checkVersion(expectedVersion);
+            for (int i = 0; i < indexes.length; i++) {
+                apply(indexes[i], i == indexes.length - 1);
+            }
+            return copyState();
+        });
+    }
+
+    /**
+     * Takes back the last move of the player, together with the moves the computer made since.
+     * A finished game cannot be taken back, and neither can moves recovered from a snapshot.
+     */
+    public GameSnapshot takeBack(final long expectedVersion) {
+        return write(() -> {
+            checkVersion(expectedVersion);
+            if (!canTakeBack())
+                throw new NoMoveToTakeBackException(id);
+
+            int moves = 0;
+            do {
+                board.unmakeMove();
+                ++moves;
+            } while (computerNorth && !board.isSouthTurn() && board.canUnmakeMove());
+            ++version;
+            publish();
+            listener.onTakeBack(this, moves);
+            return copyState();
+        });
+    }
+
+    /**
+     * Returns the state to write to disk and rejects all further moves on this instance, which
+     * may still be referenced by a request that got it before it was evicted. A move already
+     * being made is waited for, which takes no longer than the move itself.
+     */
+    public GameSnapshot hibernate() {
+        hibernated = true;
+        while (writing) {
+            Thread.yield();
+        }
+        return copyState();
+    }
+
+    /**
+     * Runs the reader on the state published by the last command, which is never changed itself,
+     * so the reader must not change it either.
+     */
+    public <T> T read(final Function<Game, T> reader) {
+        Game view = published;
+        return reader.apply(view != null ? view : freeze());
+    }
+
+    public GameSnapshot snapshot() {
+        return read(Game::copyState);
+    }
+
+    /**
+     * Whether the last move of the player can be taken back. The published state has no moves to
+     * take back, so it remembers the answer of the game it was copied from.
+     */
+    public boolean canTakeBack() {
+        if (published == this)
+            return takeBackAllowed;
+        return !board.isGameOver() && board.canUnmakeMove();
     }
 
     public String getWinnerMessage() {
@@ -26,7 +141,7 @@ public final class Game {
     }
 
     public int getOffsetPlayerNorth() {
-        return board.getPitList().size() / 2;
+        return board.getIndexKalahaSouth() + 1;
     }
 
     public List<Integer> getPitListSouth() {
@@ -41,13 +156,11 @@ public final class Game {
     }
 
     public int getStonesKalahaSouth() {
-        int index = board.getIndexKalahaSouth();
-        return board.getPitList().get(index);
+        return board.getStonesInPit(board.getIndexKalahaSouth());
     }
 
     public int getStonesKalahaNorth() {
-        int index = board.getIndexKalahaNorth();
-        return board.getPitList().get(index);
+        return board.getStonesInPit(board.getIndexKalahaNorth());
     }
 
     public boolean isSouthTurn() {
@@ -65,4 +178,76 @@ public final class Game {
     public boolean isGameOver() {
         return board.isGameOver();
     }
+
+    public boolean isComputerTurn() {
+        return computerNorth && !board.isSouthTurn() && !board.isGameOver();
+    }
+
+    /**
+     * Runs the change unless the game is hibernated. The flags are written before they are read on
+     * both sides, so either the change sees the game hibernated or {@link #hibernate()} waits.
+     */
+    private <T> T write(final Supplier<T> change) {
+        writing = true;
+        try {
+            if (hibernated)
+                throw new StaleVersionException(id);
+            return change.get();
+        } finally {
+            writing = false;
+        }
+    }
+
+    private void checkVersion(final long expectedVersion) {
+        if (version != expectedVersion)
+            throw new StaleVersionException(id, expectedVersion, version);
+    }
+
+    /**
+     * Publishes the last move of a command before the listener hears of it, so a reader the
+     * listener wakes up sees the move.
+     */
+    private void apply(final int index, final boolean last) {
+        boolean southMoved = board.isSouthTurn();
+        board.makeMove(index);
+        ++version;
+        if (last)
+            publish();
+        listener.onMove(this, index, southMoved);
+    }
+
+    /**
+     * Publishes the state set up so far. Readers of a game that was never published copy its
+     * state themselves, which is only safe before the game is handed out.
+     */
+    void publish() {
+        published = freeze();
+    }
+
+    private Game freeze() {
+        Game view = Game.builder()
+                .id(id)
+                .board(board.copy())
+                .computerNorth(computerNorth)
+                .version(version)
+                .build();
+        view.takeBackAllowed = canTakeBack();
+        view.published = view;
+        return view;
+    }
+
+    private GameSnapshot copyState() {
+        int[] pits = new int[board.getIndexKalahaNorth() + 1];
+        for (int i = 0; i < pits.length; i++) {
+            pits[i] = board.getStonesInPit(i);
+        }
+        return GameSnapshot.builder()
+                .id(id)
+                .version(version)
+                .computerNorth(computerNorth)
+                .southTurn(board.isSouthTurn())
+                .gameOver(board.isGameOver())
+                .pits(pits)
+                .build();
+    }
 }
@@ -0,0 +1,132 @@
+package com.kalaha.domain;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.io.Closeable;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Changes every game from a single writer. The commands of a game are queued in its mailbox and
+ * run one after another on a pool shared by all games, so the game needs no lock and a burst on a
+ * few games takes at most a few pool threads. A mailbox holds a bounded number of commands, more
+ * are rejected with a {@link GameBusyException} right away.
+ * Commands must not ask for commands themselves, as they would wait for their own mailbox.
+ */
+public final class GameActors implements Closeable {
+
+    private static final int THROUGHPUT = 16;
+
+    private final ExecutorService executor;
+    private final int mailboxCapacity;
+    private final Cache<Game, Mailbox> mailboxes = Caffeine.newBuilder().weakKeys().build();
+    private final LongAdder rejected = new LongAdder();
+
+    public GameActors(final int threads, final int mailboxCapacity) {
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "game-actor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.mailboxCapacity = mailboxCapacity;
+    }
+
+    /**
+     * Runs the command in the mailbox of the game and returns its result, or throws what it threw.
+     */
+    public <T> T ask(final Game game, final Supplier<T> command) {
+        return ask(game, command, true);
+    }
+
+    /**
+     * Runs the command even when the mailbox is full, for the moves that follow a command already
+     * admitted, like the reply of the computer.
+     */
+    public <T> T askUnbounded(final Game game, final Supplier<T> command) {
+        return ask(game, command, false);
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T ask(final Game game, final Supplier<T> command, final boolean bounded) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        mailboxes.get(game, key -> new Mailbox()).tell(game, command, result, bounded);
+
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    private final class Mailbox {
+        private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * Queues the command, which stays counted until it has run and no longer is once its
+         * caller has the result.
+         */
+        private <T> void tell(final Game game, final Supplier<T> command, final CompletableFuture<T> result,
+                              final boolean bounded) {
+            if (pending.incrementAndGet() > mailboxCapacity && bounded) {
+                pending.decrementAndGet();
+                rejected.increment();
+                throw new GameBusyException(game.getId());
+            }
+            commands.offer(() -> {
+                T value;
+                try {
+                    value = command.get();
+                } catch (Throwable e) {
+                    pending.decrementAndGet();
+                    result.completeExceptionally(e);
+                    return;
+                }
+                pending.decrementAndGet();
+                result.complete(value);
+            });
+            if (scheduled.compareAndSet(false, true))
+                executor.execute(this::drain);
+        }
+
+        /**
+         * Runs the commands until the mailbox is empty, handing the thread over to other games
+         * after a few. A command offered while the drain gives up is seen by the one or the other.
+         */
+        private void drain() {
+            for (int i = 0; i < THROUGHPUT; i++) {
+                Runnable command = commands.poll();
+                if (command == null) {
+                    scheduled.set(false);
+                    if (commands.isEmpty() || !scheduled.compareAndSet(false, true))
+                        return;
+                    command = commands.poll();
+                }
+                command.run();
+            }
+            executor.execute(this::drain);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.kalaha.domain;
+
+public final class GameBusyException extends RuntimeException {
+
+    public GameBusyException(final long id) {
+        super(String.format("Game %s has too many moves waiting, try again later", id));
+    }
+}
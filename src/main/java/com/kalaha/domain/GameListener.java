@@ -0,0 +1,51 @@
+package com.kalaha.domain;
+
+public interface GameListener {
+
+    GameListener NONE = new GameListener() {
+    };
+
+    default void onCreate(Game game) {
+    }
+
+    default void onMove(Game game, int index, boolean southMoved) {
+    }
+
+    default void onTakeBack(Game game, int moves) {
+    }
+
+    /**
+     * Called when a game dropped from memory by its store was loaded again.
+     */
+    default void onRehydrate(Game game) {
+    }
+
+    default GameListener andThen(final GameListener next) {
+        GameListener first = this;
+        return new GameListener() {
+            @Override
+            public void onCreate(final Game game) {
+                first.onCreate(game);
+                next.onCreate(game);
+            }
+
+            @Override
+            public void onMove(final Game game, final int index, final boolean southMoved) {
+                first.onMove(game, index, southMoved);
+                next.onMove(game, index, southMoved);
+            }
+
+            @Override
+            public void onTakeBack(final Game game, final int moves) {
+                first.onTakeBack(game, moves);
+                next.onTakeBack(game, moves);
+            }
+
+            @Override
+            public void onRehydrate(final Game game) {
+                first.onRehydrate(game);
+                next.onRehydrate(game);
+            }
+        };
+    }
+}
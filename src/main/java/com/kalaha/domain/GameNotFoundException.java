@@ -0,0 +1,8 @@
+package com.kalaha.domain;
+
+public final class GameNotFoundException extends RuntimeException {
+
+    public GameNotFoundException(final long id) {
+        super(String.format("Game %s does not exist", id));
+    }
+}
@@ -0,0 +1,92 @@
+package com.kalaha.domain;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public final class GameRegistry {
+
+    private final GameStore games;
+    private final Supplier<Game> gameFactory;
+    private final GameListener listener;
+
+    public GameRegistry(final Supplier<Game> gameFactory) {
+        this(gameFactory, GameListener.NONE);
+    }
+
+    public GameRegistry(final Supplier<Game> gameFactory, final GameListener listener) {
+        this(gameFactory, listener, new InMemoryGameStore());
+    }
+
+    public GameRegistry(final Supplier<Game> gameFactory, final GameListener listener, final GameStore games) {
+        this.games = games;
+        this.gameFactory = gameFactory;
+        this.listener = listener;
+    }
+
+    public long create(final boolean computerNorth) {
+        Game game = gameFactory.get();
+        game.setComputerNorth(computerNorth);
+        game.setListener(listener);
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+            game.setId(id);
+            game.publish();
+        } while (!games.putIfAbsent(game));
+        listener.onCreate(game);
+        return id;
+    }
+
+    public void restore(final Game game) {
+        game.setListener(listener);
+        game.publish();
+        games.put(game);
+    }
+
+    public Game get(final long id) {
+        return find(id).orElseThrow(() -> new GameNotFoundException(id));
+    }
+
+    public Optional<Game> find(final long id) {
+        return Optional.ofNullable(games.get(id, this::rehydrate));
+    }
+
+    /**
+     * Loads a stored game without the listener, so the moves recovered from a journal are not
+     * recorded and counted again. {@link #restore(Game)} attaches the listener afterwards.
+     */
+    public Optional<Game> recover(final long id) {
+        return Optional.ofNullable(games.get(id, this::load));
+    }
+
+    public Game newGame() {
+        return gameFactory.get();
+    }
+
+    public void forEach(final Consumer<Game> action) {
+        games.forEach(action);
+    }
+
+    public int size() {
+        return games.size();
+    }
+
+    private Game rehydrate(final GameSnapshot snapshot) {
+        Game game = load(snapshot);
+        game.setListener(listener);
+        game.publish();
+        listener.onRehydrate(game);
+        return game;
+    }
+
+    private Game load(final GameSnapshot snapshot) {
+        Game game = gameFactory.get();
+        game.setId(snapshot.getId());
+        game.setVersion(snapshot.getVersion());
+        game.setComputerNorth(snapshot.isComputerNorth());
+        game.getBoard().load(snapshot.getPits(), snapshot.isSouthTurn());
+        return game;
+    }
+}
@@ -0,0 +1,23 @@
+package com.kalaha.domain;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class GameSnapshot {
+    private long id;
+    private long version;
+    private boolean computerNorth;
+    private boolean southTurn;
+    private boolean gameOver;
+    private int[] pits;
+
+    public int getIndexKalahaSouth() {
+        return pits.length / 2 - 1;
+    }
+
+    public int getIndexKalahaNorth() {
+        return pits.length - 1;
+    }
+}
@@ -0,0 +1,21 @@
+package com.kalaha.domain;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Holds the games of a {@link GameRegistry}. A store may drop games from memory as long as it
+ * can give their state back to the registry, which turns it into a game again.
+ */
+public interface GameStore {
+
+    Game get(long id, Function<GameSnapshot, Game> rehydrate);
+
+    boolean putIfAbsent(Game game);
+
+    void put(Game game);
+
+    void forEach(Consumer<Game> action);
+
+    int size();
+}
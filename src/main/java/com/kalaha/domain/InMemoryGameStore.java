@@ -0,0 +1,36 @@
+package com.kalaha.domain;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public final class InMemoryGameStore implements GameStore {
+
+    private final ConcurrentMap<Long, Game> games = new ConcurrentHashMap<>();
+
+    @Override
+    public Game get(final long id, final Function<GameSnapshot, Game> rehydrate) {
+        return games.get(id);
+    }
+
+    @Override
+    public boolean putIfAbsent(final Game game) {
+        return games.putIfAbsent(game.getId(), game) == null;
+    }
+
+    @Override
+    public void put(final Game game) {
+        games.put(game.getId(), game);
+    }
+
+    @Override
+    public void forEach(final Consumer<Game> action) {
+        games.values().forEach(action);
+    }
+
+    @Override
+    public int size() {
+        return games.size();
+    }
+}
@@ -0,0 +1,113 @@
+package com.kalaha.domain;
+
+import java.util.Arrays;
+
+/**
+ * Undo stack of a board. Every move is recorded as a frame of its start pit, the stones sown, the
+ * stones captured from the opposite pit and who moved. A move ending the game first saves all
+ * pits, because the collection cannot be derived from the rest of the frame. Sowing is reversed
+ * through the {@link SowingTable} of the mover. The stack is allocated by the first move and grows
+ * when needed but is reused, so searching by making and unmaking moves does not allocate and a copy
+ * of a board that is never played does not allocate a stack.
+ */
+final class MoveHistory {
+
+    static final int NO_CAPTURE = -1;
+
+    private static final int SOUTH_MOVED = 1;
+    private static final int COLLECTED = 2;
+
+    @FunctionalInterface
+    interface StoneAdder {
+        void addStones(int pit, int amount);
+    }
+
+    private final Board board;
+    private final StoneAdder stoneAdder;
+    private final int pitCount;
+    private final SowingTable sowingSouth;
+    private final SowingTable sowingNorth;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] stack = new int[0];
+    private int size;
+
+    MoveHistory(final Board board, final int pitCount, final StoneAdder stoneAdder) {
+        this.board = board;
+        this.stoneAdder = stoneAdder;
+        this.pitCount = pitCount;
+        this.sowingSouth = SowingTable.forSide(pitCount, true);
+        this.sowingNorth = SowingTable.forSide(pitCount, false);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    void saveBeforeCollecting() {
+        ensureCapacity(pitCount);
+        for (int pit = 0; pit < pitCount; pit++) {
+            stack[size++] = board.getStonesInPit(pit);
+        }
+    }
+
+    void push(final int pit, final int stones, final int capturedStones, final boolean southMoved,
+              final boolean collected) {
+        ensureCapacity(4);
+        stack[size++] = pit;
+        stack[size++] = stones;
+        stack[size++] = capturedStones;
+        stack[size++] = (southMoved ? SOUTH_MOVED : 0) | (collected ? COLLECTED : 0);
+    }
+
+    void undo() {
+        if (size == 0)
+            throw new IllegalStateException("There is no move to unmake");
+
+        int flags = stack[--size];
+        int capturedStones = stack[--size];
+        int stones = stack[--size];
+        int pit = stack[--size];
+        boolean southMoved = (flags & SOUTH_MOVED) != 0;
+
+        board.setSouthTurn(southMoved);
+        if ((flags & COLLECTED) != 0) {
+            for (int i = pitCount - 1; i >= 0; i--) {
+                int difference = stack[--size] - board.getStonesInPit(i);
+                if (difference != 0)
+                    stoneAdder.addStones(i, difference);
+            }
+        }
+
+        SowingTable sowing = southMoved ? sowingSouth : sowingNorth;
+        if (capturedStones != NO_CAPTURE) {
+            int lastPit = sowing.getLandingPit(pit, stones);
+            int kalaha = southMoved ? board.getIndexKalahaSouth() : board.getIndexKalahaNorth();
+            stoneAdder.addStones(kalaha, -1 - capturedStones);
+            stoneAdder.addStones(lastPit, 1);
+            stoneAdder.addStones(2 * board.getIndexKalahaSouth() - lastPit, capturedStones);
+        }
+
+        int[] order = sowing.getOrder();
+        int laps = stones / sowing.getLap();
+        int start = sowing.getPosition(pit);
+        for (int i = start + 1; i <= start + stones % sowing.getLap(); i++) {
+            stoneAdder.addStones(order[i], -1);
+        }
+        if (laps > 0) {
+            for (int i = 0; i < sowing.getLap(); i++) {
+                stoneAdder.addStones(order[i], -laps);
+            }
+        }
+        stoneAdder.addStones(pit, stones);
+    }
+
+    private void ensureCapacity(final int additional) {
+        if (size + additional > stack.length)
+            stack = Arrays.copyOf(stack, Math.max(Math.max(2 * stack.length, INITIAL_CAPACITY), size + additional));
+    }
+}
@@ -0,0 +1,8 @@
+package com.kalaha.domain;
+
+public final class NoMoveToTakeBackException extends RuntimeException {
+
+    public NoMoveToTakeBackException(final long id) {
+        super(String.format("Game %s has no move to take back", id));
+    }
+}
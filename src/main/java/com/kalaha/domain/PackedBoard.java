@@ -0,0 +1,295 @@
+package com.kalaha.domain;
+
+import lombok.Builder;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntConsumer;
+
+/**
+ * Plays directly on the packed encoding of {@link PositionCodec}. Boards are equal when their
+ * positions are, so they can be used as map keys without packing them first.
+ */
+public final class PackedBoard implements Board {
+
+    private final PositionCodec codec;
+    private final long[] words;
+    private final List<Integer> pitListView = new PitListView();
+    private final BitSet changedPits = new BitSet();
+    private final SowingTable sowingSouth;
+    private final SowingTable sowingNorth;
+    private final MoveHistory history;
+    private int stonesSouth;
+    private int stonesNorth;
+    private long zobristKey;
+
+    @Builder
+    public PackedBoard(final boolean southTurn, final int[] pits) {
+        this(new PositionCodec(pits.length / 2 - 1, Arrays.stream(pits).sum()), new long[0]);
+        load(pits, southTurn);
+    }
+
+    public PackedBoard(final PositionCodec codec, final long[] words) {
+        this.codec = codec;
+        this.words = Arrays.copyOf(words, codec.getWordCount());
+        this.sowingSouth = SowingTable.forSide(codec.getPitCount(), true);
+        this.sowingNorth = SowingTable.forSide(codec.getPitCount(), false);
+        this.history = new MoveHistory(this, codec.getPitCount(), this::addStones);
+        initialize();
+    }
+
+    /**
+     * Copies the position and shares the sowing tables, the row totals and the key of the source
+     * instead of computing them again.
+     */
+    private PackedBoard(final PackedBoard source) {
+        this.codec = source.codec;
+        this.words = source.words.clone();
+        this.sowingSouth = source.sowingSouth;
+        this.sowingNorth = source.sowingNorth;
+        this.history = new MoveHistory(this, codec.getPitCount(), this::addStones);
+        this.stonesSouth = source.stonesSouth;
+        this.stonesNorth = source.stonesNorth;
+        this.zobristKey = source.zobristKey;
+    }
+
+    public PositionCodec getCodec() {
+        return codec;
+    }
+
+    public long[] toWords() {
+        return words.clone();
+    }
+
+    @Override
+    public void load(final int[] position, final boolean southTurn) {
+        long[] packed = codec.pack(position, southTurn);
+        System.arraycopy(packed, 0, words, 0, words.length);
+        initialize();
+    }
+
+    @Override
+    public void makeMove(final int index) {
+        changedPits.clear();
+        boolean southMoved = isSouthTurn();
+        int stones = getStonesInPit(index);
+        int lastPit = allocateStonesAndGetLastPit(index);
+        int capturedStones = captureIfLastPitIsOwnEmptyPit(lastPit);
+        boolean collected = collectLastStonesIfGameIsOver();
+        switchTurnsIfLastPitIsNotOwnKalaha(lastPit);
+        history.push(index, stones, capturedStones, southMoved, collected);
+    }
+
+    @Override
+    public void unmakeMove() {
+        changedPits.clear();
+        history.undo();
+    }
+
+    @Override
+    public boolean canUnmakeMove() {
+        return !history.isEmpty();
+    }
+
+    @Override
+    public List<Integer> getPitList() {
+        return pitListView;
+    }
+
+    @Override
+    public int getStonesInPit(final int index) {
+        return codec.getStones(words, index);
+    }
+
+    @Override
+    public int getIndexKalahaSouth() {
+        return codec.getPitCount() / 2 - 1;
+    }
+
+    @Override
+    public int getIndexKalahaNorth() {
+        return codec.getPitCount() - 1;
+    }
+
+    @Override
+    public boolean isSouthTurn() {
+        return PositionCodec.isSouthTurn(words);
+    }
+
+    @Override
+    public void setSouthTurn(final boolean southTurn) {
+        zobristKey ^= Zobrist.turnKey(isSouthTurn()) ^ Zobrist.turnKey(southTurn);
+        PositionCodec.setSouthTurn(words, southTurn);
+    }
+
+    @Override
+    public boolean isEmpty(final int index) {
+        return getStonesInPit(index) == 0;
+    }
+
+    @Override
+    public boolean isGameOver() {
+        return stonesSouth == 0 || stonesNorth == 0;
+    }
+
+    @Override
+    public int getTotalStonesInPitsSouth() {
+        return stonesSouth;
+    }
+
+    @Override
+    public int getTotalStonesInPitsNorth() {
+        return stonesNorth;
+    }
+
+    @Override
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    @Override
+    public void forEachPitChangedByLastMove(final IntConsumer action) {
+        changedPits.stream().forEach(action);
+    }
+
+    @Override
+    public Board copy() {
+        return new PackedBoard(this);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof PackedBoard && Arrays.equals(words, ((PackedBoard) other).words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    private void initialize() {
+        changedPits.clear();
+        history.clear();
+        stonesSouth = 0;
+        stonesNorth = 0;
+        zobristKey = Zobrist.turnKey(isSouthTurn());
+        for (int i = 0; i < codec.getPitCount(); i++) {
+            int stones = getStonesInPit(i);
+            zobristKey ^= Zobrist.pitKey(i, stones);
+            if (i < getIndexKalahaSouth())
+                stonesSouth += stones;
+            else if (i > getIndexKalahaSouth() && i < getIndexKalahaNorth())
+                stonesNorth += stones;
+        }
+    }
+
+    private int allocateStonesAndGetLastPit(final int index) {
+        int stones = getStonesInPit(index);
+        SowingTable sowing = isSouthTurn() ? sowingSouth : sowingNorth;
+        int[] order = sowing.getOrder();
+        int laps = stones / sowing.getLap();
+        int start = sowing.getPosition(index);
+        emptyPit(index);
+        if (laps > 0) {
+            for (int i = 0; i < sowing.getLap(); i++) {
+                addStones(order[i], laps);
+            }
+        }
+        for (int i = start + 1; i <= start + stones % sowing.getLap(); i++) {
+            addStones(order[i], 1);
+        }
+        return sowing.getLandingPit(index, stones);
+    }
+
+    private int captureIfLastPitIsOwnEmptyPit(final int index) {
+        if (getStonesInPit(index) == 1 && isARegularPit(index) && landsInPlayersOwnPit(index)) {
+            int kalaha = isSouthTurn() ? getIndexKalahaSouth() : getIndexKalahaNorth();
+            int oppositePit = 2 * getIndexKalahaSouth() - index;
+            int capturedStones = getStonesInPit(oppositePit);
+
+            addStones(kalaha, getStonesInPit(index) + capturedStones);
+            emptyPit(index);
+            emptyPit(oppositePit);
+            return capturedStones;
+        }
+        return MoveHistory.NO_CAPTURE;
+    }
+
+    private boolean isARegularPit(final int index) {
+        return index != getIndexKalahaSouth() && index != getIndexKalahaNorth();
+    }
+
+    private boolean landsInPlayersOwnPit(final int index) {
+        return isSouthTurn() ? index < getIndexKalahaSouth() : index > getIndexKalahaSouth();
+    }
+
+    private boolean collectLastStonesIfGameIsOver() {
+        if (isGameOver()) {
+            history.saveBeforeCollecting();
+            addStones(getIndexKalahaSouth(), stonesSouth);
+            addStones(getIndexKalahaNorth(), stonesNorth);
+            for (int i = 0; i < getIndexKalahaNorth(); i++) {
+                if (i != getIndexKalahaSouth())
+                    emptyPit(i);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void switchTurnsIfLastPitIsNotOwnKalaha(final int lastPit) {
+        int ownKalaha = isSouthTurn() ? getIndexKalahaSouth() : getIndexKalahaNorth();
+        if (lastPit != ownKalaha) {
+            setSouthTurn(!isSouthTurn());
+        }
+    }
+
+    private void addStones(final int index, final int amount) {
+        int stones = getStonesInPit(index);
+        zobristKey ^= Zobrist.pitKey(index, stones) ^ Zobrist.pitKey(index, stones + amount);
+        codec.setStones(words, index, stones + amount);
+        changedPits.set(index);
+        if (index < getIndexKalahaSouth())
+            stonesSouth += amount;
+        else if (index > getIndexKalahaSouth() && index < getIndexKalahaNorth())
+            stonesNorth += amount;
+    }
+
+    private void emptyPit(final int index) {
+        addStones(index, -getStonesInPit(index));
+    }
+
+    private final class PitListView extends AbstractList<Integer> implements RandomAccess {
+        @Override
+        public Integer get(final int index) {
+            return getStonesInPit(index);
+        }
+
+        @Override
+        public int size() {
+            return codec.getPitCount();
+        }
+    }
+
+    public static final class PackedBoardBuilder {
+        private int[] pits;
+
+        public PackedBoardBuilder pits(final int pitsPerPlayer, final int stonesPerPit) {
+            int[] array = new int[2 * pitsPerPlayer + 2];
+            Arrays.fill(array, stonesPerPit);
+            array[array.length / 2 - 1] = 0;
+            array[array.length - 1] = 0;
+
+            this.pits = array;
+            return this;
+        }
+
+        public PackedBoardBuilder pits(final int[] pits) {
+            this.pits = pits.clone();
+            return this;
+        }
+    }
+}
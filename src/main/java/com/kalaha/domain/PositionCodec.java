@@ -0,0 +1,118 @@
+package com.kalaha.domain;
+
+/**
+ * Packs a position into as few longs as its stones allow. Bit 0 holds the turn, set when South is
+ * to move, followed by every pit from index 0 in bitsPerPit bits, where bitsPerPit is just wide
+ * enough for all stones of the game to lie in one pit. The standard 6 pits of 6 stones take 99
+ * bits, two longs or 13 bytes.
+ */
+public final class PositionCodec {
+
+    private final int pitCount;
+    private final int bitsPerPit;
+    private final long pitMask;
+    private final int wordCount;
+
+    public PositionCodec(final int pitsPerPlayer, final int totalStones) {
+        this.pitCount = 2 * pitsPerPlayer + 2;
+        this.bitsPerPit = Math.max(1, 32 - Integer.numberOfLeadingZeros(totalStones));
+        this.pitMask = (1L << bitsPerPit) - 1;
+        this.wordCount = (getBitCount() + 63) / 64;
+    }
+
+    public int getPitCount() {
+        return pitCount;
+    }
+
+    public int getBitsPerPit() {
+        return bitsPerPit;
+    }
+
+    public int getBitCount() {
+        return 1 + pitCount * bitsPerPit;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public int getByteCount() {
+        return (getBitCount() + 7) / 8;
+    }
+
+    public long[] pack(final int[] pits, final boolean southTurn) {
+        long[] words = new long[wordCount];
+        setSouthTurn(words, southTurn);
+        for (int pit = 0; pit < pitCount; pit++) {
+            if (pits[pit] < 0 || pits[pit] > pitMask)
+                throw new IllegalArgumentException(String.format("Pit %s holds %s stones, more than %s bits allow",
+                        pit, pits[pit], bitsPerPit));
+            setStones(words, pit, pits[pit]);
+        }
+        return words;
+    }
+
+    public long[] pack(final Board board) {
+        int[] pits = new int[pitCount];
+        for (int pit = 0; pit < pitCount; pit++) {
+            pits[pit] = board.getStonesInPit(pit);
+        }
+        return pack(pits, board.isSouthTurn());
+    }
+
+    public boolean unpack(final long[] words, final int[] pits) {
+        for (int pit = 0; pit < pitCount; pit++) {
+            pits[pit] = getStones(words, pit);
+        }
+        return isSouthTurn(words);
+    }
+
+    public int getStones(final long[] words, final int pit) {
+        int bit = 1 + pit * bitsPerPit;
+        int word = bit >>> 6;
+        int offset = bit & 63;
+        long value = words[word] >>> offset;
+        if (offset + bitsPerPit > 64)
+            value |= words[word + 1] << (64 - offset);
+        return (int) (value & pitMask);
+    }
+
+    public void setStones(final long[] words, final int pit, final int stones) {
+        int bit = 1 + pit * bitsPerPit;
+        int word = bit >>> 6;
+        int offset = bit & 63;
+        words[word] = words[word] & ~(pitMask << offset) | (long) stones << offset;
+        if (offset + bitsPerPit > 64) {
+            int shift = 64 - offset;
+            words[word + 1] = words[word + 1] & ~(pitMask >>> shift) | (long) stones >>> shift;
+        }
+    }
+
+    public static boolean isSouthTurn(final long[] words) {
+        return (words[0] & 1) != 0;
+    }
+
+    public static void setSouthTurn(final long[] words, final boolean southTurn) {
+        words[0] = southTurn ? words[0] | 1 : words[0] & ~1L;
+    }
+
+    public byte[] toBytes(final long[] words) {
+        byte[] bytes = new byte[getByteCount()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) << 3));
+        }
+        return bytes;
+    }
+
+    public long[] fromBytes(final byte[] bytes) {
+        if (bytes.length != getByteCount())
+            throw new IllegalArgumentException(String.format("A packed position takes %s bytes, not %s",
+                    getByteCount(), bytes.length));
+
+        long[] words = new long[wordCount];
+        for (int i = 0; i < bytes.length; i++) {
+            words[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) << 3);
+        }
+        return words;
+    }
+}
@@ -0,0 +1,69 @@
+package com.kalaha.domain;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Sowing order of one side for one board size. A lap passes every pit except the kalaha of the
+ * opponent once, so sowing n stones from a pit adds n / lap stones to every pit of the lap and
+ * one more to the n % lap pits following it. The landing pit is looked up by start pit and
+ * remainder. Tables are shared by all boards of the same size.
+ */
+final class SowingTable {
+
+    private static final ConcurrentMap<Integer, SowingTable> TABLES = new ConcurrentHashMap<>();
+
+    private final int lap;
+    private final int[] order;
+    private final int[] positions;
+    private final int[] landingPits;
+
+    private SowingTable(final int pitCount, final boolean south) {
+        int skippedKalaha = south ? pitCount - 1 : pitCount / 2 - 1;
+        this.lap = pitCount - 1;
+        this.order = new int[2 * lap];
+        this.positions = new int[pitCount];
+        for (int pit = 0, i = 0; pit < pitCount; pit++) {
+            positions[pit] = pit == skippedKalaha ? -1 : i;
+            if (pit != skippedKalaha)
+                order[i++] = pit;
+        }
+        System.arraycopy(order, 0, order, lap, lap);
+        this.landingPits = new int[pitCount * lap];
+        for (int pit = 0; pit < pitCount; pit++) {
+            for (int remainder = 0; remainder < lap; remainder++) {
+                landingPits[pit * lap + remainder] = pit == skippedKalaha ? pit : order[positions[pit] + remainder];
+            }
+        }
+    }
+
+    /**
+     * Looks the table up before computing it, as computing locks the bin of the map even when the
+     * table is there, and every board being built or copied looks its tables up.
+     */
+    static SowingTable forSide(final int pitCount, final boolean south) {
+        int key = south ? pitCount : -pitCount;
+        SowingTable table = TABLES.get(key);
+        return table != null ? table : TABLES.computeIfAbsent(key, ignored -> new SowingTable(pitCount, south));
+    }
+
+    int getLap() {
+        return lap;
+    }
+
+    int getLandingPit(final int pit, final int stones) {
+        return landingPits[pit * lap + stones % lap];
+    }
+
+    /**
+     * The pits of one lap in sowing order, repeated once so that the run following any position
+     * can be read without wrapping.
+     */
+    int[] getOrder() {
+        return order;
+    }
+
+    int getPosition(final int pit) {
+        return positions[pit];
+    }
+}
@@ -0,0 +1,12 @@
+package com.kalaha.domain;
+
+public final class StaleVersionException extends RuntimeException {
+
+    public StaleVersionException(final long id, final long expectedVersion, final long version) {
+        super(String.format("Game %s is at version %s, not %s", id, version, expectedVersion));
+    }
+
+    public StaleVersionException(final long id) {
+        super(String.format("Game %s was hibernated and has to be loaded again", id));
+    }
+}
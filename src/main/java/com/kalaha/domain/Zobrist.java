@@ -0,0 +1,24 @@
+package com.kalaha.domain;
+
+public final class Zobrist {
+
+    private static final long NORTH_TURN = mix(-1L);
+
+    private Zobrist() {
+    }
+
+    public static long pitKey(final int index, final int stones) {
+        return stones == 0 ? 0 : mix((long) index << 32 | stones);
+    }
+
+    public static long turnKey(final boolean southTurn) {
+        return southTurn ? 0 : NORTH_TURN;
+    }
+
+    private static long mix(final long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
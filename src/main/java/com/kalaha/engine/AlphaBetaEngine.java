@@ -0,0 +1,282 @@
+package com.kalaha.engine;
+
+import com.kalaha.domain.Board;
+import lombok.Builder;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class AlphaBetaEngine implements SearchEngine, Closeable {
+
+    private static final int INFINITY = 1_000_000;
+    private static final int MIN_SPLIT_DEPTH = 4;
+
+    private final int maxDepth;
+    private final long timeBudgetNanos;
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    private final EndgameDatabase endgameDatabase;
+
+    /**
+     * With a parallelism of one the engine has no pool and searches on the calling thread, so
+     * callers on different threads search side by side instead of waiting for a shared worker.
+     */
+    @Builder
+    public AlphaBetaEngine(final int maxDepth, final long timeBudgetMillis, final int parallelism,
+                           final int transpositionTableEntries, final EndgameDatabase endgameDatabase) {
+        this.maxDepth = maxDepth;
+        this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        this.table = new TranspositionTable(transpositionTableEntries);
+        this.endgameDatabase = endgameDatabase;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    @Override
+    public SearchResult search(final Board board) {
+        if (board.isGameOver())
+            throw new IllegalStateException("The game is over, there is no move to search");
+
+        long start = System.nanoTime();
+        Board root = board.copy();
+        LongAdder nodes = new LongAdder();
+        table.newSearch();
+        int bestMove = -1;
+        int bestScore = 0;
+        int completedDepth = 0;
+
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            long deadline = depth == 1 ? Long.MAX_VALUE : start + timeBudgetNanos;
+            Search search = new Search(deadline, nodes, table, endgameDatabase, pool != null);
+            int[] result = pool != null
+                    ? pool.invoke(new RootTask(search, root, depth, bestMove))
+                    : search.searchRoot(root, depth, bestMove);
+            if (search.aborted)
+                break;
+
+            bestMove = result[0];
+            bestScore = result[1];
+            completedDepth = depth;
+            if (System.nanoTime() >= start + timeBudgetNanos)
+                break;
+        }
+
+        return SearchResult.builder()
+                .move(bestMove)
+                .score(bestScore)
+                .depth(completedDepth)
+                .nodes(nodes.sum())
+                .elapsedNanos(System.nanoTime() - start)
+                .build();
+    }
+
+    @Override
+    public void close() {
+        if (pool != null)
+            pool.shutdown();
+    }
+
+    private static int evaluate(final Board board) {
+        int kalahaSouth = board.getStonesInPit(board.getIndexKalahaSouth());
+        int kalahaNorth = board.getStonesInPit(board.getIndexKalahaNorth());
+        return board.isSouthTurn() ? kalahaSouth - kalahaNorth : kalahaNorth - kalahaSouth;
+    }
+
+    private static final class Search {
+        private final long deadline;
+        private final LongAdder nodes;
+        private final TranspositionTable table;
+        private final EndgameDatabase endgameDatabase;
+        private final boolean parallel;
+        private volatile boolean aborted;
+
+        private Search(final long deadline, final LongAdder nodes, final TranspositionTable table,
+                       final EndgameDatabase endgameDatabase, final boolean parallel) {
+            this.deadline = deadline;
+            this.nodes = nodes;
+            this.table = table;
+            this.endgameDatabase = endgameDatabase;
+            this.parallel = parallel;
+        }
+
+        private int[] searchRoot(final Board board, final int depth, final int previousBestMove) {
+            nodes.increment();
+            int[] moves = Moves.orderedMoves(board, previousBestMove);
+            return searchSequentially(board, moves, depth, -INFINITY, INFINITY);
+        }
+
+        private int alphaBeta(final Board board, final int depth, final int alpha, final int beta) {
+            nodes.increment();
+            if (board.isGameOver())
+                return evaluate(board);
+            if (endgameDatabase != null && endgameDatabase.covers(board))
+                return evaluate(board) + endgameDatabase.getValue(board);
+            if (depth == 0)
+                return evaluate(board);
+            if (depth > 1 && isOutOfTime())
+                return 0;
+
+            long key = board.getZobristKey();
+            long entry = table.probe(key);
+            if (entry != 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.score(entry);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER_BOUND && score >= beta
+                        || bound == TranspositionTable.UPPER_BOUND && score <= alpha)
+                    return score;
+            }
+
+            int[] moves = Moves.orderedMoves(board, entry == 0 ? -1 : TranspositionTable.move(entry));
+            int[] best = parallel && depth >= MIN_SPLIT_DEPTH && moves.length > 1
+                    ? splitAfterEldestBrother(board, moves, depth, alpha, beta)
+                    : searchSequentially(board, moves, depth, alpha, beta);
+
+            if (!aborted)
+                table.store(key, best[1], depth, bound(best[1], alpha, beta), best[0]);
+            return best[1];
+        }
+
+        private int[] searchSequentially(final Board board, final int[] moves, final int depth,
+                                         final int alpha, final int beta) {
+            int bestMove = moves[0];
+            int best = -INFINITY;
+            int window = alpha;
+            for (int move : moves) {
+                int score = searchChild(board, move, depth, window, beta);
+                if (score > best) {
+                    best = score;
+                    bestMove = move;
+                }
+                if (best > window)
+                    window = best;
+                if (window >= beta)
+                    break;
+            }
+            return new int[]{bestMove, best};
+        }
+
+        private int[] splitAfterEldestBrother(final Board board, final int[] moves, final int depth,
+                                              final int alpha, final int beta) {
+            int bestMove = moves[0];
+            int best = searchChild(board, moves[0], depth, alpha, beta);
+            if (best >= beta || aborted)
+                return new int[]{bestMove, best};
+
+            AtomicInteger window = new AtomicInteger(Math.max(alpha, best));
+            List<ChildTask> youngerBrothers = new ArrayList<>(moves.length - 1);
+            for (int i = 1; i < moves.length; i++) {
+                youngerBrothers.add(new ChildTask(this, board, moves[i], depth, window, beta));
+            }
+            ForkJoinTask.invokeAll(youngerBrothers);
+            for (int i = 0; i < youngerBrothers.size(); i++) {
+                int score = youngerBrothers.get(i).join();
+                if (score > best) {
+                    best = score;
+                    bestMove = moves[i + 1];
+                }
+            }
+            return new int[]{bestMove, best};
+        }
+
+        private static int bound(final int score, final int alpha, final int beta) {
+            if (score <= alpha)
+                return TranspositionTable.UPPER_BOUND;
+            if (score >= beta)
+                return TranspositionTable.LOWER_BOUND;
+            return TranspositionTable.EXACT;
+        }
+
+        private int searchChild(final Board board, final int move, final int depth, final int alpha, final int beta) {
+            boolean southTurn = board.isSouthTurn();
+            board.makeMove(move);
+            int score = board.isSouthTurn() == southTurn
+                    ? alphaBeta(board, depth - 1, alpha, beta)
+                    : -alphaBeta(board, depth - 1, -beta, -alpha);
+            board.unmakeMove();
+            return score;
+        }
+
+        private boolean isOutOfTime() {
+            if (!aborted && System.nanoTime() >= deadline)
+                aborted = true;
+            return aborted;
+        }
+    }
+
+    private static final class ChildTask extends RecursiveTask<Integer> {
+        private final Search search;
+        private final Board board;
+        private final int move;
+        private final int depth;
+        private final AtomicInteger window;
+        private final int beta;
+
+        private ChildTask(final Search search, final Board board, final int move, final int depth,
+                          final AtomicInteger window, final int beta) {
+            this.search = search;
+            this.board = board;
+            this.move = move;
+            this.depth = depth;
+            this.window = window;
+            this.beta = beta;
+        }
+
+        @Override
+        protected Integer compute() {
+            int alpha = window.get();
+            if (alpha >= beta)
+                return alpha;
+            int score = search.searchChild(board.copy(), move, depth, alpha, beta);
+            window.accumulateAndGet(score, Math::max);
+            return score;
+        }
+    }
+
+    private static final class RootTask extends RecursiveTask<int[]> {
+        private final Search search;
+        private final Board board;
+        private final int depth;
+        private final int previousBestMove;
+
+        private RootTask(final Search search, final Board board, final int depth, final int previousBestMove) {
+            this.search = search;
+            this.board = board;
+            this.depth = depth;
+            this.previousBestMove = previousBestMove;
+        }
+
+        @Override
+        protected int[] compute() {
+            search.nodes.increment();
+            int[] moves = Moves.orderedMoves(board, previousBestMove);
+            int bestMove = moves[0];
+            int bestScore = search.searchChild(board, moves[0], depth, -INFINITY, INFINITY);
+
+            AtomicInteger window = new AtomicInteger(bestScore);
+            List<ChildTask> youngerBrothers = new ArrayList<>(moves.length - 1);
+            for (int i = 1; i < moves.length; i++) {
+                youngerBrothers.add(new ChildTask(search, board, moves[i], depth, window, INFINITY));
+            }
+            ForkJoinTask.invokeAll(youngerBrothers);
+            for (int i = 0; i < youngerBrothers.size(); i++) {
+                int score = youngerBrothers.get(i).join();
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = moves[i + 1];
+                }
+            }
+            return new int[]{bestMove, bestScore};
+        }
+    }
+}
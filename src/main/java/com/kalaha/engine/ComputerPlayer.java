@@ -0,0 +1,66 @@
+package com.kalaha.engine;
+
+import com.kalaha.domain.Board;
+import com.kalaha.domain.Game;
+import com.kalaha.domain.GameActors;
+import com.kalaha.domain.GameRegistry;
+import com.kalaha.domain.StaleVersionException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+
+@Slf4j
+public final class ComputerPlayer {
+
+    private final SearchEngine searchEngine;
+    private final GameActors gameActors;
+    private final GameRegistry gameRegistry;
+
+    public ComputerPlayer(final SearchEngine searchEngine, final GameActors gameActors,
+                          final GameRegistry gameRegistry) {
+        this.searchEngine = searchEngine;
+        this.gameActors = gameActors;
+        this.gameRegistry = gameRegistry;
+    }
+
+    /**
+     * Searches on the calling thread and plays the move through the mailbox of the game, which
+     * takes it even when full, as the computer only moves after a move of the player. When the game
+     * changed during the search, or was hibernated and loaded again, the computer searches again
+     * from the current position, until it is no longer its turn.
+     */
+    public void playTurn(final Game game) {
+        Game current = game;
+        Position position;
+        while ((position = current.read(Position::ofComputerTurn)) != null) {
+            SearchResult result = searchEngine.search(position.board);
+            log.debug("Computer plays pit {} with score {} at depth {} ({} nodes/s)", result.getMove(),
+                    result.getScore(), result.getDepth(), result.getNodesPerSecond());
+            Game played = current;
+            long version = position.version;
+            try {
+                gameActors.askUnbounded(played, () -> played.play(result.getMove(), version));
+            } catch (StaleVersionException e) {
+                log.debug("Computer move discarded, searching the current position again", e);
+                Optional<Game> reloaded = gameRegistry.find(current.getId());
+                if (!reloaded.isPresent())
+                    return;
+                current = reloaded.get();
+            }
+        }
+    }
+
+    private static final class Position {
+        private final long version;
+        private final Board board;
+
+        private Position(final long version, final Board board) {
+            this.version = version;
+            this.board = board;
+        }
+
+        private static Position ofComputerTurn(final Game game) {
+            return game.isComputerTurn() ? new Position(game.getVersion(), game.getBoard().copy()) : null;
+        }
+    }
+}
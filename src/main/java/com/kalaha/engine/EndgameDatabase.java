@@ -0,0 +1,62 @@
+package com.kalaha.engine;
+
+import com.kalaha.domain.Board;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public final class EndgameDatabase {
+
+    static final int MAGIC = 0x4B454442;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    private final EndgameIndex index;
+    private final MappedByteBuffer values;
+
+    private EndgameDatabase(final EndgameIndex index, final MappedByteBuffer values) {
+        this.index = index;
+        this.values = values;
+    }
+
+    public static EndgameDatabase open(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException(String.format("Endgame database %s is too large to map", file));
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION)
+                throw new IOException(String.format("%s is not an endgame database", file));
+
+            EndgameIndex index = new EndgameIndex(buffer.getInt(8), buffer.getInt(12));
+            if (channel.size() != HEADER_SIZE + index.getSize())
+                throw new IOException(String.format("Endgame database %s is truncated", file));
+            return new EndgameDatabase(index, buffer);
+        }
+    }
+
+    public int getPitsPerPlayer() {
+        return index.getPitsPerPlayer();
+    }
+
+    public int getMaxStones() {
+        return index.getMaxStones();
+    }
+
+    public boolean covers(final Board board) {
+        return index.covers(board);
+    }
+
+    /**
+     * Returns how many more of the stones left in the pits the player to move collects than the
+     * opponent, under perfect play by both.
+     */
+    public int getValue(final Board board) {
+        int stones = EndgameIndex.getStonesOnBoard(board);
+        long position = HEADER_SIZE + index.getLevelOffset(stones) + index.rank(board);
+        return values.get((int) position);
+    }
+}
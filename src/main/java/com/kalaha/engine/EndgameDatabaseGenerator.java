@@ -0,0 +1,136 @@
+package com.kalaha.engine;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Board;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Solves every position with up to the given number of stones left in the pits, from the fewest
+ * stones up. This replaces the backward pass of a retrograde analysis with a memoized forward
+ * negamax per stone level. Both give the same values, because the positions with a given number of
+ * stones have no cycles. A move either leaves the level, by sowing into a kalaha or by a capture,
+ * or stays in the level. A move that stays sows within the row of the mover only, moving every
+ * stone it sows closer to the kalaha of the mover while the other row is unchanged. The sum over
+ * all stones of their distance to the kalaha of their row therefore falls with every such move.
+ * So the recursion within a level ends, and the lower levels it reaches are already complete.
+ */
+public final class EndgameDatabaseGenerator {
+
+    private static final byte UNKNOWN = Byte.MIN_VALUE;
+
+    private final EndgameIndex index;
+    private final byte[][] levels;
+
+    public EndgameDatabaseGenerator(final int pitsPerPlayer, final int maxStones) {
+        if (maxStones > Byte.MAX_VALUE)
+            throw new IllegalArgumentException("maxStones must not exceed " + Byte.MAX_VALUE);
+
+        this.index = new EndgameIndex(pitsPerPlayer, maxStones);
+        if (EndgameDatabase.HEADER_SIZE + index.getSize() > Integer.MAX_VALUE)
+            throw new IllegalArgumentException(String.format("%s positions do not fit in a single mapped file",
+                    index.getSize()));
+        this.levels = new byte[maxStones + 1][];
+    }
+
+    public static void main(final String[] args) throws IOException {
+        int pitsPerPlayer = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int maxStones = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+        Path file = Paths.get(args.length > 2 ? args[2] : "endgame.db");
+
+        long start = System.nanoTime();
+        EndgameDatabaseGenerator generator = new EndgameDatabaseGenerator(pitsPerPlayer, maxStones);
+        generator.generate();
+        generator.write(file);
+
+        System.out.printf("Solved %d positions with up to %d stones in %d ms, written to %s%n",
+                generator.index.getSize(), maxStones,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), file.toAbsolutePath());
+    }
+
+    public void generate() {
+        for (int stones = 0; stones <= index.getMaxStones(); stones++) {
+            int level = stones;
+            levels[level] = new byte[(int) index.getLevelSize(level)];
+            Arrays.fill(levels[level], UNKNOWN);
+            IntStream.range(0, levels[level].length)
+                    .parallel()
+                    .forEach(rank -> solve(level, rank));
+        }
+    }
+
+    public void write(final Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file);
+             DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out))) {
+            data.writeInt(EndgameDatabase.MAGIC);
+            data.writeInt(EndgameDatabase.FORMAT_VERSION);
+            data.writeInt(index.getPitsPerPlayer());
+            data.writeInt(index.getMaxStones());
+            for (byte[] level : levels) {
+                data.write(level);
+            }
+        }
+    }
+
+    private int solve(final int stones, final int rank) {
+        byte known = levels[stones][rank];
+        if (known != UNKNOWN)
+            return known;
+
+        Board board = boardFrom(stones, rank);
+        int value = board.isGameOver()
+                ? board.getTotalStonesInPitsSouth() - board.getTotalStonesInPitsNorth()
+                : bestMoveValue(board, stones);
+        levels[stones][rank] = (byte) value;
+        return value;
+    }
+
+    private int bestMoveValue(final Board board, final int stones) {
+        int best = Integer.MIN_VALUE;
+        for (int pit = 0; pit < index.getPitsPerPlayer(); pit++) {
+            if (board.isEmpty(pit))
+                continue;
+
+            board.makeMove(pit);
+            int gain = board.getStonesInPit(board.getIndexKalahaSouth())
+                    - board.getStonesInPit(board.getIndexKalahaNorth());
+            int value = gain;
+            if (!board.isGameOver()) {
+                int childValue = valueOf(board, stones);
+                value = board.isSouthTurn() ? gain + childValue : gain - childValue;
+            }
+            board.unmakeMove();
+            best = Math.max(best, value);
+        }
+        return best;
+    }
+
+    private int valueOf(final Board board, final int parentStones) {
+        int stones = EndgameIndex.getStonesOnBoard(board);
+        int rank = (int) index.rank(board);
+        return stones < parentStones ? levels[stones][rank] : solve(stones, rank);
+    }
+
+    private Board boardFrom(final int stones, final int rank) {
+        int pitsPerPlayer = index.getPitsPerPlayer();
+        int[] canonicalPits = new int[2 * pitsPerPlayer];
+        index.unrank(rank, stones, canonicalPits);
+
+        int[] pits = new int[2 * pitsPerPlayer + 2];
+        System.arraycopy(canonicalPits, 0, pits, 0, pitsPerPlayer);
+        System.arraycopy(canonicalPits, pitsPerPlayer, pits, pitsPerPlayer + 1, pitsPerPlayer);
+        return ArrayBoard.builder()
+                .pits(pits)
+                .southTurn(true)
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.kalaha.engine;
+
+import com.kalaha.domain.Board;
+
+final class EndgameIndex {
+
+    private final int pitsPerPlayer;
+    private final int maxStones;
+    private final long[][] compositions;
+    private final long[] levelOffsets;
+
+    EndgameIndex(final int pitsPerPlayer, final int maxStones) {
+        this.pitsPerPlayer = pitsPerPlayer;
+        this.maxStones = maxStones;
+
+        int parts = 2 * pitsPerPlayer;
+        this.compositions = new long[parts + 1][maxStones + 1];
+        compositions[0][0] = 1;
+        for (int k = 1; k <= parts; k++) {
+            for (int stones = 0; stones <= maxStones; stones++) {
+                compositions[k][stones] = compositions[k - 1][stones] + (stones > 0 ? compositions[k][stones - 1] : 0);
+            }
+        }
+
+        this.levelOffsets = new long[maxStones + 2];
+        for (int stones = 0; stones <= maxStones; stones++) {
+            levelOffsets[stones + 1] = levelOffsets[stones] + getLevelSize(stones);
+        }
+    }
+
+    int getPitsPerPlayer() {
+        return pitsPerPlayer;
+    }
+
+    int getMaxStones() {
+        return maxStones;
+    }
+
+    long getLevelSize(final int stones) {
+        return compositions[2 * pitsPerPlayer][stones];
+    }
+
+    long getLevelOffset(final int stones) {
+        return levelOffsets[stones];
+    }
+
+    long getSize() {
+        return levelOffsets[maxStones + 1];
+    }
+
+    boolean covers(final Board board) {
+        return board.getIndexKalahaSouth() == pitsPerPlayer && getStonesOnBoard(board) <= maxStones;
+    }
+
+    static int getStonesOnBoard(final Board board) {
+        return board.getTotalStonesInPitsSouth() + board.getTotalStonesInPitsNorth();
+    }
+
+    long rank(final Board board) {
+        int moverFirstPit = board.isSouthTurn() ? 0 : pitsPerPlayer + 1;
+        int opponentFirstPit = board.isSouthTurn() ? pitsPerPlayer + 1 : 0;
+        int parts = 2 * pitsPerPlayer;
+        int remaining = getStonesOnBoard(board);
+        long rank = 0;
+        for (int i = 0; i < parts - 1; i++) {
+            int pit = i < pitsPerPlayer ? moverFirstPit + i : opponentFirstPit + i - pitsPerPlayer;
+            int stones = board.getStonesInPit(pit);
+            int rest = parts - i - 1;
+            rank += compositions[rest + 1][remaining] - compositions[rest + 1][remaining - stones];
+            remaining -= stones;
+        }
+        return rank;
+    }
+
+    void unrank(final long rank, final int stones, final int[] canonicalPits) {
+        int parts = 2 * pitsPerPlayer;
+        long remainingRank = rank;
+        int remaining = stones;
+        for (int i = 0; i < parts - 1; i++) {
+            int rest = parts - i - 1;
+            int value = 0;
+            while (remainingRank >= compositions[rest][remaining - value]) {
+                remainingRank -= compositions[rest][remaining - value];
+                value++;
+            }
+            canonicalPits[i] = value;
+            remaining -= value;
+        }
+        canonicalPits[parts - 1] = remaining;
+    }
+}
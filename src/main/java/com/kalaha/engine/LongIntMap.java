@@ -0,0 +1,64 @@
+package com.kalaha.engine;
+
+/**
+ * Open-addressing hash map from long to int with linear probing, kept at most half full. Keys and
+ * values sit in two primitive arrays, so a lookup is a few array reads without boxing. The key 0
+ * marks a free slot and is stored apart.
+ */
+final class LongIntMap {
+
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+    private boolean hasZeroKey;
+    private int zeroKeyValue;
+    private int size;
+
+    LongIntMap(final int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, 2 * expectedSize - 1) << 1);
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void put(final long key, final int value) {
+        if (key == 0) {
+            size += hasZeroKey ? 0 : 1;
+            hasZeroKey = true;
+            zeroKeyValue = value;
+            return;
+        }
+
+        int slot = slot(key);
+        if (keys[slot] == 0) {
+            if (2 * (size + 1) > keys.length)
+                throw new IllegalStateException(String.format("Map is full with %s entries", size));
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    int get(final long key, final int missingValue) {
+        if (key == 0)
+            return hasZeroKey ? zeroKeyValue : missingValue;
+
+        int slot = slot(key);
+        return keys[slot] == 0 ? missingValue : values[slot];
+    }
+
+    /**
+     * The slot holding the key, or the free slot ending its probe sequence.
+     */
+    private int slot(final long key) {
+        int slot = (int) (key ^ key >>> 32) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,299 @@
+package com.kalaha.engine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kalaha.domain.Board;
+import lombok.Builder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monte Carlo tree search with UCT selection. Every worker of the pool descends the shared tree
+ * until the time budget is spent, adding a virtual loss to the nodes on its way so that other
+ * workers spread over other branches, expands the leaf, plays a random game to its end on its own
+ * board and backs the outcome up the path. Rollouts make and unmake moves on a board copied once
+ * per search, so they do not allocate.
+ *
+ * <p>The move played is the most visited one and the score is its expected outcome in percent,
+ * a win counting 100 and a draw 50. The subtrees below it where the engine is to move again are
+ * kept by position, up to reusedNodes visits in total, and the next search starting from one of
+ * them continues with its statistics.
+ */
+public final class MctsEngine implements SearchEngine {
+
+    private static final int MAX_REUSED_ROOTS_PER_SEARCH = 64;
+
+    private final long timeBudgetNanos;
+    private final double exploration;
+    private final ForkJoinPool pool;
+    private final Cache<Long, Node> reusableTrees;
+
+    @Builder
+    public MctsEngine(final long timeBudgetMillis, final int parallelism, final double exploration,
+                      final long reusedNodes) {
+        this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        this.exploration = exploration;
+        this.pool = new ForkJoinPool(parallelism);
+        this.reusableTrees = Caffeine.newBuilder()
+                .maximumWeight(reusedNodes)
+                .<Long, Node>weigher((key, node) -> 1 + node.visits)
+                .build();
+    }
+
+    public long getReusableTreeCount() {
+        return reusableTrees.estimatedSize();
+    }
+
+    @Override
+    public SearchResult search(final Board board) {
+        if (board.isGameOver())
+            throw new IllegalStateException("The game is over, there is no move to search");
+
+        long start = System.nanoTime();
+        Node root = reusableTrees.asMap().remove(board.getZobristKey());
+        if (root == null)
+            root = new Node(-1, !board.isSouthTurn(), board.isSouthTurn(), board.getZobristKey());
+        Search search = new Search(root, start + timeBudgetNanos, exploration);
+        pool.invoke(new SearchTask(search, board, pool.getParallelism()));
+
+        Node best = root.mostVisitedChild();
+        keepSubtrees(best, board.isSouthTurn());
+        return SearchResult.builder()
+                .move(best.move)
+                .score(best.visits == 0 ? 50 : 50 * best.points / best.visits)
+                .depth(search.depth.get())
+                .nodes(search.playouts.sum())
+                .elapsedNanos(System.nanoTime() - start)
+                .build();
+    }
+
+    private void keepSubtrees(final Node node, final boolean southTurn) {
+        Queue<Node> queue = new ArrayDeque<>();
+        queue.add(node);
+        int kept = 0;
+        while (!queue.isEmpty() && kept < MAX_REUSED_ROOTS_PER_SEARCH) {
+            Node next = queue.remove();
+            if (next.southTurn == southTurn) {
+                reusableTrees.put(next.key, next);
+                kept++;
+            } else if (next.children != null) {
+                queue.addAll(Arrays.asList(next.children));
+            }
+        }
+    }
+
+    private static final class Node {
+        private static final AtomicIntegerFieldUpdater<Node> VISITS =
+                AtomicIntegerFieldUpdater.newUpdater(Node.class, "visits");
+        private static final AtomicIntegerFieldUpdater<Node> POINTS =
+                AtomicIntegerFieldUpdater.newUpdater(Node.class, "points");
+        private static final AtomicIntegerFieldUpdater<Node> VIRTUAL_LOSSES =
+                AtomicIntegerFieldUpdater.newUpdater(Node.class, "virtualLosses");
+
+        private final int move;
+        private final boolean southMoved;
+        private final boolean southTurn;
+        private final long key;
+        private volatile Node[] children;
+        private volatile int visits;
+        private volatile int points;
+        private volatile int virtualLosses;
+
+        private Node(final int move, final boolean southMoved, final boolean southTurn, final long key) {
+            this.move = move;
+            this.southMoved = southMoved;
+            this.southTurn = southTurn;
+            this.key = key;
+        }
+
+        private Node[] expand(final Board board) {
+            synchronized (this) {
+                if (children == null) {
+                    int[] moves = Moves.orderedMoves(board, -1);
+                    Node[] expanded = new Node[moves.length];
+                    for (int i = 0; i < moves.length; i++) {
+                        board.makeMove(moves[i]);
+                        expanded[i] = new Node(moves[i], southTurn, board.isSouthTurn(), board.getZobristKey());
+                        board.unmakeMove();
+                    }
+                    children = expanded;
+                }
+                return children;
+            }
+        }
+
+        /**
+         * Picks the child with the highest upper confidence bound, counting virtual losses as
+         * visits that scored nothing. Unvisited children come first.
+         */
+        private Node select(final Node[] children, final double exploration) {
+            double logVisits = Math.log(Math.max(1, visits + virtualLosses));
+            Node best = children[0];
+            double bestBound = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                int count = child.visits + child.virtualLosses;
+                if (count == 0)
+                    return child;
+                double bound = child.points / (2.0 * count) + exploration * Math.sqrt(logVisits / count);
+                if (bound > bestBound) {
+                    bestBound = bound;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        private Node mostVisitedChild() {
+            Node best = children[0];
+            for (Node child : children) {
+                if (child.visits > best.visits)
+                    best = child;
+            }
+            return best;
+        }
+
+        private void addVirtualLoss() {
+            VIRTUAL_LOSSES.incrementAndGet(this);
+        }
+
+        /**
+         * Records an outcome in half points for South, 2 for a win and 1 for a draw, and takes
+         * back the virtual loss of the playout.
+         */
+        private void update(final int pointsSouth) {
+            POINTS.addAndGet(this, southMoved ? pointsSouth : 2 - pointsSouth);
+            VISITS.incrementAndGet(this);
+            VIRTUAL_LOSSES.decrementAndGet(this);
+        }
+    }
+
+    private static final class Search {
+        private final Node root;
+        private final long deadline;
+        private final double exploration;
+        private final LongAdder playouts = new LongAdder();
+        private final AtomicInteger depth = new AtomicInteger();
+
+        private Search(final Node root, final long deadline, final double exploration) {
+            this.root = root;
+            this.deadline = deadline;
+            this.exploration = exploration;
+        }
+
+        private void run(final Board board) {
+            Node[] path = new Node[64];
+            int maxDepth = 0;
+            do {
+                int length = 0;
+                int moves = 0;
+                Node node = root;
+                node.addVirtualLoss();
+                path[length++] = node;
+                while (!board.isGameOver()) {
+                    Node[] children = node.children;
+                    if (children == null) {
+                        if (node != root && node.visits == 0)
+                            break;
+                        children = node.expand(board);
+                    }
+                    node = node.select(children, exploration);
+                    node.addVirtualLoss();
+                    board.makeMove(node.move);
+                    moves++;
+                    if (length == path.length)
+                        path = Arrays.copyOf(path, 2 * length);
+                    path[length++] = node;
+                }
+                maxDepth = Math.max(maxDepth, length - 1);
+
+                moves += playOut(board);
+                int pointsSouth = pointsSouth(board);
+                for (int i = 0; i < moves; i++) {
+                    board.unmakeMove();
+                }
+                for (int i = 0; i < length; i++) {
+                    path[i].update(pointsSouth);
+                }
+                playouts.increment();
+            } while (System.nanoTime() < deadline);
+            depth.accumulateAndGet(maxDepth, Math::max);
+        }
+
+        private static int playOut(final Board board) {
+            int moves = 0;
+            while (!board.isGameOver()) {
+                board.makeMove(randomMove(board));
+                moves++;
+            }
+            return moves;
+        }
+
+        private static int randomMove(final Board board) {
+            int pitsPerPlayer = board.getIndexKalahaSouth();
+            int firstPit = board.isSouthTurn() ? 0 : pitsPerPlayer + 1;
+            int legalMoves = 0;
+            for (int pit = firstPit; pit < firstPit + pitsPerPlayer; pit++) {
+                legalMoves += board.isEmpty(pit) ? 0 : 1;
+            }
+            int choice = ThreadLocalRandom.current().nextInt(legalMoves);
+            for (int pit = firstPit; ; pit++) {
+                if (!board.isEmpty(pit) && choice-- == 0)
+                    return pit;
+            }
+        }
+
+        private static int pointsSouth(final Board board) {
+            int difference = board.getStonesInPit(board.getIndexKalahaSouth())
+                    - board.getStonesInPit(board.getIndexKalahaNorth());
+            return Integer.signum(difference) + 1;
+        }
+    }
+
+    private static final class SearchTask extends RecursiveAction {
+        private final Search search;
+        private final Board board;
+        private final int workers;
+
+        private SearchTask(final Search search, final Board board, final int workers) {
+            this.search = search;
+            this.board = board;
+            this.workers = workers;
+        }
+
+        @Override
+        protected void compute() {
+            List<Worker> tasks = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                tasks.add(new Worker(search, board.copy()));
+            }
+            ForkJoinTask.invokeAll(tasks);
+        }
+    }
+
+    private static final class Worker extends RecursiveAction {
+        private final Search search;
+        private final Board board;
+
+        private Worker(final Search search, final Board board) {
+            this.search = search;
+            this.board = board;
+        }
+
+        @Override
+        protected void compute() {
+            search.run(board);
+        }
+    }
+}
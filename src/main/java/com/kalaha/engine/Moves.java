@@ -0,0 +1,45 @@
+package com.kalaha.engine;
+
+import com.kalaha.domain.Board;
+
+final class Moves {
+
+    private Moves() {
+    }
+
+    static int[] orderedMoves(final Board board, final int preferredMove) {
+        int pitsPerPlayer = board.getIndexKalahaSouth();
+        int firstPit = board.isSouthTurn() ? 0 : pitsPerPlayer + 1;
+        int ownKalaha = firstPit + pitsPerPlayer;
+        int cycleLength = 2 * pitsPerPlayer + 1;
+
+        int[] moves = new int[pitsPerPlayer];
+        int extraTurnMoves = 0;
+        int otherMoves = 0;
+        for (int pit = ownKalaha - 1; pit >= firstPit; pit--) {
+            int stones = board.getStonesInPit(pit);
+            if (stones == 0 || pit == preferredMove)
+                continue;
+            if (stones % cycleLength == ownKalaha - pit)
+                moves[extraTurnMoves++] = pit;
+            else
+                moves[pitsPerPlayer - 1 - otherMoves++] = pit;
+        }
+
+        int count = extraTurnMoves + otherMoves;
+        boolean hasPreferredMove = isLegal(board, preferredMove, firstPit, ownKalaha);
+        int[] ordered = new int[hasPreferredMove ? count + 1 : count];
+        int next = 0;
+        if (hasPreferredMove)
+            ordered[next++] = preferredMove;
+        System.arraycopy(moves, 0, ordered, next, extraTurnMoves);
+        for (int i = 0; i < otherMoves; i++) {
+            ordered[next + extraTurnMoves + i] = moves[pitsPerPlayer - 1 - i];
+        }
+        return ordered;
+    }
+
+    private static boolean isLegal(final Board board, final int move, final int firstPit, final int ownKalaha) {
+        return move >= firstPit && move < ownKalaha && !board.isEmpty(move);
+    }
+}
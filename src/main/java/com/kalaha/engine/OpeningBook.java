@@ -0,0 +1,92 @@
+package com.kalaha.engine;
+
+import com.kalaha.domain.Board;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Best moves of the positions near the start of the game, searched ahead by the
+ * {@link OpeningBookGenerator} and looked up by {@link Board#getZobristKey()}. The file holds a
+ * header of ints followed by the Zobrist key and packed entry of every position.
+ */
+public final class OpeningBook {
+
+    static final int MAGIC = 0x4B424F4B;
+    static final int FORMAT_VERSION = 1;
+
+    private static final int MISSING = -1;
+
+    private final int pitsPerPlayer;
+    private final int stonesPerPit;
+    private final int depth;
+    private final LongIntMap entries;
+
+    OpeningBook(final int pitsPerPlayer, final int stonesPerPit, final int depth, final LongIntMap entries) {
+        this.pitsPerPlayer = pitsPerPlayer;
+        this.stonesPerPit = stonesPerPit;
+        this.depth = depth;
+        this.entries = entries;
+    }
+
+    public static OpeningBook open(final Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file);
+             DataInputStream data = new DataInputStream(new BufferedInputStream(in))) {
+            if (data.readInt() != MAGIC || data.readInt() != FORMAT_VERSION)
+                throw new IOException(String.format("%s is not an opening book", file));
+
+            int pitsPerPlayer = data.readInt();
+            int stonesPerPit = data.readInt();
+            int depth = data.readInt();
+            int size = data.readInt();
+            LongIntMap entries = new LongIntMap(size);
+            for (int i = 0; i < size; i++) {
+                entries.put(data.readLong(), data.readInt());
+            }
+            return new OpeningBook(pitsPerPlayer, stonesPerPit, depth, entries);
+        } catch (EOFException e) {
+            throw new IOException(String.format("Opening book %s is truncated", file), e);
+        }
+    }
+
+    public int getPitsPerPlayer() {
+        return pitsPerPlayer;
+    }
+
+    public int getStonesPerPit() {
+        return stonesPerPit;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the book move of the position with the score and depth it was searched to, or null
+     * when the position is not in the book.
+     */
+    public SearchResult find(final Board board) {
+        int entry = entries.get(board.getZobristKey(), MISSING);
+        if (entry == MISSING)
+            return null;
+
+        return SearchResult.builder()
+                .move(entry & 0xFF)
+                .depth(entry >>> 8 & 0xFF)
+                .score(entry >> 16)
+                .build();
+    }
+
+    static int pack(final SearchResult result) {
+        return result.getScore() << 16 | (result.getDepth() & 0xFF) << 8 | result.getMove() & 0xFF;
+    }
+}
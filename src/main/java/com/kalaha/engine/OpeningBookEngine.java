@@ -0,0 +1,34 @@
+package com.kalaha.engine;
+
+import com.kalaha.domain.Board;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Plays the move of the opening book when the position is in it and searches otherwise.
+ */
+public final class OpeningBookEngine implements SearchEngine {
+
+    private final OpeningBook book;
+    private final SearchEngine engine;
+    private final LongAdder bookMoves = new LongAdder();
+
+    public OpeningBookEngine(final OpeningBook book, final SearchEngine engine) {
+        this.book = book;
+        this.engine = engine;
+    }
+
+    public long getBookMoveCount() {
+        return bookMoves.sum();
+    }
+
+    @Override
+    public SearchResult search(final Board board) {
+        SearchResult result = book.find(board);
+        if (result == null)
+            return engine.search(board);
+
+        bookMoves.increment();
+        return result;
+    }
+}
@@ -0,0 +1,114 @@
+package com.kalaha.engine;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Board;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches every position reachable within the given number of moves from the start position to
+ * a fixed depth. Positions are searched in parallel, each worker thread with its own sequential
+ * engine, so the book does not depend on timing.
+ */
+public final class OpeningBookGenerator {
+
+    private static final long NO_TIME_LIMIT_MILLIS = TimeUnit.DAYS.toMillis(365);
+
+    private final int pitsPerPlayer;
+    private final int stonesPerPit;
+    private final int moves;
+    private final int depth;
+    private final ThreadLocal<AlphaBetaEngine> engines;
+    private long[] keys = new long[0];
+    private int[] entries = new int[0];
+
+    public OpeningBookGenerator(final int pitsPerPlayer, final int stonesPerPit, final int moves, final int depth) {
+        this.pitsPerPlayer = pitsPerPlayer;
+        this.stonesPerPit = stonesPerPit;
+        this.moves = moves;
+        this.depth = depth;
+        this.engines = ThreadLocal.withInitial(() -> AlphaBetaEngine.builder()
+                .maxDepth(depth)
+                .timeBudgetMillis(NO_TIME_LIMIT_MILLIS)
+                .parallelism(1)
+                .transpositionTableEntries(1 << 20)
+                .build());
+    }
+
+    public static void main(final String[] args) throws IOException {
+        int pitsPerPlayer = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int stonesPerPit = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int moves = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : 14;
+        Path file = Paths.get(args.length > 4 ? args[4] : "opening.book");
+
+        long start = System.nanoTime();
+        OpeningBookGenerator generator = new OpeningBookGenerator(pitsPerPlayer, stonesPerPit, moves, depth);
+        generator.generate();
+        generator.write(file);
+
+        System.out.printf("Searched %d positions up to %d moves from the start to depth %d in %d ms, written to %s%n",
+                generator.keys.length, moves, depth,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), file.toAbsolutePath());
+    }
+
+    public void generate() {
+        Map<Long, Board> positions = new LinkedHashMap<>();
+        collect(ArrayBoard.builder().pits(pitsPerPlayer, stonesPerPit).southTurn(true).build(), moves, positions);
+
+        keys = positions.keySet().stream().mapToLong(Long::longValue).toArray();
+        entries = positions.values().parallelStream()
+                .mapToInt(board -> OpeningBook.pack(engines.get().search(board)))
+                .toArray();
+    }
+
+    public OpeningBook toBook() {
+        LongIntMap map = new LongIntMap(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], entries[i]);
+        }
+        return new OpeningBook(pitsPerPlayer, stonesPerPit, depth, map);
+    }
+
+    public void write(final Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file);
+             DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out))) {
+            data.writeInt(OpeningBook.MAGIC);
+            data.writeInt(OpeningBook.FORMAT_VERSION);
+            data.writeInt(pitsPerPlayer);
+            data.writeInt(stonesPerPit);
+            data.writeInt(depth);
+            data.writeInt(keys.length);
+            for (int i = 0; i < keys.length; i++) {
+                data.writeLong(keys[i]);
+                data.writeInt(entries[i]);
+            }
+        }
+    }
+
+    private static void collect(final Board board, final int moves, final Map<Long, Board> positions) {
+        if (board.isGameOver())
+            return;
+        positions.putIfAbsent(board.getZobristKey(), board.copy());
+        if (moves == 0)
+            return;
+
+        int firstPit = board.isSouthTurn() ? 0 : board.getIndexKalahaSouth() + 1;
+        for (int pit = firstPit; pit < firstPit + board.getIndexKalahaSouth(); pit++) {
+            if (board.isEmpty(pit))
+                continue;
+            board.makeMove(pit);
+            collect(board, moves - 1, positions);
+            board.unmakeMove();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.kalaha.engine;
+
+import com.kalaha.domain.Board;
+
+public interface SearchEngine {
+
+    SearchResult search(Board board);
+}
@@ -0,0 +1,20 @@
+package com.kalaha.engine;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.concurrent.TimeUnit;
+
+@Value
+@Builder
+public class SearchResult {
+    private int move;
+    private int score;
+    private int depth;
+    private long nodes;
+    private long elapsedNanos;
+
+    public long getNodesPerSecond() {
+        return elapsedNanos == 0 ? nodes : nodes * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+}
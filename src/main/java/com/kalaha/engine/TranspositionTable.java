@@ -0,0 +1,121 @@
+package com.kalaha.engine;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free table of search results keyed by {@link com.kalaha.domain.Board#getZobristKey()}. Keys are
+ * stored xor-ed with their data, so an entry torn by a concurrent write fails verification on probe.
+ */
+public final class TranspositionTable {
+
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private volatile int age;
+
+    public TranspositionTable(final int minimumEntries) {
+        int entries = Integer.highestOneBit(Math.max(2, minimumEntries - 1) << 1);
+        this.keys = new long[entries];
+        this.data = new long[entries];
+        this.mask = entries - 2;
+    }
+
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    public long probe(final long key) {
+        probes.increment();
+        int bucket = bucket(key);
+        for (int i = bucket; i < bucket + 2; i++) {
+            long entry = data[i];
+            if ((keys[i] ^ entry) == key && entry != 0) {
+                hits.increment();
+                return entry;
+            }
+        }
+        return 0;
+    }
+
+    public void store(final long key, final int score, final int depth, final int bound, final int move) {
+        int bucket = bucket(key);
+        int slot = bucket;
+        for (int i = bucket; i < bucket + 2; i++) {
+            if ((keys[i] ^ data[i]) == key) {
+                slot = i;
+                break;
+            }
+            if (isBetterToReplace(i, slot))
+                slot = i;
+        }
+        long entry = pack(score, depth, bound, move, age);
+        data[slot] = entry;
+        keys[slot] = key ^ entry;
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public double getHitRate() {
+        long probeCount = getProbes();
+        return probeCount == 0 ? 0 : (double) getHits() / probeCount;
+    }
+
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    public static int score(final long entry) {
+        return (int) entry;
+    }
+
+    public static int depth(final long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    public static int bound(final long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+
+    public static int move(final long entry) {
+        return ((int) (entry >>> 42) & 0xFF) - 1;
+    }
+
+    private boolean isBetterToReplace(final int candidate, final int current) {
+        if (candidate == current)
+            return false;
+        boolean candidateIsStale = age(data[candidate]) != age;
+        boolean currentIsStale = age(data[current]) != age;
+        if (candidateIsStale != currentIsStale)
+            return candidateIsStale;
+        return depth(data[candidate]) < depth(data[current]);
+    }
+
+    private int bucket(final long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    private static int age(final long entry) {
+        return (int) (entry >>> 50) & 0xFF;
+    }
+
+    private static long pack(final int score, final int depth, final int bound, final int move, final int age) {
+        return (score & 0xFFFFFFFFL)
+                | (long) (depth & 0xFF) << 32
+                | (long) (bound & 0x3) << 40
+                | (long) ((move + 1) & 0xFF) << 42
+                | (long) (age & 0xFF) << 50
+                | 1L << 58;
+    }
+}
@@ -1,23 +1,52 @@
 package com.kalaha.gameui;
 
 import com.kalaha.domain.Game;
+import com.kalaha.domain.GameActors;
+import com.kalaha.domain.GameBusyException;
+import com.kalaha.domain.GameNotFoundException;
+import com.kalaha.domain.GameRegistry;
+import com.kalaha.domain.GameSnapshot;
+import com.kalaha.domain.NoMoveToTakeBackException;
+import com.kalaha.domain.StaleVersionException;
+import com.kalaha.engine.ComputerPlayer;
+import com.kalaha.hint.Hint;
+import com.kalaha.hint.HintService;
+import com.kalaha.metrics.GameMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
 
 @Controller
 public final class GameUIController {
 
     private final GameUIService gameUIService;
-    private final Game game;
+    private final GameRegistry gameRegistry;
+    private final GameActors gameActors;
+    private final ComputerPlayer computerPlayer;
+    private final GameMetrics gameMetrics;
+    private final HintService hintService;
 
     @Autowired
-    public GameUIController(final GameUIService gameUIService, final Game game) {
+    public GameUIController(final GameUIService gameUIService, final GameRegistry gameRegistry,
+                            final GameActors gameActors, final ComputerPlayer computerPlayer,
+                            final GameMetrics gameMetrics, final HintService hintService) {
         this.gameUIService = gameUIService;
-        this.game = game;
+        this.gameRegistry = gameRegistry;
+        this.gameActors = gameActors;
+        this.computerPlayer = computerPlayer;
+        this.gameMetrics = gameMetrics;
+        this.hintService = hintService;
     }
 
     @GetMapping("/")
@@ -25,46 +54,132 @@ public final class GameUIController {
         return "index";
     }
 
-    @GetMapping("/play")
-    public String getGame(final Model model) {
-        addAttributesToModel(model);
+    @PostMapping("/games")
+    public String createGame(@RequestParam(defaultValue = "false") final boolean computerNorth) {
+        long gameId = gameRegistry.create(computerNorth);
+        computerPlayer.playTurn(gameRegistry.get(gameId));
+        return "redirect:/games/" + gameId + "/play";
+    }
+
+    @GetMapping("/games/{gameId}/play")
+    public String getGame(@PathVariable final long gameId, final Model model) {
+        Game game = gameRegistry.get(gameId);
+        addAttributesToModel(model, gameId, game);
         return "board";
     }
 
-    @PostMapping("/play")
-    public String performMove(@ModelAttribute final Payload payload, final Model model) {
-        int chosenIndex = payload.getIndex();
-        boolean isSouthTurn = payload.getIsSouthTurn();
-        int pitListIndex = isSouthTurn ? chosenIndex : chosenIndex + game.getOffsetPlayerNorth();
+    @PostMapping("/games/{gameId}/play")
+    public String performMove(@PathVariable final long gameId, @ModelAttribute final Payload payload,
+                              final Model model, final HttpServletResponse response) {
+        Game game = gameRegistry.get(gameId);
+        GameSnapshot snapshot = game.snapshot();
+        Integer chosenIndex = payload.getIndex();
 
-        if (game.isPitEmpty(pitListIndex))
+        if (payload.getVersion() == null || snapshot.getVersion() != payload.getVersion())
+            addStaleMessageToModel(model);
+        else if (chosenIndex == null || chosenIndex < 0 || chosenIndex >= snapshot.getIndexKalahaSouth())
+            addInvalidPitMessageToModel(model);
+        else if (snapshot.isComputerNorth() && !snapshot.isSouthTurn() && !snapshot.isGameOver())
+            addComputerTurnMessageToModel(model);
+        else if (snapshot.getPits()[pitListIndex(snapshot, chosenIndex)] == 0)
             addErrorMessageToModel(model, chosenIndex);
         else
-            play(pitListIndex, isSouthTurn);
+            play(game, pitListIndex(snapshot, chosenIndex), payload.getVersion(), model, response);
+
+        addAttributesToModel(model, gameId, game);
+        return "board";
+    }
 
-        addGameOverMessageIfGameIsOver(model);
-        addAttributesToModel(model);
+    @GetMapping("/games/{gameId}/hint")
+    public String getHint(@PathVariable final long gameId, final Model model) {
+        Game game = gameRegistry.get(gameId);
+        hintService.hintFor(game).ifPresent(hint -> addHintMessageToModel(model, game, hint));
+
+        addAttributesToModel(model, gameId, game);
+        return "board";
+    }
+
+    @PostMapping("/games/{gameId}/takeback")
+    public String takeBack(@PathVariable final long gameId, @ModelAttribute final Payload payload,
+                           final Model model, final HttpServletResponse response) {
+        Game game = gameRegistry.get(gameId);
+        try {
+            if (payload.getVersion() == null)
+                addStaleMessageToModel(model);
+            else
+                gameActors.ask(game, () -> game.takeBack(payload.getVersion()));
+        } catch (GameBusyException e) {
+            addBusyMessageToModel(model, response);
+        } catch (StaleVersionException e) {
+            addStaleMessageToModel(model);
+        } catch (NoMoveToTakeBackException e) {
+            model.addAttribute("errorMessage", "There is no move to take back");
+        }
+
+        addAttributesToModel(model, gameId, game);
         return "board";
     }
 
-    private void play(final int pitListIndex, final boolean southTurn) {
-        game.setSouthTurn(southTurn);
-        game.play(pitListIndex);
+    @ExceptionHandler(GameNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    String handleGameNotFound() {
+        return "index";
+    }
+
+    private void play(final Game game, final int pitListIndex, final long version, final Model model,
+                      final HttpServletResponse response) {
+        try {
+            gameMetrics.timeMove(() -> gameActors.ask(game, () -> game.play(pitListIndex, version)));
+        } catch (GameBusyException e) {
+            addBusyMessageToModel(model, response);
+            return;
+        } catch (StaleVersionException e) {
+            addStaleMessageToModel(model);
+            return;
+        }
+        computerPlayer.playTurn(game);
     }
 
     private void addErrorMessageToModel(final Model model, final int index) {
+        gameMetrics.countEmptyPitSelection();
         model.addAttribute("errorMessage", String.format("The chosen pit %s contains no stones "
                 + "please select another pit", index + 1));
     }
 
-    private void addGameOverMessageIfGameIsOver(final Model model) {
-        if (game.isGameOver())
-            model.addAttribute("gameoverMessage", game.getWinnerMessage());
+    private void addInvalidPitMessageToModel(final Model model) {
+        gameMetrics.countIllegalMove();
+        model.addAttribute("errorMessage", "Please select one of the pits of your row");
+    }
+
+    private void addComputerTurnMessageToModel(final Model model) {
+        gameMetrics.countIllegalMove();
+        model.addAttribute("errorMessage", "The computer is to move please wait for its move");
+    }
+
+    private void addHintMessageToModel(final Model model, final Game game, final Hint hint) {
+        int offset = hint.getPit() >= game.getOffsetPlayerNorth() ? game.getOffsetPlayerNorth() : 0;
+        model.addAttribute("hintMessage", String.format("Hint: select pit %s (evaluation %+d at depth %s)",
+                hint.getPit() - offset + 1, hint.getScore(), hint.getDepth()));
+    }
+
+    private void addStaleMessageToModel(final Model model) {
+        gameMetrics.countStaleMove();
+        model.addAttribute("errorMessage", "The board has changed since you selected a pit "
+                + "please select again");
+    }
+
+    private void addBusyMessageToModel(final Model model, final HttpServletResponse response) {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        model.addAttribute("errorMessage", "The game is busy with other moves please select again");
+    }
+
+    private static int pitListIndex(final GameSnapshot snapshot, final int chosenIndex) {
+        return snapshot.isSouthTurn() ? chosenIndex : chosenIndex + snapshot.getIndexKalahaSouth() + 1;
     }
 
-    private void addAttributesToModel(final Model model) {
-        BoardHtmlData boardHtmlData = gameUIService.getBoardHtmlDataFrom(game);
-        model.addAttribute("boardHtmlData", boardHtmlData);
-        model.addAttribute("southTurn", game.isSouthTurn());
+    private void addAttributesToModel(final Model model, final long gameId, final Game game) {
+        Map<String, Object> attributes = gameMetrics.timeModel(
+                () -> game.read(current -> gameUIService.getBoardAttributesFrom(gameId, current)));
+        model.addAllAttributes(attributes);
     }
 }
@@ -4,11 +4,29 @@ import com.kalaha.domain.Game;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public final class GameUIService {
 
+    /**
+     * The model of the board page for the state of the game, shared with the render benchmark so
+     * the two cannot drift apart.
+     */
+    Map<String, Object> getBoardAttributesFrom(final long gameId, final Game game) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("gameId", gameId);
+        attributes.put("version", game.getVersion());
+        attributes.put("boardHtmlData", getBoardHtmlDataFrom(game));
+        attributes.put("southTurn", game.isSouthTurn());
+        attributes.put("canTakeBack", game.canTakeBack());
+        if (game.isGameOver())
+            attributes.put("gameoverMessage", game.getWinnerMessage());
+        return attributes;
+    }
+
     BoardHtmlData getBoardHtmlDataFrom(final Game game) {
         return BoardHtmlData.builder()
                 .rowSouth(game.getPitListSouth())
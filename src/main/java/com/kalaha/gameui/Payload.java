@@ -5,5 +5,5 @@ import lombok.Value;
 @Value
 class Payload {
     private Integer index;
-    private Boolean isSouthTurn;
+    private Long version;
 }
@@ -0,0 +1,12 @@
+package com.kalaha.hint;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class Hint {
+    private int pit;
+    private int score;
+    private int depth;
+}
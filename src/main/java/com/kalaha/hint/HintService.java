@@ -0,0 +1,212 @@
+package com.kalaha.hint;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kalaha.domain.Board;
+import com.kalaha.domain.Game;
+import com.kalaha.domain.GameListener;
+import com.kalaha.engine.SearchEngine;
+import com.kalaha.engine.SearchResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves the best move of a position from a cache shared by all games and keyed by the Zobrist
+ * key of the position. Positions are analysed once: a request for a position already being
+ * searched waits for that search. A request never waits in the queue of the background analysis,
+ * it searches a position that is missing or still queued on its own thread. The background
+ * analyses the openings when the service starts and, in the games that asked for a hint recently,
+ * every position a player is to move in once it is reached. Background analysis is dropped when
+ * its queue is full.
+ */
+@Slf4j
+public final class HintService implements GameListener, Closeable {
+
+    private final SearchEngine engine;
+    private final ThreadPoolExecutor executor;
+    private final Cache<Long, Hint> hints;
+    private final ConcurrentMap<Long, Analysis> analyses = new ConcurrentHashMap<>();
+    private final Cache<Long, Boolean> hintedGames;
+
+    static final long HINTED_GAME_IDLE_MINUTES = 30;
+
+    public HintService(final SearchEngine engine, final int threads, final int queueCapacity,
+                       final long cacheEntries, final MeterRegistry meterRegistry) {
+        this.engine = engine;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "hint-analysis");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.hints = Caffeine.newBuilder()
+                .maximumSize(cacheEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, hints, "hints");
+        this.hintedGames = Caffeine.newBuilder()
+                .maximumSize(cacheEntries)
+                .expireAfterAccess(HINTED_GAME_IDLE_MINUTES, TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * Returns the hint for the position of the game, or nothing when the game is over.
+     */
+    public Optional<Hint> hintFor(final Game game) {
+        Long key = game.read(current -> current.isGameOver() ? null : current.getBoard().getZobristKey());
+        if (key == null)
+            return Optional.empty();
+        hintedGames.put(game.getId(), Boolean.TRUE);
+
+        Hint hint = hints.getIfPresent(key);
+        if (hint != null)
+            return Optional.of(hint);
+
+        Board board = game.read(current -> current.getBoard().copy());
+        if (board.isGameOver())
+            return Optional.empty();
+        while (true) {
+            try {
+                return Optional.of(analyse(board, true).join());
+            } catch (CancellationException e) {
+                log.debug("Background analysis of position {} was dropped", key);
+            }
+        }
+    }
+
+    /**
+     * Analyses every position up to the given number of moves from the start position in the
+     * background.
+     */
+    public void warmUp(final Board start, final int moves) {
+        warmUpFrom(start.copy(), moves);
+    }
+
+    @Override
+    public void onMove(final Game game, final int index, final boolean southMoved) {
+        prefetchIfPlayerToMove(game);
+    }
+
+    @Override
+    public void onTakeBack(final Game game, final int moves) {
+        prefetchIfPlayerToMove(game);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void warmUpFrom(final Board board, final int moves) {
+        prefetch(board);
+        if (moves == 0 || board.isGameOver())
+            return;
+
+        int firstPit = board.isSouthTurn() ? 0 : board.getIndexKalahaSouth() + 1;
+        for (int pit = firstPit; pit < firstPit + board.getIndexKalahaSouth(); pit++) {
+            if (board.isEmpty(pit))
+                continue;
+            board.makeMove(pit);
+            warmUpFrom(board, moves - 1);
+            board.unmakeMove();
+        }
+    }
+
+    private void prefetchIfPlayerToMove(final Game game) {
+        if (!game.isGameOver() && !game.isComputerTurn() && hintedGames.getIfPresent(game.getId()) != null)
+            prefetch(game.getBoard());
+    }
+
+    private void prefetch(final Board board) {
+        if (!board.isGameOver() && hints.getIfPresent(board.getZobristKey()) == null)
+            analyse(board.copy(), false);
+    }
+
+    private CompletableFuture<Hint> analyse(final Board board, final boolean requested) {
+        long key = board.getZobristKey();
+        Analysis analysis = new Analysis(key, board);
+        Analysis running = analyses.putIfAbsent(key, analysis);
+        if (running != null) {
+            if (requested && running.claim())
+                running.run();
+            return running.result;
+        }
+
+        Hint hint = hints.getIfPresent(key);
+        if (hint != null) {
+            analyses.remove(key, analysis);
+            analysis.result.complete(hint);
+            return analysis.result;
+        }
+
+        if (requested) {
+            analysis.claim();
+            analysis.run();
+            return analysis.result;
+        }
+        try {
+            executor.execute(() -> {
+                if (analysis.claim())
+                    analysis.run();
+            });
+        } catch (RejectedExecutionException e) {
+            if (analysis.claim()) {
+                analyses.remove(key, analysis);
+                analysis.result.cancel(false);
+            }
+        }
+        return analysis.result;
+    }
+
+    /**
+     * A search of a position, run by whichever claims it first: a background thread or a request
+     * that finds the position still waiting in the queue.
+     */
+    private final class Analysis {
+        private final long key;
+        private final Board board;
+        private final CompletableFuture<Hint> result = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Analysis(final long key, final Board board) {
+            this.key = key;
+            this.board = board;
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        private void run() {
+            try {
+                SearchResult searched = engine.search(board);
+                Hint analysed = Hint.builder()
+                        .pit(searched.getMove())
+                        .score(searched.getScore())
+                        .depth(searched.getDepth())
+                        .build();
+                hints.put(key, analysed);
+                result.complete(analysed);
+            } catch (RuntimeException e) {
+                log.warn("Analysis of position {} failed", key, e);
+                result.completeExceptionally(e);
+            } finally {
+                analyses.remove(key, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package com.kalaha.journal;
+
+import com.kalaha.domain.Board;
+import com.kalaha.domain.Game;
+import com.kalaha.domain.GameListener;
+import com.kalaha.domain.GameRegistry;
+import com.kalaha.domain.GameSnapshot;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Appends every created game and every move to journal segments, written by a single thread
+ * that forces each drained batch to disk at once. Snapshots roll over to a new segment, so
+ * recovery reads the latest snapshot and replays the segments written since, skipping moves
+ * whose version the snapshot already contains. A take-back records the position it returned to,
+ * since the moves it undid may only be contained in the snapshot. A game loaded again by a store
+ * records its whole state too, as the store deletes the file it was loaded from.
+ * <p>
+ * Durability is asynchronous: a move is acknowledged once it is queued, before its batch is
+ * forced, so a crash loses the moves of the batch being written, a few milliseconds at most.
+ * Once writing fails the journal drops further records instead of failing the moves, which were
+ * already applied to the game when the listener is called.
+ */
+@Slf4j
+public final class GameJournal implements GameListener, Closeable {
+
+    static final int SNAPSHOT_MAGIC = 0x4B534E50;
+    static final int FORMAT_VERSION = 1;
+    static final String SNAPSHOT_FILE = "snapshot.bin";
+
+    private static final byte CREATE = 1;
+    private static final byte MOVE = 2;
+    private static final byte TAKE_BACK = 3;
+    private static final byte REHYDRATE = 4;
+    private static final byte[] END_OF_STREAM = new byte[0];
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d+)\\.log");
+
+    private final Path directory;
+    private final BlockingQueue<byte[]> queue;
+    private final Object segmentLock = new Object();
+    private final Thread thread;
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private ScheduledExecutorService snapshotScheduler;
+    private GameRegistry registry;
+    private FileChannel segment;
+    private long segmentNumber;
+    private volatile IOException failure;
+
+    public GameJournal(final Path directory, final int queueCapacity) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.segmentNumber = lastSegmentNumber() + 1;
+        this.segment = openSegment(segmentNumber);
+
+        this.thread = new Thread(this::drain, "game-journal-writer");
+        thread.start();
+    }
+
+    public void recover(final GameRegistry registry) throws IOException {
+        Map<Long, Game> games = new HashMap<>();
+        Set<Long> stored = new HashSet<>();
+        long firstSegment = readSnapshot(registry, games);
+        for (long number = firstSegment; number < segmentNumber; number++) {
+            Path file = segmentFile(number);
+            if (Files.exists(file))
+                replay(file, registry, games, stored);
+        }
+        games.values().forEach(registry::restore);
+        if (!stored.isEmpty())
+            snapshot(registry);
+        log.info("Recovered {} games from {}, {} of them stored", games.size(), directory, stored.size());
+    }
+
+    public void scheduleSnapshots(final GameRegistry registry, final long intervalSeconds) {
+        this.registry = registry;
+        this.snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread snapshotThread = new Thread(runnable, "game-journal-snapshot");
+            snapshotThread.setDaemon(true);
+            return snapshotThread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(this::snapshotQuietly,
+                intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public void snapshot(final GameRegistry registry) throws IOException {
+        long firstSegment = rollSegment();
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(firstSegment);
+            List<Game> games = new ArrayList<>(registry.size());
+            registry.forEach(games::add);
+            for (Game game : games) {
+                writeGame(out, game);
+            }
+            out.writeLong(0);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        deleteSegmentsBefore(firstSegment);
+    }
+
+    @Override
+    public void onCreate(final Game game) {
+        append(ByteBuffer.allocate(10)
+                .put(CREATE)
+                .putLong(game.getId())
+                .put((byte) (game.isComputerNorth() ? 1 : 0))
+                .array());
+    }
+
+    @Override
+    public void onMove(final Game game, final int index, final boolean southMoved) {
+        append(ByteBuffer.allocate(20)
+                .put(MOVE)
+                .putLong(game.getId())
+                .putLong(game.getVersion())
+                .putShort((short) index)
+                .put((byte) (southMoved ? 1 : 0))
+                .array());
+    }
+
+    @Override
+    public void onTakeBack(final Game game, final int moves) {
+        Board board = game.getBoard();
+        int pitCount = board.getIndexKalahaNorth() + 1;
+        ByteBuffer record = ByteBuffer.allocate(20 + 4 * pitCount)
+                .put(TAKE_BACK)
+                .putLong(game.getId())
+                .putLong(game.getVersion())
+                .put((byte) (board.isSouthTurn() ? 1 : 0))
+                .putShort((short) pitCount);
+        for (int pit = 0; pit < pitCount; pit++) {
+            record.putInt(board.getStonesInPit(pit));
+        }
+        append(record.array());
+    }
+
+    @Override
+    public void onRehydrate(final Game game) {
+        Board board = game.getBoard();
+        int pitCount = board.getIndexKalahaNorth() + 1;
+        ByteBuffer record = ByteBuffer.allocate(21 + 4 * pitCount)
+                .put(REHYDRATE)
+                .putLong(game.getId())
+                .putLong(game.getVersion())
+                .put((byte) (game.isComputerNorth() ? 1 : 0))
+                .put((byte) (board.isSouthTurn() ? 1 : 0))
+                .putShort((short) pitCount);
+        for (int pit = 0; pit < pitCount; pit++) {
+            record.putInt(board.getStonesInPit(pit));
+        }
+        append(record.array());
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getRecords() {
+        return records.get();
+    }
+
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (snapshotScheduler != null) {
+                snapshotScheduler.shutdownNow();
+                snapshot(registry);
+            }
+        } finally {
+            stopWriter();
+        }
+        if (failure != null)
+            throw failure;
+    }
+
+    private void stopWriter() throws IOException {
+        try {
+            queue.put(END_OF_STREAM);
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (segmentLock) {
+            segment.close();
+        }
+    }
+
+    private void append(final byte[] record) {
+        if (failure != null) {
+            droppedRecords.incrementAndGet();
+            return;
+        }
+        try {
+            queue.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedRecords.incrementAndGet();
+            log.warn("Interrupted while journaling to {}, the record is dropped", directory);
+        }
+    }
+
+    private void drain() {
+        List<byte[]> batch = new ArrayList<>();
+        boolean running = true;
+        try {
+            while (running) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                running = !batch.remove(END_OF_STREAM);
+                if (failure == null && !batch.isEmpty())
+                    writeBatch(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeBatch(final List<byte[]> batch) {
+        ByteBuffer buffer = ByteBuffer.allocate(batch.stream().mapToInt(record -> record.length).sum());
+        batch.forEach(buffer::put);
+        buffer.flip();
+        try {
+            synchronized (segmentLock) {
+                while (buffer.hasRemaining()) {
+                    segment.write(buffer);
+                }
+                segment.force(false);
+            }
+            batches.incrementAndGet();
+            records.addAndGet(batch.size());
+        } catch (IOException e) {
+            failure = e;
+            log.error("Journal {} failed, moves are no longer persisted", directory, e);
+        }
+    }
+
+    private long rollSegment() throws IOException {
+        synchronized (segmentLock) {
+            segment.force(false);
+            segment.close();
+            segment = openSegment(++segmentNumber);
+            return segmentNumber;
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot(registry);
+        } catch (IOException e) {
+            log.error("Snapshot of {} failed", directory, e);
+        }
+    }
+
+    private void writeGame(final DataOutputStream out, final Game game) throws IOException {
+        GameSnapshot snapshot = game.snapshot();
+        out.writeLong(snapshot.getId());
+        out.writeLong(snapshot.getVersion());
+        out.writeBoolean(snapshot.isComputerNorth());
+        out.writeBoolean(snapshot.isSouthTurn());
+        out.writeShort(snapshot.getPits().length);
+        for (int stones : snapshot.getPits()) {
+            out.writeInt(stones);
+        }
+    }
+
+    private long readSnapshot(final GameRegistry registry, final Map<Long, Game> games) throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file))
+            return 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != FORMAT_VERSION)
+                throw new IOException(String.format("%s is not a game snapshot", file));
+
+            long firstSegment = in.readLong();
+            long id;
+            while ((id = in.readLong()) != 0) {
+                Game game = registry.newGame();
+                game.setId(id);
+                game.setVersion(in.readLong());
+                game.setComputerNorth(in.readBoolean());
+                boolean southTurn = in.readBoolean();
+                int[] pits = new int[in.readShort()];
+                for (int i = 0; i < pits.length; i++) {
+                    pits[i] = in.readInt();
+                }
+                game.getBoard().load(pits, southTurn);
+                games.put(id, game);
+            }
+            return firstSegment;
+        }
+    }
+
+    private void replay(final Path file, final GameRegistry registry, final Map<Long, Game> games,
+                        final Set<Long> stored) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            while (true) {
+                byte type = in.readByte();
+                if (type == CREATE) {
+                    long id = in.readLong();
+                    boolean computerNorth = in.readBoolean();
+                    games.computeIfAbsent(id, key -> newGame(registry, key, computerNorth));
+                } else if (type == MOVE) {
+                    Game game = find(in.readLong(), registry, games, stored);
+                    long version = in.readLong();
+                    int index = in.readShort();
+                    boolean southMoved = in.readBoolean();
+                    if (game != null && version > game.getVersion()) {
+                        game.setSouthTurn(southMoved);
+                        game.play(index);
+                    }
+                } else if (type == TAKE_BACK) {
+                    Game game = find(in.readLong(), registry, games, stored);
+                    long version = in.readLong();
+                    boolean southTurn = in.readBoolean();
+                    int[] pits = new int[in.readShort()];
+                    for (int i = 0; i < pits.length; i++) {
+                        pits[i] = in.readInt();
+                    }
+                    if (game != null && version > game.getVersion()) {
+                        game.getBoard().load(pits, southTurn);
+                        game.setVersion(version);
+                    }
+                } else if (type == REHYDRATE) {
+                    long id = in.readLong();
+                    long version = in.readLong();
+                    boolean computerNorth = in.readBoolean();
+                    boolean southTurn = in.readBoolean();
+                    int[] pits = new int[in.readShort()];
+                    for (int i = 0; i < pits.length; i++) {
+                        pits[i] = in.readInt();
+                    }
+                    Game game = games.computeIfAbsent(id, key -> newGame(registry, key, computerNorth));
+                    if (version >= game.getVersion()) {
+                        game.getBoard().load(pits, southTurn);
+                        game.setVersion(version);
+                    }
+                } else {
+                    log.warn("Journal segment {} ends with an unknown record type {}", file, type);
+                    return;
+                }
+            }
+        } catch (EOFException e) {
+            log.debug("Reached the end of journal segment {}", file);
+        }
+    }
+
+    private static Game newGame(final GameRegistry registry, final long id, final boolean computerNorth) {
+        Game game = registry.newGame();
+        game.setId(id);
+        game.setComputerNorth(computerNorth);
+        return game;
+    }
+
+    /**
+     * Games that were hibernated are left out of snapshots, their later moves are applied to
+     * the hibernated state. It is loaded without the listeners, so replaying does not record the
+     * moves again, and as the store may delete its file, recovery ends with a snapshot.
+     */
+    private static Game find(final long id, final GameRegistry registry, final Map<Long, Game> games,
+                             final Set<Long> stored) {
+        return games.computeIfAbsent(id, key -> registry.recover(key)
+                .map(game -> {
+                    stored.add(key);
+                    return game;
+                })
+                .orElse(null));
+    }
+
+    private void deleteSegmentsBefore(final long firstSegment) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches() && Long.parseLong(matcher.group(1)) < firstSegment)
+                    Files.delete(file);
+            }
+        }
+    }
+
+    private long lastSegmentNumber() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .mapToLong(matcher -> Long.parseLong(matcher.group(1)))
+                    .max()
+                    .orElse(0);
+        }
+    }
+
+    private FileChannel openSegment(final long number) throws IOException {
+        return FileChannel.open(segmentFile(number), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private Path segmentFile(final long number) {
+        return directory.resolve(String.format("journal-%010d.log", number));
+    }
+}
@@ -0,0 +1,138 @@
+package com.kalaha.metrics;
+
+import com.kalaha.domain.Board;
+import com.kalaha.domain.Game;
+import com.kalaha.domain.GameListener;
+import com.kalaha.domain.GameRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Counts what happens in the games it listens to. All meters are registered up front, so
+ * recording a move only increments counters.
+ */
+public final class GameMetrics implements GameListener {
+
+    private final MeterRegistry meterRegistry;
+    private final Counter movesSouth;
+    private final Counter movesNorth;
+    private final Counter captures;
+    private final Counter extraTurns;
+    private final Counter takeBacks;
+    private final Counter emptyPitSelections;
+    private final Counter staleMoves;
+    private final Counter illegalMoves;
+    private final Counter winsSouth;
+    private final Counter winsNorth;
+    private final Counter ties;
+    private final Timer moveTimer;
+    private final Timer modelTimer;
+    private final AtomicLong activeGames = new AtomicLong();
+
+    public GameMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.movesSouth = meterRegistry.counter("kalaha.moves", "player", "south");
+        this.movesNorth = meterRegistry.counter("kalaha.moves", "player", "north");
+        this.captures = meterRegistry.counter("kalaha.captures");
+        this.extraTurns = meterRegistry.counter("kalaha.extra.turns");
+        this.takeBacks = meterRegistry.counter("kalaha.takebacks");
+        this.emptyPitSelections = meterRegistry.counter("kalaha.moves.rejected", "reason", "empty_pit");
+        this.staleMoves = meterRegistry.counter("kalaha.moves.rejected", "reason", "stale_version");
+        this.illegalMoves = meterRegistry.counter("kalaha.moves.rejected", "reason", "illegal");
+        this.winsSouth = meterRegistry.counter("kalaha.games.finished", "winner", "south");
+        this.winsNorth = meterRegistry.counter("kalaha.games.finished", "winner", "north");
+        this.ties = meterRegistry.counter("kalaha.games.finished", "winner", "tie");
+        this.moveTimer = latencyTimer("kalaha.move", "Time to apply a move to a game");
+        this.modelTimer = latencyTimer("kalaha.render.model", "Time to build the board model of a page");
+        Gauge.builder("kalaha.games.active", activeGames, AtomicLong::get)
+                .description("Games created since startup that are not over")
+                .register(meterRegistry);
+    }
+
+    public void monitor(final GameRegistry gameRegistry) {
+        Gauge.builder("kalaha.games", gameRegistry, GameRegistry::size)
+                .description("Games held in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onCreate(final Game game) {
+        activeGames.incrementAndGet();
+    }
+
+    @Override
+    public void onMove(final Game game, final int index, final boolean southMoved) {
+        Board board = game.getBoard();
+        (southMoved ? movesSouth : movesNorth).increment();
+        if (board.isGameOver()) {
+            countFinishedGame(board);
+        } else if (board.isSouthTurn() == southMoved) {
+            extraTurns.increment();
+        } else if (capturedFromOpponent(board, southMoved)) {
+            captures.increment();
+        }
+    }
+
+    @Override
+    public void onTakeBack(final Game game, final int moves) {
+        takeBacks.increment();
+    }
+
+    public <T> T timeMove(final Supplier<T> move) {
+        return moveTimer.record(move);
+    }
+
+    public <T> T timeModel(final Supplier<T> model) {
+        return modelTimer.record(model);
+    }
+
+    public void countEmptyPitSelection() {
+        emptyPitSelections.increment();
+    }
+
+    public void countStaleMove() {
+        staleMoves.increment();
+    }
+
+    public void countIllegalMove() {
+        illegalMoves.increment();
+    }
+
+    private Timer latencyTimer(final String name, final String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private void countFinishedGame(final Board board) {
+        activeGames.decrementAndGet();
+        int exceedingStonesSouth = board.getStonesInPit(board.getIndexKalahaSouth())
+                - board.getStonesInPit(board.getIndexKalahaNorth());
+        if (exceedingStonesSouth == 0)
+            ties.increment();
+        else
+            (exceedingStonesSouth > 0 ? winsSouth : winsNorth).increment();
+    }
+
+    /**
+     * Sowing only adds stones to the opponent's pits, so an opponent pit emptied by a move that
+     * did not end the game was captured.
+     */
+    private static boolean capturedFromOpponent(final Board board, final boolean southMoved) {
+        int first = southMoved ? board.getIndexKalahaSouth() + 1 : 0;
+        int last = southMoved ? board.getIndexKalahaNorth() : board.getIndexKalahaSouth();
+        boolean[] captured = new boolean[1];
+        board.forEachPitChangedByLastMove(pit -> {
+            if (pit >= first && pit < last && board.isEmpty(pit))
+                captured[0] = true;
+        });
+        return captured[0];
+    }
+}
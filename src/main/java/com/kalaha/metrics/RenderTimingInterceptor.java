@@ -0,0 +1,51 @@
+package com.kalaha.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the rendering of views, which happens between postHandle and afterCompletion.
+ */
+public final class RenderTimingInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = RenderTimingInterceptor.class.getName() + ".start";
+    private static final String VIEW_ATTRIBUTE = RenderTimingInterceptor.class.getName() + ".view";
+
+    private final MeterRegistry meterRegistry;
+
+    public RenderTimingInterceptor(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void postHandle(final HttpServletRequest request, final HttpServletResponse response,
+                           final Object handler, final ModelAndView modelAndView) {
+        if (modelAndView != null && modelAndView.getViewName() != null
+                && !modelAndView.getViewName().startsWith("redirect:")) {
+            request.setAttribute(VIEW_ATTRIBUTE, modelAndView.getViewName());
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response,
+                                final Object handler, final Exception exception) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null)
+            return;
+
+        Timer.builder("kalaha.render.view")
+                .description("Time to render a Mustache view")
+                .tag("view", (String) request.getAttribute(VIEW_ATTRIBUTE))
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - (long) start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,10 @@
+package com.kalaha.push;
+
+import java.io.IOException;
+
+public interface DeltaSink {
+
+    void send(GameDelta delta) throws IOException;
+
+    void complete();
+}
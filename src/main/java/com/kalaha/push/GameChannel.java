@@ -0,0 +1,122 @@
+package com.kalaha.push;
+
+import com.kalaha.domain.Board;
+import com.kalaha.domain.Game;
+import com.kalaha.domain.GameSnapshot;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Latest state of one game as seen by its subscribers. Every pit remembers the version that last
+ * changed it, so a subscriber that fell behind gets one delta covering all the moves it missed.
+ * Moves made while the channel was being opened and take-backs, which may undo several moves,
+ * are caught up by comparing all pits.
+ */
+final class GameChannel {
+
+    private final int[] pits;
+    private final long[] pitVersions;
+    private final List<GameSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private long version;
+    private boolean southTurn;
+    private boolean gameOver;
+
+    GameChannel(final GameSnapshot snapshot) {
+        this.pits = snapshot.getPits().clone();
+        this.pitVersions = new long[pits.length];
+        this.version = snapshot.getVersion();
+        Arrays.fill(pitVersions, version);
+        this.southTurn = snapshot.isSouthTurn();
+        this.gameOver = snapshot.isGameOver();
+    }
+
+    void update(final Game game) {
+        update(game, false);
+    }
+
+    void reload(final Game game) {
+        update(game, true);
+    }
+
+    private void update(final Game game, final boolean allPits) {
+        synchronized (this) {
+            Board board = game.getBoard();
+            long moveVersion = game.getVersion();
+            if (!allPits && moveVersion == version + 1) {
+                board.forEachPitChangedByLastMove(pit -> setPit(pit, board.getStonesInPit(pit), moveVersion));
+            } else {
+                for (int pit = 0; pit < pits.length; pit++) {
+                    setPit(pit, board.getStonesInPit(pit), moveVersion);
+                }
+            }
+            version = moveVersion;
+            southTurn = board.isSouthTurn();
+            gameOver = board.isGameOver();
+        }
+        subscribers.forEach(GameSubscriber::schedule);
+    }
+
+    synchronized void catchUp(final GameSnapshot snapshot) {
+        if (snapshot.getVersion() <= version)
+            return;
+
+        for (int pit = 0; pit < pits.length; pit++) {
+            setPit(pit, snapshot.getPits()[pit], snapshot.getVersion());
+        }
+        version = snapshot.getVersion();
+        southTurn = snapshot.isSouthTurn();
+        gameOver = snapshot.isGameOver();
+    }
+
+    synchronized GameDelta deltaSince(final long sentVersion) {
+        if (version <= sentVersion)
+            return null;
+
+        int count = 0;
+        for (long pitVersion : pitVersions) {
+            if (pitVersion > sentVersion)
+                ++count;
+        }
+        int[] changedPits = new int[count];
+        int[] stones = new int[count];
+        for (int pit = 0, i = 0; pit < pits.length; pit++) {
+            if (pitVersions[pit] > sentVersion) {
+                changedPits[i] = pit;
+                stones[i++] = pits[pit];
+            }
+        }
+        return GameDelta.builder()
+                .version(version)
+                .changedPits(changedPits)
+                .stones(stones)
+                .southTurn(southTurn)
+                .gameOver(gameOver)
+                .build();
+    }
+
+    private void setPit(final int pit, final int stones, final long pitVersion) {
+        if (pits[pit] != stones) {
+            pits[pit] = stones;
+            pitVersions[pit] = pitVersion;
+        }
+    }
+
+    synchronized long getVersion() {
+        return version;
+    }
+
+    void add(final GameSubscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    boolean remove(final GameSubscriber subscriber) {
+        subscribers.remove(subscriber);
+        return subscribers.isEmpty();
+    }
+
+    int getSubscriberCount() {
+        return subscribers.size();
+    }
+}
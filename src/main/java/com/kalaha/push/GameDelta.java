@@ -0,0 +1,14 @@
+package com.kalaha.push;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class GameDelta {
+    private long version;
+    private int[] changedPits;
+    private int[] stones;
+    private boolean southTurn;
+    private boolean gameOver;
+}
@@ -0,0 +1,88 @@
+package com.kalaha.push;
+
+import com.kalaha.domain.Game;
+import com.kalaha.domain.GameListener;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+
+public final class GameEventPublisher implements GameListener {
+
+    private final ConcurrentMap<Long, GameChannel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    public GameEventPublisher(final ExecutorService executor, final long timeoutMillis) {
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public SseEmitter subscribe(final Game game) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Runnable unsubscribe = subscribe(game, new DeltaSink() {
+            @Override
+            public void send(final GameDelta delta) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(delta.getVersion()))
+                        .name("move")
+                        .data(delta, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void complete() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        return emitter;
+    }
+
+    public Runnable subscribe(final Game game, final DeltaSink sink) {
+        GameSubscriber[] subscriber = new GameSubscriber[1];
+        GameChannel channel = channels.compute(game.getId(), (id, existing) -> {
+            GameChannel current = existing != null ? existing : new GameChannel(game.snapshot());
+            subscriber[0] = new GameSubscriber(current, executor, sink,
+                    () -> unsubscribe(id, current, subscriber[0]));
+            current.add(subscriber[0]);
+            return current;
+        });
+        channel.catchUp(game.snapshot());
+        subscriber[0].schedule();
+        return subscriber[0]::close;
+    }
+
+    @Override
+    public void onMove(final Game game, final int index, final boolean southMoved) {
+        GameChannel channel = channels.get(game.getId());
+        if (channel != null)
+            channel.update(game);
+    }
+
+    @Override
+    public void onTakeBack(final Game game, final int moves) {
+        GameChannel channel = channels.get(game.getId());
+        if (channel != null)
+            channel.reload(game);
+    }
+
+    public int getSubscriberCount(final long gameId) {
+        GameChannel channel = channels.get(gameId);
+        return channel == null ? 0 : channel.getSubscriberCount();
+    }
+
+    public void close() {
+        executor.shutdownNow();
+        channels.clear();
+    }
+
+    private void unsubscribe(final long gameId, final GameChannel channel, final GameSubscriber subscriber) {
+        channels.computeIfPresent(gameId, (id, current) ->
+                current == channel && channel.remove(subscriber) ? null : current);
+    }
+}
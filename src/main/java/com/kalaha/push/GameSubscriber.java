@@ -0,0 +1,68 @@
+package com.kalaha.push;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sends the deltas of one channel to one sink. At most one flush is scheduled at a time, so moves
+ * made while a slow sink is still busy are coalesced into the next delta.
+ */
+final class GameSubscriber {
+
+    private final GameChannel channel;
+    private final Executor executor;
+    private final DeltaSink sink;
+    private final Runnable onClose;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean closed;
+    private long sentVersion = -1;
+
+    GameSubscriber(final GameChannel channel, final Executor executor, final DeltaSink sink,
+                   final Runnable onClose) {
+        this.channel = channel;
+        this.executor = executor;
+        this.sink = sink;
+        this.onClose = onClose;
+    }
+
+    void schedule() {
+        if (closed || !scheduled.compareAndSet(false, true))
+            return;
+        try {
+            executor.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            scheduled.set(false);
+        }
+    }
+
+    void close() {
+        if (closed)
+            return;
+        closed = true;
+        onClose.run();
+        sink.complete();
+    }
+
+    private void flush() {
+        do {
+            GameDelta delta = channel.deltaSince(sentVersion);
+            if (delta != null && !closed)
+                send(delta);
+            scheduled.set(false);
+        } while (!closed && channel.getVersion() > sentVersion && scheduled.compareAndSet(false, true));
+    }
+
+    private void send(final GameDelta delta) {
+        sentVersion = delta.getVersion();
+        try {
+            sink.send(delta);
+        } catch (IOException | RuntimeException e) {
+            close();
+            return;
+        }
+        if (delta.isGameOver())
+            close();
+    }
+}
@@ -0,0 +1,85 @@
+package com.kalaha.simulation;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+public final class GameRecordWriter implements Closeable {
+
+    static final int MAGIC = 0x4B535052;
+    static final int FORMAT_VERSION = 1;
+
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    private final BlockingQueue<byte[]> queue;
+    private final DataOutputStream out;
+    private final Thread thread;
+    private volatile IOException failure;
+
+    public GameRecordWriter(final Path file, final int pitsPerPlayer, final int stonesPerPit,
+                            final int queueCapacity) throws IOException {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(pitsPerPlayer);
+        out.writeInt(stonesPerPit);
+
+        this.thread = new Thread(this::drain, "game-record-writer");
+        thread.start();
+    }
+
+    public void write(final byte[] record) {
+        if (failure != null)
+            throw new UncheckedIOException(failure);
+        try {
+            queue.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing a game record", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            queue.put(END_OF_STREAM);
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.close();
+        if (failure != null)
+            throw failure;
+    }
+
+    private void drain() {
+        try {
+            byte[] record;
+            while ((record = queue.take()) != END_OF_STREAM) {
+                if (failure == null)
+                    writeRecord(record);
+            }
+            if (failure == null)
+                out.flush();
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeRecord(final byte[] record) {
+        try {
+            out.write(record);
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+}
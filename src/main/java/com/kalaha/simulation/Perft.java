@@ -0,0 +1,196 @@
+package com.kalaha.simulation;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Board;
+import com.kalaha.domain.BoardImpl;
+import com.kalaha.domain.PackedBoard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the move sequences of a given length from a position by making and unmaking every legal
+ * move, like perft in chess. A sequence ends early when the game is over, so the nodes are the
+ * positions after depth moves plus the games finished before. The count is divided by the first
+ * move, each searched in parallel on its own copy of the board. Every board implementation must
+ * count the same, and a change of the count after an optimization of the rules is a regression.
+ */
+public final class Perft {
+
+    private final Board start;
+
+    public Perft(final Board start) {
+        this.start = start;
+    }
+
+    public static void main(final String[] args) {
+        Map<String, String> options = parseOptions(args);
+        int pitsPerPlayer = Integer.parseInt(options.getOrDefault("pitsPerPlayer", "6"));
+        int stonesPerPit = Integer.parseInt(options.getOrDefault("stonesPerPit", "6"));
+        int depth = Integer.parseInt(options.getOrDefault("depth", "8"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        String implementation = options.getOrDefault("implementation", "array");
+
+        Perft perft = new Perft(newBoard(implementation, pitsPerPlayer, stonesPerPit));
+        PerftResult result = perft.run(depth, threads);
+
+        result.getNodesByFirstMove().forEach((move, nodes) -> System.out.printf("%4d  %d%n", move, nodes));
+        System.out.printf("Depth %d on %s boards with %d threads: %d nodes, %d extra turns, %d finished games "
+                        + "at %.0f nodes/s%n", depth, implementation, threads, result.getNodes(),
+                result.getExtraTurns(), result.getGameOvers(), result.getNodesPerSecond());
+    }
+
+    public PerftResult run(final int depth, final int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        Counts counts;
+        Map<Integer, Long> nodesByFirstMove = new LinkedHashMap<>();
+        try {
+            counts = pool.invoke(new Divide(this.start.copy(), depth, nodesByFirstMove));
+        } finally {
+            pool.shutdown();
+        }
+
+        return PerftResult.builder()
+                .depth(depth)
+                .nodes(counts.nodes)
+                .extraTurns(counts.extraTurns)
+                .gameOvers(counts.gameOvers)
+                .nodesByFirstMove(nodesByFirstMove)
+                .elapsedNanos(System.nanoTime() - start)
+                .build();
+    }
+
+    private static Counts count(final Board board, final int depth, final Counts counts) {
+        if (depth == 0 || board.isGameOver()) {
+            counts.nodes++;
+            return counts;
+        }
+
+        int firstPit = board.isSouthTurn() ? 0 : board.getIndexKalahaSouth() + 1;
+        for (int pit = firstPit; pit < firstPit + board.getIndexKalahaSouth(); pit++) {
+            if (board.isEmpty(pit))
+                continue;
+
+            makeMove(board, pit, counts);
+            count(board, depth - 1, counts);
+            board.unmakeMove();
+        }
+        return counts;
+    }
+
+    private static void makeMove(final Board board, final int pit, final Counts counts) {
+        boolean southTurn = board.isSouthTurn();
+        board.makeMove(pit);
+        if (board.isGameOver())
+            counts.gameOvers++;
+        else if (board.isSouthTurn() == southTurn)
+            counts.extraTurns++;
+    }
+
+    private static Board newBoard(final String implementation, final int pitsPerPlayer, final int stonesPerPit) {
+        if ("list".equalsIgnoreCase(implementation)) {
+            return BoardImpl.builder()
+                    .pitList(pitsPerPlayer, stonesPerPit)
+                    .southTurn(true)
+                    .build();
+        }
+        if ("packed".equalsIgnoreCase(implementation)) {
+            return PackedBoard.builder()
+                    .pits(pitsPerPlayer, stonesPerPit)
+                    .southTurn(true)
+                    .build();
+        }
+        return ArrayBoard.builder()
+                .pits(pitsPerPlayer, stonesPerPit)
+                .southTurn(true)
+                .build();
+    }
+
+    private static Map<String, String> parseOptions(final String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (separator < 0)
+                options.put(option, "true");
+            else
+                options.put(option.substring(0, separator), option.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static final class Counts {
+        private long nodes;
+        private long extraTurns;
+        private long gameOvers;
+
+        private Counts add(final Counts other) {
+            nodes += other.nodes;
+            extraTurns += other.extraTurns;
+            gameOvers += other.gameOvers;
+            return this;
+        }
+    }
+
+    private static final class Divide extends RecursiveTask<Counts> {
+        private final Board board;
+        private final int depth;
+        private final Map<Integer, Long> nodesByFirstMove;
+
+        private Divide(final Board board, final int depth, final Map<Integer, Long> nodesByFirstMove) {
+            this.board = board;
+            this.depth = depth;
+            this.nodesByFirstMove = nodesByFirstMove;
+        }
+
+        @Override
+        protected Counts compute() {
+            if (depth == 0 || board.isGameOver())
+                return count(board, depth, new Counts());
+
+            List<FirstMove> tasks = new ArrayList<>();
+            int firstPit = board.isSouthTurn() ? 0 : board.getIndexKalahaSouth() + 1;
+            for (int pit = firstPit; pit < firstPit + board.getIndexKalahaSouth(); pit++) {
+                if (board.isEmpty(pit))
+                    continue;
+                tasks.add(new FirstMove(board.copy(), pit, depth));
+            }
+            ForkJoinTask.invokeAll(tasks);
+
+            Counts total = new Counts();
+            for (FirstMove task : tasks) {
+                Counts counts = task.join();
+                nodesByFirstMove.put(task.move, counts.nodes);
+                total.add(counts);
+            }
+            return total;
+        }
+    }
+
+    private static final class FirstMove extends RecursiveTask<Counts> {
+        private final Board board;
+        private final int move;
+        private final int depth;
+
+        private FirstMove(final Board board, final int move, final int depth) {
+            this.board = board;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Counts compute() {
+            Counts counts = new Counts();
+            makeMove(board, move, counts);
+            return count(board, depth - 1, counts);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.kalaha.simulation;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Value
+@Builder
+public class PerftResult {
+    private int depth;
+    private long nodes;
+    private long extraTurns;
+    private long gameOvers;
+    private Map<Integer, Long> nodesByFirstMove;
+    private long elapsedNanos;
+
+    public double getNodesPerSecond() {
+        return nodes * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsedNanos);
+    }
+}
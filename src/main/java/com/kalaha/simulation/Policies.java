@@ -0,0 +1,100 @@
+package com.kalaha.simulation;
+
+import com.kalaha.domain.Board;
+import com.kalaha.engine.AlphaBetaEngine;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+public final class Policies {
+
+    private Policies() {
+    }
+
+    public static Supplier<Policy> byName(final String name) {
+        if ("random".equals(name))
+            return Policies::random;
+        if ("greedy".equals(name))
+            return Policies::greedy;
+        if (name.startsWith("search:")) {
+            int depth = Integer.parseInt(name.substring("search:".length()));
+            return () -> search(depth);
+        }
+        throw new IllegalArgumentException(String.format("Unknown policy %s, expected random, greedy or "
+                + "search:<depth>", name));
+    }
+
+    public static Policy random() {
+        return board -> {
+            int firstPit = firstPit(board);
+            int pitsPerPlayer = board.getIndexKalahaSouth();
+            int offset = ThreadLocalRandom.current().nextInt(pitsPerPlayer);
+            for (int i = 0; i < pitsPerPlayer; i++) {
+                int pit = firstPit + (offset + i) % pitsPerPlayer;
+                if (!board.isEmpty(pit))
+                    return pit;
+            }
+            throw new IllegalStateException("There is no move left to choose");
+        };
+    }
+
+    public static Policy greedy() {
+        return board -> {
+            int firstPit = firstPit(board);
+            int pitsPerPlayer = board.getIndexKalahaSouth();
+            int offset = ThreadLocalRandom.current().nextInt(pitsPerPlayer);
+            int bestMove = -1;
+            int bestGain = Integer.MIN_VALUE;
+            for (int i = 0; i < pitsPerPlayer; i++) {
+                int pit = firstPit + (offset + i) % pitsPerPlayer;
+                if (board.isEmpty(pit))
+                    continue;
+                int gain = gainOf(board, pit);
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    bestMove = pit;
+                }
+            }
+            return bestMove;
+        };
+    }
+
+    /**
+     * Searches on the thread of the player, which the engine does without a pool at a parallelism
+     * of one. The engine is closed with the policy all the same.
+     */
+    public static Policy search(final int depth) {
+        AlphaBetaEngine engine = AlphaBetaEngine.builder()
+                .maxDepth(depth)
+                .timeBudgetMillis(24 * 60 * 60 * 1000L)
+                .parallelism(1)
+                .transpositionTableEntries(1 << 16)
+                .build();
+        return new Policy() {
+            @Override
+            public int chooseMove(final Board board) {
+                return engine.search(board).getMove();
+            }
+
+            @Override
+            public void close() {
+                engine.close();
+            }
+        };
+    }
+
+    private static int gainOf(final Board board, final int pit) {
+        int ownKalaha = board.isSouthTurn() ? board.getIndexKalahaSouth() : board.getIndexKalahaNorth();
+        int stonesBefore = board.getStonesInPit(ownKalaha);
+        boolean southTurn = board.isSouthTurn();
+        board.makeMove(pit);
+        int extraTurn = !board.isGameOver() && board.isSouthTurn() == southTurn ? 1 : 0;
+        int gain = 2 * (board.getStonesInPit(ownKalaha) - stonesBefore) + extraTurn;
+        board.unmakeMove();
+        return gain;
+    }
+
+    private static int firstPit(final Board board) {
+        return board.isSouthTurn() ? 0 : board.getIndexKalahaSouth() + 1;
+    }
+}
@@ -0,0 +1,17 @@
+package com.kalaha.simulation;
+
+import com.kalaha.domain.Board;
+
+/**
+ * Chooses the moves of one player. A policy is used by one thread and closed by it once its games
+ * are played.
+ */
+@FunctionalInterface
+public interface Policy extends AutoCloseable {
+
+    int chooseMove(Board board);
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,25 @@
+package com.kalaha.simulation;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.concurrent.TimeUnit;
+
+@Value
+@Builder
+public class SelfPlayResult {
+    private int threads;
+    private long games;
+    private long winsSouth;
+    private long winsNorth;
+    private long moves;
+    private long elapsedNanos;
+
+    public long getTies() {
+        return games - winsSouth - winsNorth;
+    }
+
+    public double getGamesPerSecond() {
+        return games * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+}
@@ -0,0 +1,200 @@
+package com.kalaha.simulation;
+
+import com.kalaha.domain.ArrayBoard;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public final class SelfPlayRunner {
+
+    private static final int GAMES_PER_TASK = 64;
+
+    private final int pitsPerPlayer;
+    private final int stonesPerPit;
+    private final Supplier<Policy> southPolicy;
+    private final Supplier<Policy> northPolicy;
+
+    public SelfPlayRunner(final int pitsPerPlayer, final int stonesPerPit,
+                          final Supplier<Policy> southPolicy, final Supplier<Policy> northPolicy) {
+        this.pitsPerPlayer = pitsPerPlayer;
+        this.stonesPerPit = stonesPerPit;
+        this.southPolicy = southPolicy;
+        this.northPolicy = northPolicy;
+    }
+
+    public static void main(final String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        int pitsPerPlayer = Integer.parseInt(options.getOrDefault("pitsPerPlayer", "6"));
+        int stonesPerPit = Integer.parseInt(options.getOrDefault("stonesPerPit", "6"));
+        long games = Long.parseLong(options.getOrDefault("games", "100000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        SelfPlayRunner runner = new SelfPlayRunner(pitsPerPlayer, stonesPerPit,
+                Policies.byName(options.getOrDefault("south", "greedy")),
+                Policies.byName(options.getOrDefault("north", "random")));
+
+        if (options.containsKey("scaling")) {
+            System.out.println("threads  games/s");
+            for (int t = 1; t <= threads; t *= 2) {
+                SelfPlayResult result = runner.run(games, t, null);
+                System.out.printf("%7d  %.0f%n", t, result.getGamesPerSecond());
+            }
+            return;
+        }
+
+        Path file = Paths.get(options.getOrDefault("output", "games.bin"));
+        SelfPlayResult result;
+        try (GameRecordWriter writer = new GameRecordWriter(file, pitsPerPlayer, stonesPerPit, 1 << 14)) {
+            result = runner.run(games, threads, writer);
+        }
+        System.out.printf("Played %d games (%d moves) on %d threads at %.0f games/s: south %d, north %d, "
+                        + "tie %d, written to %s%n", result.getGames(), result.getMoves(), threads,
+                result.getGamesPerSecond(), result.getWinsSouth(), result.getWinsNorth(), result.getTies(),
+                file.toAbsolutePath());
+    }
+
+    public SelfPlayResult run(final long games, final int threads, final GameRecordWriter writer) {
+        Statistics statistics = new Statistics();
+        Queue<Worker> created = new ConcurrentLinkedQueue<>();
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(() -> {
+            Worker worker = new Worker();
+            created.add(worker);
+            return worker;
+        });
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            pool.invoke(new PlayGames(0, games, workers, writer, statistics));
+        } finally {
+            pool.shutdown();
+            created.forEach(Worker::close);
+        }
+
+        return SelfPlayResult.builder()
+                .threads(threads)
+                .games(games)
+                .winsSouth(statistics.winsSouth.sum())
+                .winsNorth(statistics.winsNorth.sum())
+                .moves(statistics.moves.sum())
+                .elapsedNanos(System.nanoTime() - start)
+                .build();
+    }
+
+    private static Map<String, String> parseOptions(final String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (separator < 0)
+                options.put(option, "true");
+            else
+                options.put(option.substring(0, separator), option.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static final class Statistics {
+        private final LongAdder winsSouth = new LongAdder();
+        private final LongAdder winsNorth = new LongAdder();
+        private final LongAdder moves = new LongAdder();
+    }
+
+    private final class Worker {
+        private final int[] initialPits;
+        private final ArrayBoard board;
+        private final Policy south = southPolicy.get();
+        private final Policy north = northPolicy.get();
+        private byte[] moves = new byte[256];
+
+        private Worker() {
+            ArrayBoard initialBoard = ArrayBoard.builder()
+                    .pits(pitsPerPlayer, stonesPerPit)
+                    .southTurn(true)
+                    .build();
+            this.initialPits = initialBoard.getPitList().stream().mapToInt(Integer::intValue).toArray();
+            this.board = initialBoard;
+        }
+
+        private void close() {
+            south.close();
+            north.close();
+        }
+
+        private void playGame(final GameRecordWriter writer, final Statistics statistics) {
+            board.load(initialPits, true);
+            int count = 0;
+            while (!board.isGameOver()) {
+                int move = (board.isSouthTurn() ? south : north).chooseMove(board);
+                if (count == moves.length)
+                    moves = Arrays.copyOf(moves, 2 * count);
+                moves[count++] = (byte) move;
+                board.makeMove(move);
+            }
+
+            int kalahaSouth = board.getStonesInPit(board.getIndexKalahaSouth());
+            int kalahaNorth = board.getStonesInPit(board.getIndexKalahaNorth());
+            if (kalahaSouth > kalahaNorth)
+                statistics.winsSouth.increment();
+            else if (kalahaNorth > kalahaSouth)
+                statistics.winsNorth.increment();
+            statistics.moves.add(count);
+
+            if (writer != null)
+                writer.write(record(count, kalahaSouth, kalahaNorth));
+        }
+
+        private byte[] record(final int count, final int kalahaSouth, final int kalahaNorth) {
+            byte[] record = new byte[count + 6];
+            record[0] = (byte) (count >>> 8);
+            record[1] = (byte) count;
+            System.arraycopy(moves, 0, record, 2, count);
+            record[count + 2] = (byte) (kalahaSouth >>> 8);
+            record[count + 3] = (byte) kalahaSouth;
+            record[count + 4] = (byte) (kalahaNorth >>> 8);
+            record[count + 5] = (byte) kalahaNorth;
+            return record;
+        }
+    }
+
+    private final class PlayGames extends RecursiveAction {
+        private final long from;
+        private final long to;
+        private final ThreadLocal<Worker> workers;
+        private final GameRecordWriter writer;
+        private final Statistics statistics;
+
+        private PlayGames(final long from, final long to, final ThreadLocal<Worker> workers,
+                          final GameRecordWriter writer, final Statistics statistics) {
+            this.from = from;
+            this.to = to;
+            this.workers = workers;
+            this.writer = writer;
+            this.statistics = statistics;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                Worker worker = workers.get();
+                for (long game = from; game < to; game++) {
+                    worker.playGame(writer, statistics);
+                }
+                return;
+            }
+            long middle = (from + to) >>> 1;
+            invokeAll(new PlayGames(from, middle, workers, writer, statistics),
+                    new PlayGames(middle, to, workers, writer, statistics));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.kalaha.store;
+
+import com.kalaha.domain.GameSnapshot;
+import com.kalaha.domain.PositionCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Keeps every hibernated game in a file of its own, named after its id. The position is stored
+ * in the encoding of {@link PositionCodec}, 13 bytes for the standard board, after a 17 byte
+ * header. A file is forced to disk before it replaces the previous one atomically, so a crash
+ * leaves either hibernation intact. The file is deleted once the game is loaded again.
+ */
+final class GameHibernator {
+
+    static final int MAGIC = 0x4B484942;
+    private static final int HEADER_SIZE = 17;
+
+    private final Path directory;
+
+    GameHibernator(final Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    void write(final GameSnapshot snapshot) throws IOException {
+        int[] pits = snapshot.getPits();
+        int pitsPerPlayer = snapshot.getIndexKalahaSouth();
+        int totalStones = Arrays.stream(pits).sum();
+        PositionCodec codec = new PositionCodec(pitsPerPlayer, totalStones);
+        byte[] position = codec.toBytes(codec.pack(pits, snapshot.isSouthTurn()));
+
+        byte[] content = ByteBuffer.allocate(HEADER_SIZE + position.length)
+                .putInt(MAGIC)
+                .putLong(snapshot.getVersion())
+                .putShort((short) pitsPerPlayer)
+                .putShort((short) totalStones)
+                .put((byte) (snapshot.isComputerNorth() ? 1 : 0))
+                .put(position)
+                .array();
+        Path file = fileOf(snapshot.getId());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    GameSnapshot read(final long id) throws IOException {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(fileOf(id));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        if (content.length < HEADER_SIZE || buffer.getInt() != MAGIC)
+            throw new IOException(String.format("%s is not a hibernated game", fileOf(id)));
+        long version = buffer.getLong();
+        PositionCodec codec = new PositionCodec(buffer.getShort(), buffer.getShort());
+        boolean computerNorth = buffer.get() == 1;
+        buffer.position(HEADER_SIZE);
+        byte[] position = new byte[buffer.remaining()];
+        buffer.get(position);
+
+        int[] pits = new int[codec.getPitCount()];
+        boolean southTurn = codec.unpack(codec.fromBytes(position), pits);
+        return GameSnapshot.builder()
+                .id(id)
+                .version(version)
+                .computerNorth(computerNorth)
+                .southTurn(southTurn)
+                .gameOver(isGameOver(pits))
+                .pits(pits)
+                .build();
+    }
+
+    void delete(final long id) throws IOException {
+        Files.deleteIfExists(fileOf(id));
+    }
+
+    private static boolean isGameOver(final int[] pits) {
+        int kalahaSouth = pits.length / 2 - 1;
+        int stonesSouth = 0;
+        int stonesNorth = 0;
+        for (int pit = 0; pit < pits.length - 1; pit++) {
+            if (pit < kalahaSouth)
+                stonesSouth += pits[pit];
+            else if (pit > kalahaSouth)
+                stonesNorth += pits[pit];
+        }
+        return stonesSouth == 0 || stonesNorth == 0;
+    }
+
+    private Path fileOf(final long id) {
+        return directory.resolve(Long.toHexString(id) + ".game");
+    }
+}
@@ -0,0 +1,179 @@
+package com.kalaha.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheWriter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.kalaha.domain.Game;
+import com.kalaha.domain.GameSnapshot;
+import com.kalaha.domain.GameStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Keeps the games that fit a memory budget and were played recently, chosen by the W-TinyLFU
+ * policy of Caffeine. Games that are evicted or stay idle are written to disk while the cache
+ * removes them, so a request for the same game waits for the file and loads it again. The file
+ * is deleted once the game is loaded, and finished games are dropped instead of hibernated, so
+ * the directory only holds the games that are neither in memory nor finished. Ids without a file
+ * are remembered, so requests for unknown games do not read the disk each time.
+ */
+@Slf4j
+public final class HibernatingGameStore implements GameStore, Closeable {
+
+    /**
+     * Rough footprint of a game on the heap, measured at about 780 bytes plus 8 per pit: the game
+     * and its board with changed pits and undo stack, the copy of both published to readers, which
+     * has no undo stack, and the cache entry holding it. The rest allows for the undo stack of a
+     * game some 30 moves in. Each pit is an int in the board and another in the published copy.
+     */
+    static final int BYTES_PER_GAME = 1152;
+    static final int BYTES_PER_PIT = 8;
+    static final int MISSING_ENTRIES = 10_000;
+
+    private final GameHibernator hibernator;
+    private final Cache<Long, Game> games;
+    private final Cache<Long, Boolean> missing = Caffeine.newBuilder().maximumSize(MISSING_ENTRIES).build();
+    private final Timer rehydrationTimer;
+    private final Counter hibernations;
+
+    public HibernatingGameStore(final Path directory, final long memoryBudgetBytes, final long idleSeconds,
+                                final MeterRegistry meterRegistry) throws IOException {
+        this(directory, memoryBudgetBytes, idleSeconds, meterRegistry, Ticker.systemTicker(),
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Takes the clock and the executor that evicts, and so hibernates, the games, which tests run
+     * on their own thread.
+     */
+    HibernatingGameStore(final Path directory, final long memoryBudgetBytes, final long idleSeconds,
+                         final MeterRegistry meterRegistry, final Ticker ticker, final Executor executor)
+            throws IOException {
+        this.hibernator = new GameHibernator(directory);
+        this.games = Caffeine.newBuilder()
+                .ticker(ticker)
+                .executor(executor)
+                .maximumWeight(memoryBudgetBytes)
+                .weigher((Long id, Game game) -> BYTES_PER_GAME
+                        + BYTES_PER_PIT * (game.getBoard().getIndexKalahaNorth() + 1))
+                .expireAfterAccess(idleSeconds, TimeUnit.SECONDS)
+                .writer(new CacheWriter<Long, Game>() {
+                    @Override
+                    public void write(final Long id, final Game game) {
+                    }
+
+                    @Override
+                    public void delete(final Long id, final Game game, final RemovalCause cause) {
+                        if (cause.wasEvicted())
+                            hibernate(game);
+                    }
+                })
+                .recordStats()
+                .build();
+        this.rehydrationTimer = Timer.builder("kalaha.store.rehydration")
+                .description("Time to load a hibernated game from disk")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.hibernations = meterRegistry.counter("kalaha.store.hibernations");
+        CaffeineCacheMetrics.monitor(meterRegistry, games, "games");
+    }
+
+    @Override
+    public Game get(final long id, final Function<GameSnapshot, Game> rehydrate) {
+        return games.get(id, key -> {
+            if (missing.getIfPresent(key) != null)
+                return null;
+            return rehydrationTimer.record(() -> {
+                GameSnapshot snapshot = read(key);
+                if (snapshot == null) {
+                    missing.put(key, Boolean.TRUE);
+                    return null;
+                }
+                Game game = rehydrate.apply(snapshot);
+                delete(key);
+                return game;
+            });
+        });
+    }
+
+    @Override
+    public boolean putIfAbsent(final Game game) {
+        missing.invalidate(game.getId());
+        return games.asMap().putIfAbsent(game.getId(), game) == null;
+    }
+
+    @Override
+    public void put(final Game game) {
+        missing.invalidate(game.getId());
+        games.put(game.getId(), game);
+    }
+
+    @Override
+    public void forEach(final Consumer<Game> action) {
+        games.asMap().values().forEach(action);
+    }
+
+    @Override
+    public int size() {
+        return games.asMap().size();
+    }
+
+    /**
+     * Writes the games still in memory to disk, so they survive a restart like the hibernated ones.
+     */
+    @Override
+    public void close() {
+        games.cleanUp();
+        games.asMap().values().forEach(this::hibernate);
+    }
+
+    void cleanUp() {
+        games.cleanUp();
+    }
+
+    private void hibernate(final Game game) {
+        try {
+            GameSnapshot snapshot = game.hibernate();
+            if (snapshot.isGameOver()) {
+                hibernator.delete(snapshot.getId());
+                return;
+            }
+            hibernator.write(snapshot);
+            missing.invalidate(snapshot.getId());
+            hibernations.increment();
+        } catch (IOException e) {
+            log.error("Game {} could not be hibernated and is lost", game.getId(), e);
+        }
+    }
+
+    private void delete(final long id) {
+        try {
+            hibernator.delete(id);
+        } catch (IOException e) {
+            log.warn("Hibernation file of game {} could not be deleted", id, e);
+        }
+    }
+
+    private GameSnapshot read(final long id) {
+        try {
+            return hibernator.read(id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.kalaha.api;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Game;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameStateTest {
+
+    @Test
+    @DisplayName("of copies the board and lists the non-empty pits of the player to move")
+    void of() {
+        Game game = gameWith(new int[]{0, 2, 0, 1, 5, 1, 0, 2, 2, 2}, false);
+        game.setVersion(7);
+
+        GameState subject = GameState.of(game.snapshot(), null);
+        game.play(5);
+
+        assertThat(subject.getVersion()).isEqualTo(7);
+        assertThat(subject.getPits()).containsExactly(0, 2, 0, 1, 5, 1, 0, 2, 2, 2);
+        assertThat(subject.getLegalMoves()).containsExactly(5, 7, 8);
+        assertThat(subject.getWinner()).isNull();
+    }
+
+    @Test
+    @DisplayName("a finished game has no legal moves and names the winner")
+    void gameOver() {
+        GameState subject = GameState.of(gameWith(new int[]{0, 0, 0, 0, 20, 1, 2, 0, 0, 25}, true).snapshot(), null);
+
+        assertThat(subject.isGameOver()).isTrue();
+        assertThat(subject.getLegalMoves()).isEmpty();
+        assertThat(subject.getWinner()).isEqualTo("north");
+    }
+
+    private static Game gameWith(final int[] pits, final boolean southTurn) {
+        return Game.builder()
+                .board(ArrayBoard.builder().pits(pits).southTurn(southTurn).build())
+                .build();
+    }
+}
@@ -0,0 +1,393 @@
+package com.kalaha.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArrayBoardTest {
+    private Board subject;
+
+    @BeforeEach
+    void init() {
+        subject = ArrayBoard.builder()
+                .pits(6, 6)
+                .southTurn(true)
+                .build();
+    }
+
+    @Test
+    @DisplayName("A new board should have a correct pitList and southTurn set to true")
+    void getPitListNewBoard() {
+        List<Integer> expectedList = Arrays.asList(6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0);
+
+        List<Integer> result = subject.getPitList();
+
+        assertThat(result).isEqualTo(expectedList);
+        assertThat(subject.isSouthTurn()).isTrue();
+    }
+
+    @Test
+    @DisplayName("getPitList returns a read-only view")
+    void getPitListIsReadOnly() {
+        assertThatThrownBy(() -> subject.getPitList().set(0, 1))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("getPitList reflects moves without being requested again")
+    void getPitListIsAView() {
+        List<Integer> view = subject.getPitList();
+
+        subject.makeMove(0);
+
+        assertThat(view).containsExactly(0, 7, 7, 7, 7, 7, 1, 6, 6, 6, 6, 6, 6, 0);
+    }
+
+    @Test
+    @DisplayName("getStonesInPit returns the stones of a single pit")
+    void getStonesInPit() {
+        subject.makeMove(2);
+
+        assertThat(subject.getStonesInPit(2)).isZero();
+        assertThat(subject.getStonesInPit(6)).isEqualTo(1);
+    }
+
+    @Nested
+    class MakeMove {
+        @Test
+        @DisplayName("returns correct pitList after single move of player south")
+        void singleMoveSouth() {
+            List<Integer> givenList = Arrays.asList(0, 1, 8, 8, 8, 8, 2, 6, 0, 7, 7, 8, 8, 1);
+            List<Integer> expectedList = Arrays.asList(0, 0, 9, 8, 8, 8, 2, 6, 0, 7, 7, 8, 8, 1);
+            subject = boardWith(givenList);
+
+            subject.makeMove(1);
+
+            assertThat(subject.getPitList()).isEqualTo(expectedList);
+        }
+
+        @Test
+        @DisplayName("returns correct pitList after single move of player north")
+        void singleMoveNorth() {
+            List<Integer> expectedList = Arrays.asList(7, 7, 7, 7, 7, 7, 0, 0, 7, 7, 7, 7, 0, 2);
+
+            subject.setSouthTurn(false);
+            subject.makeMove(7);
+            subject.makeMove(12);
+
+            assertThat(subject.getPitList()).isEqualTo(expectedList);
+        }
+
+        @Test
+        @DisplayName("returns correct pitList after multiple moves")
+        void multipleMoves() {
+            List<Integer> expectedList = Arrays.asList(2, 1, 9, 9, 8, 8, 2, 0, 0, 8, 8, 8, 8, 1);
+
+            subject.makeMove(0);
+            subject.makeMove(1);
+            subject.makeMove(7);
+            subject.makeMove(8);
+
+            assertThat(subject.getPitList()).isEqualTo(expectedList);
+        }
+
+        @Test
+        @DisplayName("skips kalaha opponent when player south plays")
+        void skipKalahaOpponentSouth() {
+            List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 6, 8, 0, 6, 6, 6, 6, 6, 6, 0);
+            List<Integer> expectedList = Arrays.asList(7, 6, 6, 6, 6, 0, 1, 7, 7, 7, 7, 7, 7, 0);
+            subject = boardWith(givenList);
+
+            subject.makeMove(5);
+
+            assertThat(subject.getPitList()).isEqualTo(expectedList);
+        }
+
+        @Test
+        @DisplayName("skips kalaha opponent when player north plays")
+        void skipKalahaOpponentNorth() {
+            List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 8, 0);
+            List<Integer> expectedList = Arrays.asList(7, 7, 7, 7, 7, 7, 0, 7, 6, 6, 6, 6, 0, 1);
+            subject = boardWith(givenList);
+            subject.setSouthTurn(false);
+
+            subject.makeMove(12);
+
+            assertThat(subject.getPitList()).isEqualTo(expectedList);
+        }
+
+        @Test
+        @DisplayName("keeps all stones when sowing a full lap around the board")
+        void sowFullLap() {
+            List<Integer> givenList = Arrays.asList(6, 14, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0);
+            List<Integer> expectedList = Arrays.asList(7, 1, 8, 7, 7, 7, 1, 7, 7, 7, 7, 7, 7, 0);
+            subject = boardWith(givenList);
+
+            subject.makeMove(1);
+
+            assertThat(subject.getPitList()).isEqualTo(expectedList);
+        }
+
+        @Test
+        @DisplayName("sows several laps around the board from a single pit")
+        void sowSeveralLaps() {
+            List<Integer> givenList = Arrays.asList(0, 0, 0, 0, 0, 30, 0, 0, 0, 0, 0, 0, 0, 0);
+            List<Integer> expectedList = Arrays.asList(2, 2, 2, 2, 2, 2, 3, 3, 3, 3, 2, 2, 2, 0);
+            subject = boardWith(givenList);
+
+            subject.makeMove(5);
+
+            assertThat(subject.getPitList()).isEqualTo(expectedList);
+            assertThat(subject.isSouthTurn()).isFalse();
+        }
+
+        @Test
+        @DisplayName("does not switch turn when last stone lands in own kalaha")
+        void notSwitchTurn() {
+            List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 6, 1, 0, 6, 6, 6, 6, 6, 6, 0);
+            List<Integer> expectedList = Arrays.asList(6, 6, 6, 6, 6, 0, 1, 6, 6, 6, 6, 6, 6, 0);
+            subject = boardWith(givenList);
+
+            assertThat(subject.isSouthTurn()).isTrue();
+
+            subject.makeMove(5);
+
+            assertThat(subject.isSouthTurn()).isTrue();
+            assertThat(subject.getPitList()).isEqualTo(expectedList);
+        }
+
+        @Test
+        @DisplayName("does switch turn when last stone lands not in own kalaha")
+        void switchTurn() {
+            List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 6, 2, 0, 6, 6, 6, 6, 6, 6, 0);
+            List<Integer> expectedList = Arrays.asList(6, 6, 6, 6, 6, 0, 1, 7, 6, 6, 6, 6, 6, 0);
+            subject = boardWith(givenList);
+
+            assertThat(subject.isSouthTurn()).isTrue();
+
+            subject.makeMove(5);
+
+            assertThat(subject.isSouthTurn()).isFalse();
+            assertThat(subject.getPitList()).isEqualTo(expectedList);
+        }
+
+        @Test
+        @DisplayName("does capture when last stone lands in own empty pit")
+        void capture() {
+            List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 1, 0, 0, 6, 6, 6, 6, 6, 6, 0);
+            List<Integer> expectedList = Arrays.asList(6, 6, 6, 6, 0, 0, 7, 0, 6, 6, 6, 6, 6, 0);
+            subject = boardWith(givenList);
+
+            subject.makeMove(4);
+
+            assertThat(subject.getPitList()).isEqualTo(expectedList);
+        }
+
+        @Test
+        @DisplayName("keeps the totals of both rows up to date after a capture")
+        void totalsAfterCapture() {
+            List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 1, 0, 0, 6, 6, 6, 6, 6, 6, 0);
+            subject = boardWith(givenList);
+
+            subject.makeMove(4);
+
+            assertThat(subject.getTotalStonesInPitsSouth()).isEqualTo(24);
+            assertThat(subject.getTotalStonesInPitsNorth()).isEqualTo(30);
+        }
+
+        @Test
+        @DisplayName("empties the totals of both rows when the last stones are collected")
+        void totalsAfterCollect() {
+            List<Integer> givenList = Arrays.asList(0, 0, 0, 0, 0, 1, 5, 5, 6, 6, 6, 6, 6, 10);
+            subject = boardWith(givenList);
+
+            subject.makeMove(5);
+
+            assertThat(subject.getTotalStonesInPitsSouth()).isZero();
+            assertThat(subject.getTotalStonesInPitsNorth()).isZero();
+        }
+
+        @Test
+        @DisplayName("does collect last stones when south runs out of stones")
+        void noStonesLeftSouthCollect() {
+            List<Integer> givenList = Arrays.asList(0, 0, 0, 0, 0, 1, 5, 5, 6, 6, 6, 6, 6, 10);
+            List<Integer> expectedList = Arrays.asList(0, 0, 0, 0, 0, 0, 6, 0, 0, 0, 0, 0, 0, 45);
+            subject = boardWith(givenList);
+
+            subject.makeMove(5);
+
+            assertThat(subject.isGameOver()).isTrue();
+            assertThat(subject.getPitList()).isEqualTo(expectedList);
+        }
+
+        @Test
+        @DisplayName("does collect last stones when north runs out of stones")
+        void noStonesLeftNortCollect() {
+            List<Integer> givenList = Arrays.asList(5, 6, 6, 6, 6, 6, 10, 0, 0, 0, 0, 0, 1, 5);
+            List<Integer> expectedList = Arrays.asList(0, 0, 0, 0, 0, 0, 45, 0, 0, 0, 0, 0, 0, 6);
+            subject = boardWith(givenList);
+
+            subject.setSouthTurn(false);
+            subject.makeMove(12);
+
+            assertThat(subject.isGameOver()).isTrue();
+            assertThat(subject.getPitList()).isEqualTo(expectedList);
+        }
+    }
+
+    @Test
+    @DisplayName("getZobristKey is kept equal to the key of a freshly built board")
+    void getZobristKeyIsIncremental() {
+        subject.makeMove(0);
+        subject.makeMove(1);
+        subject.makeMove(7);
+        Board rebuilt = boardWith(subject.getPitList());
+        rebuilt.setSouthTurn(subject.isSouthTurn());
+
+        assertThat(subject.getZobristKey()).isEqualTo(rebuilt.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("getZobristKey differs between positions and between players to move")
+    void getZobristKeyDiffers() {
+        long initialKey = subject.getZobristKey();
+        Board otherPlayer = subject.copy();
+        otherPlayer.setSouthTurn(false);
+
+        subject.makeMove(0);
+
+        assertThat(subject.getZobristKey()).isNotEqualTo(initialKey);
+        assertThat(otherPlayer.getZobristKey()).isNotEqualTo(initialKey);
+    }
+
+    @Test
+    @DisplayName("copy keeps the row totals and the key, and plays on without changing the source")
+    void copy() {
+        subject.makeMove(0);
+        subject.makeMove(1);
+
+        Board copy = subject.copy();
+        copy.makeMove(7);
+        Board rebuilt = boardWith(copy.getPitList());
+        rebuilt.setSouthTurn(copy.isSouthTurn());
+
+        assertThat(copy.getZobristKey()).isEqualTo(rebuilt.getZobristKey());
+        assertThat(copy.getTotalStonesInPitsSouth()).isEqualTo(rebuilt.getTotalStonesInPitsSouth());
+        assertThat(copy.getTotalStonesInPitsNorth()).isEqualTo(rebuilt.getTotalStonesInPitsNorth());
+        assertThat(copy.canUnmakeMove()).isTrue();
+        assertThat(subject.getPitList()).containsExactly(0, 0, 8, 8, 8, 8, 2, 7, 7, 6, 6, 6, 6, 0);
+    }
+
+    @Test
+    @DisplayName("forEachPitChangedByLastMove visits only the pits changed by the last move")
+    void forEachPitChangedByLastMove() {
+        List<Integer> changedPits = new ArrayList<>();
+        subject.makeMove(0);
+        subject.makeMove(1);
+
+        subject.forEachPitChangedByLastMove(changedPits::add);
+
+        assertThat(changedPits).containsExactly(1, 2, 3, 4, 5, 6, 7, 8);
+    }
+
+    @Test
+    @DisplayName("getIndexKalahaSouth returns correct index")
+    void getIndexKalahaSouth() {
+        int expectedIndex = 6;
+
+        int result = subject.getIndexKalahaSouth();
+
+        assertThat(result).isEqualTo(expectedIndex);
+    }
+
+    @Test
+    @DisplayName("getIndexKalahaNorth returns correct index")
+    void getIndexKalahaNorth() {
+        int expectedIndex = 13;
+
+        int result = subject.getIndexKalahaNorth();
+
+        assertThat(result).isEqualTo(expectedIndex);
+    }
+
+    @Test
+    @DisplayName("isEmpty returns true if pit is empty")
+    void isEmpty() {
+        subject.makeMove(4);
+
+        assertThat(subject.isEmpty(4)).isTrue();
+    }
+
+    @Test
+    @DisplayName("isEmpty returns false if pit is not empty")
+    void isNotEmpty() {
+        List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 1, 0, 0, 6, 6, 6, 6, 6, 6, 0);
+        subject = boardWith(givenList);
+
+        subject.makeMove(0);
+
+        assertThat(subject.isEmpty(1)).isFalse();
+    }
+
+    @Nested
+    class GameOver {
+        @Test
+        @DisplayName("returns true if player south has no stones left")
+        void noStonesPlayerSouth() {
+            List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 6, 5, 5, 0, 0, 0, 0, 0, 0, 47);
+            subject = boardWith(givenList);
+
+            boolean result = subject.isGameOver();
+
+            assertThat(result).isTrue();
+        }
+
+        @Test
+        @DisplayName("returns true if player north has no stones left")
+        void noStonesPlayerNorth() {
+            List<Integer> givenList = Arrays.asList(0, 0, 0, 0, 0, 0, 5, 5, 6, 6, 6, 6, 6, 47);
+            subject = boardWith(givenList);
+
+            boolean result = subject.isGameOver();
+
+            assertThat(result).isTrue();
+        }
+
+        @Test
+        @DisplayName("returns false if player south has stones left")
+        void stonesLeftPlayerSouth() {
+            List<Integer> givenList = Arrays.asList(0, 0, 8, 8, 8, 8, 2, 7, 7, 6, 6, 6, 6, 0);
+            subject = boardWith(givenList);
+
+            boolean result = subject.isGameOver();
+
+            assertThat(result).isFalse();
+        }
+
+        @Test
+        @DisplayName("returns false if player north has stones left")
+        void stonesLeftPlayerNorth() {
+            List<Integer> givenList = Arrays.asList(0, 0, 8, 8, 8, 8, 2, 7, 7, 6, 6, 6, 6, 0);
+            subject = boardWith(givenList);
+
+            boolean result = subject.isGameOver();
+
+            assertThat(result).isFalse();
+        }
+    }
+
+    private Board boardWith(List<Integer> pitList) {
+        return ArrayBoard.builder()
+                .pits(pitList.stream().mapToInt(Integer::intValue).toArray())
+                .southTurn(true)
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.kalaha.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchBoardTest {
+
+    @Test
+    @DisplayName("random games are played on every board of the batch exactly like on ArrayBoards")
+    void playsLikeArrayBoards() {
+        Random random = new Random(11);
+        for (int pitsPerPlayer = 1; pitsPerPlayer <= 8; pitsPerPlayer++) {
+            Board[] expected = new Board[64];
+            BatchBoard subject = new BatchBoard(pitsPerPlayer, expected.length);
+            for (int b = 0; b < expected.length; b++) {
+                expected[b] = ArrayBoard.builder().pits(pitsPerPlayer, 1 + random.nextInt(12)).southTurn(true).build();
+                subject.add(expected[b]);
+            }
+
+            int[] moves = new int[expected.length];
+            boolean[] gameOver = new boolean[expected.length];
+            while (subject.findGameOver(gameOver) < expected.length) {
+                for (int b = 0; b < expected.length; b++) {
+                    moves[b] = gameOver[b] || random.nextInt(4) == 0 ? BatchBoard.NO_MOVE : randomMove(expected[b], random);
+                    if (moves[b] != BatchBoard.NO_MOVE)
+                        expected[b].makeMove(moves[b]);
+                }
+                subject.makeMoves(moves);
+
+                for (int b = 0; b < expected.length; b++) {
+                    Board board = subject.toBoard(b);
+                    assertThat(board.getPitList()).isEqualTo(expected[b].getPitList());
+                    assertThat(board.isSouthTurn()).isEqualTo(expected[b].isSouthTurn());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("exportTo should load the position of a board into another board")
+    void exportTo() {
+        Board source = PackedBoard.builder().pits(6, 6).southTurn(true).build();
+        source.makeMove(2);
+        BatchBoard subject = new BatchBoard(6, 4);
+        int index = subject.add(source);
+        Board target = ArrayBoard.builder().pits(6, 6).southTurn(true).build();
+
+        subject.exportTo(index, target);
+
+        assertThat(target.getPitList()).isEqualTo(source.getPitList());
+        assertThat(target.isSouthTurn()).isEqualTo(source.isSouthTurn());
+        assertThat(target.getZobristKey()).isEqualTo(source.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("copyFrom should restore the boards of another batch")
+    void copyFrom() {
+        Board board = ArrayBoard.builder().pits(6, 4).southTurn(true).build();
+        BatchBoard source = new BatchBoard(6, 4);
+        source.add(board);
+        BatchBoard subject = new BatchBoard(6, 4);
+        subject.copyFrom(source);
+
+        subject.makeMoves(new int[]{2});
+        subject.copyFrom(source);
+
+        assertThat(subject.size()).isEqualTo(1);
+        assertThat(subject.toBoard(0).getPitList()).isEqualTo(board.getPitList());
+        assertThat(subject.isSouthTurn(0)).isTrue();
+        assertThatThrownBy(() -> subject.copyFrom(new BatchBoard(6, 8)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("add should reject boards of another size and a full batch")
+    void addRejectsBoards() {
+        BatchBoard subject = new BatchBoard(6, 1);
+        subject.add(ArrayBoard.builder().pits(6, 6).southTurn(true).build());
+
+        assertThatThrownBy(() -> subject.add(ArrayBoard.builder().pits(6, 6).southTurn(true).build()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> subject.load(0, ArrayBoard.builder().pits(4, 6).southTurn(true).build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Board has 10 pits, the batch 14");
+    }
+
+    private static int randomMove(final Board board, final Random random) {
+        int offset = board.isSouthTurn() ? 0 : board.getIndexKalahaSouth() + 1;
+        int move;
+        do {
+            move = offset + random.nextInt(board.getIndexKalahaSouth());
+        } while (board.isEmpty(move));
+        return move;
+    }
+}
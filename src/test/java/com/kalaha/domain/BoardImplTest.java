@@ -5,11 +5,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class BoardImplTest {
     private Board subject;
@@ -33,6 +34,13 @@ class BoardImplTest {
         assertThat(subject.isSouthTurn()).isTrue();
     }
 
+    @Test
+    @DisplayName("getPitList returns a read-only view")
+    void getPitListIsReadOnly() {
+        assertThatThrownBy(() -> subject.getPitList().set(0, 1))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
     @Nested
     class MakeMove {
         @Test
@@ -40,7 +48,7 @@ class BoardImplTest {
         void singleMoveSouth() {
             List<Integer> givenList = Arrays.asList(0, 1, 8, 8, 8, 8, 2, 6, 0, 7, 7, 8, 8, 1);
             List<Integer> expectedList = Arrays.asList(0, 0, 9, 8, 8, 8, 2, 6, 0, 7, 7, 8, 8, 1);
-            addPitListToBoard(subject, givenList);
+            subject = boardWith(givenList);
 
             subject.makeMove(1);
 
@@ -77,7 +85,7 @@ class BoardImplTest {
         void skipKalahaOpponentSouth() {
             List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 6, 8, 0, 6, 6, 6, 6, 6, 6, 0);
             List<Integer> expectedList = Arrays.asList(7, 6, 6, 6, 6, 0, 1, 7, 7, 7, 7, 7, 7, 0);
-            addPitListToBoard(subject, givenList);
+            subject = boardWith(givenList);
 
             subject.makeMove(5);
 
@@ -89,7 +97,7 @@ class BoardImplTest {
         void skipKalahaOpponentNorth() {
             List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 8, 0);
             List<Integer> expectedList = Arrays.asList(7, 7, 7, 7, 7, 7, 0, 7, 6, 6, 6, 6, 0, 1);
-            addPitListToBoard(subject, givenList);
+            subject = boardWith(givenList);
             subject.setSouthTurn(false);
 
             subject.makeMove(12);
@@ -97,12 +105,24 @@ class BoardImplTest {
             assertThat(subject.getPitList()).isEqualTo(expectedList);
         }
 
+        @Test
+        @DisplayName("keeps all stones when sowing a full lap around the board")
+        void sowFullLap() {
+            List<Integer> givenList = Arrays.asList(6, 14, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0);
+            List<Integer> expectedList = Arrays.asList(7, 1, 8, 7, 7, 7, 1, 7, 7, 7, 7, 7, 7, 0);
+            subject = boardWith(givenList);
+
+            subject.makeMove(1);
+
+            assertThat(subject.getPitList()).isEqualTo(expectedList);
+        }
+
         @Test
         @DisplayName("does not switch turn when last stone lands in own kalaha")
         void notSwitchTurn() {
             List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 6, 1, 0, 6, 6, 6, 6, 6, 6, 0);
             List<Integer> expectedList = Arrays.asList(6, 6, 6, 6, 6, 0, 1, 6, 6, 6, 6, 6, 6, 0);
-            addPitListToBoard(subject, givenList);
+            subject = boardWith(givenList);
 
             assertThat(subject.isSouthTurn()).isTrue();
 
@@ -117,7 +137,7 @@ class BoardImplTest {
         void switchTurn() {
             List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 6, 2, 0, 6, 6, 6, 6, 6, 6, 0);
             List<Integer> expectedList = Arrays.asList(6, 6, 6, 6, 6, 0, 1, 7, 6, 6, 6, 6, 6, 0);
-            addPitListToBoard(subject, givenList);
+            subject = boardWith(givenList);
 
             assertThat(subject.isSouthTurn()).isTrue();
 
@@ -132,19 +152,43 @@ class BoardImplTest {
         void capture() {
             List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 1, 0, 0, 6, 6, 6, 6, 6, 6, 0);
             List<Integer> expectedList = Arrays.asList(6, 6, 6, 6, 0, 0, 7, 0, 6, 6, 6, 6, 6, 0);
-            addPitListToBoard(subject, givenList);
+            subject = boardWith(givenList);
 
             subject.makeMove(4);
 
             assertThat(subject.getPitList()).isEqualTo(expectedList);
         }
 
+        @Test
+        @DisplayName("keeps the totals of both rows up to date after a capture")
+        void totalsAfterCapture() {
+            List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 1, 0, 0, 6, 6, 6, 6, 6, 6, 0);
+            subject = boardWith(givenList);
+
+            subject.makeMove(4);
+
+            assertThat(subject.getTotalStonesInPitsSouth()).isEqualTo(24);
+            assertThat(subject.getTotalStonesInPitsNorth()).isEqualTo(30);
+        }
+
+        @Test
+        @DisplayName("empties the totals of both rows when the last stones are collected")
+        void totalsAfterCollect() {
+            List<Integer> givenList = Arrays.asList(0, 0, 0, 0, 0, 1, 5, 5, 6, 6, 6, 6, 6, 10);
+            subject = boardWith(givenList);
+
+            subject.makeMove(5);
+
+            assertThat(subject.getTotalStonesInPitsSouth()).isZero();
+            assertThat(subject.getTotalStonesInPitsNorth()).isZero();
+        }
+
         @Test
         @DisplayName("does collect last stones when south runs out of stones")
         void noStonesLeftSouthCollect() {
             List<Integer> givenList = Arrays.asList(0, 0, 0, 0, 0, 1, 5, 5, 6, 6, 6, 6, 6, 10);
             List<Integer> expectedList = Arrays.asList(0, 0, 0, 0, 0, 0, 6, 0, 0, 0, 0, 0, 0, 45);
-            addPitListToBoard(subject, givenList);
+            subject = boardWith(givenList);
 
             subject.makeMove(5);
 
@@ -157,7 +201,7 @@ class BoardImplTest {
         void noStonesLeftNortCollect() {
             List<Integer> givenList = Arrays.asList(5, 6, 6, 6, 6, 6, 10, 0, 0, 0, 0, 0, 1, 5);
             List<Integer> expectedList = Arrays.asList(0, 0, 0, 0, 0, 0, 45, 0, 0, 0, 0, 0, 0, 6);
-            addPitListToBoard(subject, givenList);
+            subject = boardWith(givenList);
 
             subject.setSouthTurn(false);
             subject.makeMove(12);
@@ -167,6 +211,43 @@ class BoardImplTest {
         }
     }
 
+    @Test
+    @DisplayName("getZobristKey is kept equal to the key of a freshly built board")
+    void getZobristKeyIsIncremental() {
+        subject.makeMove(0);
+        subject.makeMove(1);
+        subject.makeMove(7);
+        Board rebuilt = boardWith(subject.getPitList());
+        rebuilt.setSouthTurn(subject.isSouthTurn());
+
+        assertThat(subject.getZobristKey()).isEqualTo(rebuilt.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("getZobristKey differs between positions and between players to move")
+    void getZobristKeyDiffers() {
+        long initialKey = subject.getZobristKey();
+        Board otherPlayer = subject.copy();
+        otherPlayer.setSouthTurn(false);
+
+        subject.makeMove(0);
+
+        assertThat(subject.getZobristKey()).isNotEqualTo(initialKey);
+        assertThat(otherPlayer.getZobristKey()).isNotEqualTo(initialKey);
+    }
+
+    @Test
+    @DisplayName("forEachPitChangedByLastMove visits only the pits changed by the last move")
+    void forEachPitChangedByLastMove() {
+        List<Integer> changedPits = new ArrayList<>();
+        subject.makeMove(0);
+        subject.makeMove(1);
+
+        subject.forEachPitChangedByLastMove(changedPits::add);
+
+        assertThat(changedPits).containsExactly(1, 2, 3, 4, 5, 6, 7, 8);
+    }
+
     @Test
     @DisplayName("getIndexKalahaSouth returns correct index")
     void getIndexKalahaSouth() {
@@ -199,7 +280,7 @@ class BoardImplTest {
     @DisplayName("isEmpty returns false if pit is not empty")
     void isNotEmpty() {
         List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 1, 0, 0, 6, 6, 6, 6, 6, 6, 0);
-        addPitListToBoard(subject, givenList);
+        subject = boardWith(givenList);
 
         subject.makeMove(0);
 
@@ -212,7 +293,7 @@ class BoardImplTest {
         @DisplayName("returns true if player south has no stones left")
         void noStonesPlayerSouth() {
             List<Integer> givenList = Arrays.asList(6, 6, 6, 6, 6, 5, 5, 0, 0, 0, 0, 0, 0, 47);
-            addPitListToBoard(subject, givenList);
+            subject = boardWith(givenList);
 
             boolean result = subject.isGameOver();
 
@@ -223,7 +304,7 @@ class BoardImplTest {
         @DisplayName("returns true if player north has no stones left")
         void noStonesPlayerNorth() {
             List<Integer> givenList = Arrays.asList(0, 0, 0, 0, 0, 0, 5, 5, 6, 6, 6, 6, 6, 47);
-            addPitListToBoard(subject, givenList);
+            subject = boardWith(givenList);
 
             boolean result = subject.isGameOver();
 
@@ -234,7 +315,7 @@ class BoardImplTest {
         @DisplayName("returns false if player south has stones left")
         void stonesLeftPlayerSouth() {
             List<Integer> givenList = Arrays.asList(0, 0, 8, 8, 8, 8, 2, 7, 7, 6, 6, 6, 6, 0);
-            addPitListToBoard(subject, givenList);
+            subject = boardWith(givenList);
 
             boolean result = subject.isGameOver();
 
@@ -245,7 +326,7 @@ class BoardImplTest {
         @DisplayName("returns false if player north has stones left")
         void stonesLeftPlayerNorth() {
             List<Integer> givenList = Arrays.asList(0, 0, 8, 8, 8, 8, 2, 7, 7, 6, 6, 6, 6, 0);
-            addPitListToBoard(subject, givenList);
+            subject = boardWith(givenList);
 
             boolean result = subject.isGameOver();
 
@@ -253,8 +334,10 @@ class BoardImplTest {
         }
     }
 
-    private void addPitListToBoard(Board board, List<Integer> pitList) {
-        IntStream.range(0, pitList.size())
-                .forEach(index -> board.getPitList().set(index, pitList.get(index)));
+    private Board boardWith(List<Integer> pitList) {
+        return BoardImpl.builder()
+                .pitList(pitList)
+                .southTurn(true)
+                .build();
     }
 }
@@ -0,0 +1,116 @@
+package com.kalaha.domain;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GameActorsTest {
+    private GameActors subject;
+
+    @BeforeEach
+    void init() {
+        subject = new GameActors(2, 2);
+    }
+
+    @AfterEach
+    void close() {
+        subject.close();
+    }
+
+    @Test
+    @DisplayName("ask runs the command on the pool and returns its result")
+    void ask() {
+        Game game = newGame();
+
+        GameSnapshot result = subject.ask(game, () -> game.play(0, 0));
+
+        assertThat(result.getVersion()).isEqualTo(1);
+        assertThat(subject.ask(game, () -> Thread.currentThread().getName())).isEqualTo("game-actor");
+    }
+
+    @Test
+    @DisplayName("ask throws what the command threw")
+    void askThrows() {
+        Game game = newGame();
+        game.play(0);
+
+        assertThatThrownBy(() -> subject.ask(game, () -> game.play(1, 0)))
+                .isInstanceOf(StaleVersionException.class)
+                .hasMessage("Game 7 is at version 1, not 0");
+    }
+
+    @Test
+    @DisplayName("the commands of a game run one at a time")
+    void commandsOfGameRunOneAtATime() throws Exception {
+        Game game = newGame();
+        AtomicInteger running = new AtomicInteger();
+        List<Integer> order = new ArrayList<>();
+        List<CompletableFuture<Void>> asks = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            int command = i;
+            asks.add(CompletableFuture.runAsync(() -> subject.askUnbounded(game, () -> {
+                assertThat(running.incrementAndGet()).isEqualTo(1);
+                order.add(command);
+                running.decrementAndGet();
+                return null;
+            })));
+        }
+        CompletableFuture.allOf(asks.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+
+        assertThat(order).hasSize(100).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("a full mailbox rejects further commands while other games are still served")
+    void fullMailboxRejects() throws Exception {
+        subject.close();
+        subject = new GameActors(2, 1);
+        Game game = newGame();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<GameSnapshot> blocked = CompletableFuture.supplyAsync(() -> subject.ask(game, () -> {
+            started.countDown();
+            await(release);
+            return game.play(0, 0);
+        }));
+        started.await(5, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> subject.ask(game, () -> game.play(1, 1)))
+                .isInstanceOf(GameBusyException.class)
+                .hasMessage("Game 7 has too many moves waiting, try again later");
+        Game other = newGame();
+        assertThat(subject.ask(other, () -> other.play(0, 0)).getVersion()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(blocked.get(5, TimeUnit.SECONDS).getVersion()).isEqualTo(1);
+        assertThat(subject.ask(game, () -> game.play(1, 1)).getVersion()).isEqualTo(2);
+        assertThat(subject.getRejectedCount()).isEqualTo(1);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Game newGame() {
+        return Game.builder()
+                .id(7)
+                .board(ArrayBoard.builder().pits(6, 6).southTurn(true).build())
+                .build();
+    }
+}
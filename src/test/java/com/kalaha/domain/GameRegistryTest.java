@@ -0,0 +1,78 @@
+package com.kalaha.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GameRegistryTest {
+    private GameRegistry subject;
+
+    @BeforeEach
+    void init() {
+        subject = new GameRegistry(() -> Game.builder()
+                .board(ArrayBoard.builder().pits(6, 6).southTurn(true).build())
+                .build());
+    }
+
+    @Test
+    @DisplayName("create registers a new game under a unique id")
+    void create() {
+        long firstId = subject.create(false);
+        long secondId = subject.create(false);
+
+        assertThat(firstId).isNotEqualTo(secondId);
+        assertThat(subject.get(firstId)).isNotSameAs(subject.get(secondId));
+        assertThat(subject.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("games are played independently of each other")
+    void gamesAreIndependent() {
+        long firstId = subject.create(false);
+        long secondId = subject.create(false);
+
+        subject.get(firstId).play(0);
+
+        assertThat(subject.get(firstId).getStonesKalahaSouth()).isEqualTo(1);
+        assertThat(subject.get(secondId).getStonesKalahaSouth()).isZero();
+    }
+
+    @Test
+    @DisplayName("the listener sees every created game and every move with its version")
+    void listener() {
+        List<String> events = new ArrayList<>();
+        subject = new GameRegistry(() -> Game.builder()
+                .board(ArrayBoard.builder().pits(6, 6).southTurn(true).build())
+                .build(), new GameListener() {
+            @Override
+            public void onCreate(final Game game) {
+                events.add("create " + game.getId());
+            }
+
+            @Override
+            public void onMove(final Game game, final int index, final boolean southMoved) {
+                events.add("move " + game.getId() + " " + game.getVersion() + " " + index + " " + southMoved);
+            }
+        });
+
+        long id = subject.create(false);
+        subject.get(id).play(1);
+        subject.get(id).play(8);
+
+        assertThat(events).containsExactly("create " + id, "move " + id + " 1 1 true", "move " + id + " 2 8 false");
+    }
+
+    @Test
+    @DisplayName("get throws GameNotFoundException for an unknown id")
+    void getUnknownGame() {
+        assertThatThrownBy(() -> subject.get(0))
+                .isInstanceOf(GameNotFoundException.class)
+                .hasMessage("Game 0 does not exist");
+    }
+}
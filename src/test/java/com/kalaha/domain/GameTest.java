@@ -8,10 +8,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,7 +33,7 @@ class GameTest {
                 .pitList(6, 6)
                 .southTurn(true)
                 .build();
-        game = new Game(board);
+        game = Game.builder().board(board).build();
     }
 
     @Test
@@ -38,6 +47,174 @@ class GameTest {
         assertThat(game.getBoard().getPitList()).isEqualTo(expectedPitList);
     }
 
+    @Test
+    @DisplayName("play with the current version applies the move and returns the new state")
+    void playWithVersion() {
+        GameSnapshot result = game.play(0, 0);
+
+        assertThat(result.getVersion()).isEqualTo(1);
+        assertThat(result.getPits()).containsExactly(0, 7, 7, 7, 7, 7, 1, 6, 6, 6, 6, 6, 6, 0);
+        assertThat(result.isSouthTurn()).isTrue();
+    }
+
+    @Test
+    @DisplayName("play with a stale version is rejected and leaves the game unchanged")
+    void playWithStaleVersion() {
+        game.play(0);
+
+        assertThatThrownBy(() -> game.play(1, 0))
+                .isInstanceOf(StaleVersionException.class)
+                .hasMessage("Game 0 is at version 1, not 0");
+        assertThat(game.getVersion()).isEqualTo(1);
+        assertThat(game.getStonesKalahaSouth()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("playAll applies the moves in order and notifies the listener of each")
+    void playAll() {
+        List<Integer> moves = new ArrayList<>();
+        game.setListener(new GameListener() {
+            @Override
+            public void onMove(final Game game, final int index, final boolean southMoved) {
+                moves.add(index);
+            }
+        });
+
+        GameSnapshot result = game.playAll(new int[]{0, 1}, 0);
+
+        assertThat(moves).containsExactly(0, 1);
+        assertThat(result.getVersion()).isEqualTo(2);
+        assertThat(result.getPits()).containsExactly(0, 0, 8, 8, 8, 8, 2, 7, 7, 6, 6, 6, 6, 0);
+        assertThat(result.isSouthTurn()).isFalse();
+    }
+
+    @Test
+    @DisplayName("playAll with a stale version plays none of the moves")
+    void playAllWithStaleVersion() {
+        game.play(0);
+
+        assertThatThrownBy(() -> game.playAll(new int[]{1, 8}, 0))
+                .isInstanceOf(StaleVersionException.class);
+        assertThat(game.getVersion()).isEqualTo(1);
+        assertThat(game.getBoard().getPitList()).containsExactly(0, 7, 7, 7, 7, 7, 1, 6, 6, 6, 6, 6, 6, 0);
+    }
+
+    @Test
+    @DisplayName("concurrent moves on the same version are applied exactly once")
+    void concurrentMoves() throws InterruptedException {
+        int threads = 4;
+        AtomicInteger applied = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (GameActors actors = new GameActors(threads, threads)) {
+            for (int i = 0; i < threads; i++) {
+                int pit = i;
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        actors.ask(game, () -> game.play(pit, 0));
+                        applied.incrementAndGet();
+                    } catch (StaleVersionException | InterruptedException e) {
+                        // lost the race
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        GameSnapshot snapshot = game.snapshot();
+        assertThat(applied.get()).isEqualTo(1);
+        assertThat(snapshot.getVersion()).isEqualTo(1);
+        assertThat(IntStream.of(snapshot.getPits()).sum()).isEqualTo(72);
+    }
+
+    @Test
+    @DisplayName("read sees the state of the last change, which the game does not change afterwards")
+    void read() {
+        game.play(0);
+        Game view = game.read(current -> current);
+
+        game.play(1);
+
+        assertThat(view.getVersion()).isEqualTo(1);
+        assertThat(view.getBoard().getPitList()).containsExactly(0, 7, 7, 7, 7, 7, 1, 6, 6, 6, 6, 6, 6, 0);
+        assertThat(view.canTakeBack()).isTrue();
+        assertThat(game.read(Game::getVersion)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("the listener of the last move of a command reads the state after it")
+    void listenerReadsLastMove() {
+        List<Long> versions = new ArrayList<>();
+        game.setListener(new GameListener() {
+            @Override
+            public void onMove(final Game game, final int index, final boolean southMoved) {
+                versions.add(game.read(Game::getVersion));
+            }
+        });
+        game.publish();
+
+        game.playAll(new int[]{0, 1}, 0);
+
+        assertThat(versions).containsExactly(0L, 2L);
+    }
+
+    @Test
+    @DisplayName("a hibernated game rejects further moves")
+    void hibernate() {
+        game.play(0);
+
+        GameSnapshot snapshot = game.hibernate();
+
+        assertThat(snapshot.getVersion()).isEqualTo(1);
+        assertThatThrownBy(() -> game.play(1, 1)).isInstanceOf(StaleVersionException.class);
+        assertThat(game.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("takeBack undoes the last move and notifies the listener")
+    void takeBack() {
+        int[] takenBack = new int[1];
+        game.setListener(new GameListener() {
+            @Override
+            public void onTakeBack(final Game game, final int moves) {
+                takenBack[0] = moves;
+            }
+        });
+        game.play(1);
+
+        GameSnapshot result = game.takeBack(1);
+
+        assertThat(result.getVersion()).isEqualTo(2);
+        assertThat(result.getPits()).containsExactly(6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0);
+        assertThat(result.isSouthTurn()).isTrue();
+        assertThat(takenBack[0]).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("takeBack against the computer also undoes the moves it made since")
+    void takeBackAgainstComputer() {
+        game.setComputerNorth(true);
+        game.play(1);
+        game.play(8);
+
+        GameSnapshot result = game.takeBack(2);
+
+        assertThat(result.getPits()).containsExactly(6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0);
+        assertThat(result.isSouthTurn()).isTrue();
+    }
+
+    @Test
+    @DisplayName("takeBack without a move to take back is rejected")
+    void takeBackWithoutMove() {
+        assertThatThrownBy(() -> game.takeBack(0))
+                .isInstanceOf(NoMoveToTakeBackException.class)
+                .hasMessage("Game 0 has no move to take back");
+        assertThat(game.getVersion()).isZero();
+    }
+
     @Test
     @DisplayName("getOffsetPlayerNorth should return correct offset")
     void getOffsetNorthPlayer() {
@@ -151,7 +328,7 @@ class GameTest {
 
         @BeforeEach
         void initGetWinnerMessage() {
-            gameWithMockBoard = new Game(mockBoard);
+            gameWithMockBoard = Game.builder().board(mockBoard).build();
             when(mockBoard.getIndexKalahaSouth()).thenReturn(6);
             when(mockBoard.getIndexKalahaNorth()).thenReturn(13);
         }
@@ -161,7 +338,7 @@ class GameTest {
         void shouldReturnCorrectmessageWhenPlayerSouthHasWon() {
             String expectedMessage = "Player South has won!";
             List<Integer> givenList = Arrays.asList(0, 0, 0, 0, 0, 0, 47, 0, 0, 0, 0, 0, 0, 25);
-            when(mockBoard.getPitList()).thenReturn(givenList);
+            when(mockBoard.getStonesInPit(anyInt())).thenAnswer(invocation -> givenList.get(invocation.getArgument(0)));
 
             String result = gameWithMockBoard.getWinnerMessage();
 
@@ -173,7 +350,7 @@ class GameTest {
         void shouldReturnCorrectmessageWhenPlayerNorthHasWon() {
             String expectedMessage = "Player North has won!";
             List<Integer> givenList = Arrays.asList(0, 0, 0, 0, 0, 0, 25, 0, 0, 0, 0, 0, 0, 47);
-            when(mockBoard.getPitList()).thenReturn(givenList);
+            when(mockBoard.getStonesInPit(anyInt())).thenAnswer(invocation -> givenList.get(invocation.getArgument(0)));
 
             String result = gameWithMockBoard.getWinnerMessage();
 
@@ -185,7 +362,7 @@ class GameTest {
         void shouldReturnCorrectmessageWhenNeitherPlayerHasWon() {
             String expectedMessage = "It's a tie!";
             List<Integer> givenList = Arrays.asList(0, 0, 0, 0, 0, 0, 36, 0, 0, 0, 0, 0, 0, 36);
-            when(mockBoard.getPitList()).thenReturn(givenList);
+            when(mockBoard.getStonesInPit(anyInt())).thenAnswer(invocation -> givenList.get(invocation.getArgument(0)));
 
             String result = gameWithMockBoard.getWinnerMessage();
 
@@ -0,0 +1,93 @@
+package com.kalaha.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoveHistoryTest {
+
+    @Test
+    @DisplayName("unmakeMove restores every position of random games on every board")
+    void unmakeRestoresRandomGames() {
+        unmakeRestoresRandomGames((pitsPerPlayer, stonesPerPit) ->
+                ArrayBoard.builder().pits(pitsPerPlayer, stonesPerPit).southTurn(true).build());
+        unmakeRestoresRandomGames((pitsPerPlayer, stonesPerPit) ->
+                PackedBoard.builder().pits(pitsPerPlayer, stonesPerPit).southTurn(true).build());
+        unmakeRestoresRandomGames((pitsPerPlayer, stonesPerPit) ->
+                BoardImpl.builder().pitList(pitsPerPlayer, stonesPerPit).southTurn(true).build());
+    }
+
+    @Test
+    @DisplayName("unmakeMove reports the pits it changed")
+    void unmakeReportsChangedPits() {
+        Board subject = ArrayBoard.builder().pits(6, 6).southTurn(true).build();
+        List<Integer> changedPits = new ArrayList<>();
+        subject.makeMove(0);
+        subject.makeMove(1);
+
+        subject.unmakeMove();
+        subject.forEachPitChangedByLastMove(changedPits::add);
+
+        assertThat(changedPits).containsExactly(1, 2, 3, 4, 5, 6, 7, 8);
+        assertThat(subject.isSouthTurn()).isTrue();
+    }
+
+    @Test
+    @DisplayName("a board has no move to unmake once built, loaded or copied")
+    void noMoveToUnmake() {
+        Board subject = ArrayBoard.builder().pits(6, 6).southTurn(true).build();
+        assertThat(subject.canUnmakeMove()).isFalse();
+
+        subject.makeMove(0);
+        assertThat(subject.canUnmakeMove()).isTrue();
+        assertThat(subject.copy().canUnmakeMove()).isFalse();
+
+        subject.load(new int[]{6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0}, true);
+        assertThat(subject.canUnmakeMove()).isFalse();
+        assertThatThrownBy(subject::unmakeMove)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("There is no move to unmake");
+    }
+
+    private static void unmakeRestoresRandomGames(final BiFunction<Integer, Integer, Board> boards) {
+        Random random = new Random(16);
+        for (int game = 0; game < 100; game++) {
+            Board subject = boards.apply(1 + random.nextInt(8), 1 + random.nextInt(20));
+            Deque<String> positions = new ArrayDeque<>();
+
+            while (!subject.isGameOver()) {
+                positions.push(positionOf(subject));
+                subject.makeMove(randomMove(subject, random));
+            }
+            while (!positions.isEmpty()) {
+                subject.unmakeMove();
+                assertThat(positionOf(subject)).isEqualTo(positions.pop());
+            }
+            assertThat(subject.canUnmakeMove()).isFalse();
+        }
+    }
+
+    private static String positionOf(final Board board) {
+        return Arrays.asList(board.getPitList(), board.isSouthTurn(), board.getZobristKey(),
+                board.getTotalStonesInPitsSouth(), board.getTotalStonesInPitsNorth()).toString();
+    }
+
+    private static int randomMove(final Board board, final Random random) {
+        int offset = board.isSouthTurn() ? 0 : board.getIndexKalahaSouth() + 1;
+        int move;
+        do {
+            move = offset + random.nextInt(board.getIndexKalahaSouth());
+        } while (board.isEmpty(move));
+        return move;
+    }
+}
@@ -0,0 +1,92 @@
+package com.kalaha.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PackedBoardTest {
+
+    @Test
+    @DisplayName("A new board should have a correct pitList and southTurn set to true")
+    void getPitListNewBoard() {
+        Board subject = PackedBoard.builder().pits(6, 6).southTurn(true).build();
+
+        assertThat(subject.getPitList()).isEqualTo(Arrays.asList(6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0));
+        assertThat(subject.isSouthTurn()).isTrue();
+    }
+
+    @Test
+    @DisplayName("random games are played exactly like on an ArrayBoard")
+    void playsLikeArrayBoard() {
+        Random random = new Random(7);
+        for (int game = 0; game < 200; game++) {
+            int pitsPerPlayer = 1 + random.nextInt(8);
+            int stonesPerPit = 1 + random.nextInt(10);
+            Board expected = ArrayBoard.builder().pits(pitsPerPlayer, stonesPerPit).southTurn(true).build();
+            Board subject = PackedBoard.builder().pits(pitsPerPlayer, stonesPerPit).southTurn(true).build();
+
+            while (!expected.isGameOver()) {
+                int move = randomMove(expected, random);
+                expected.makeMove(move);
+                subject.makeMove(move);
+
+                assertThat(subject.getPitList()).isEqualTo(expected.getPitList());
+                assertThat(subject.isSouthTurn()).isEqualTo(expected.isSouthTurn());
+                assertThat(subject.isGameOver()).isEqualTo(expected.isGameOver());
+                assertThat(subject.getZobristKey()).isEqualTo(expected.getZobristKey());
+                assertThat(changedPits(subject)).isEqualTo(changedPits(expected));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("boards are equal and hash alike when their positions are")
+    void equalsAndHashCode() {
+        PackedBoard subject = PackedBoard.builder().pits(6, 6).southTurn(true).build();
+        Board other = subject.copy();
+        Set<Board> positions = new HashSet<>();
+
+        positions.add(subject);
+        other.makeMove(0);
+        subject.makeMove(0);
+
+        assertThat(other).isEqualTo(subject).hasSameHashCodeAs(subject);
+        assertThat(positions).doesNotContain(PackedBoard.builder().pits(6, 6).southTurn(false).build());
+    }
+
+    @Test
+    @DisplayName("toWords restores the board through the codec")
+    void toWords() {
+        PackedBoard subject = PackedBoard.builder().pits(6, 6).southTurn(true).build();
+        subject.makeMove(2);
+
+        PackedBoard restored = new PackedBoard(subject.getCodec(), subject.toWords());
+
+        assertThat(restored).isEqualTo(subject);
+        assertThat(restored.getTotalStonesInPitsSouth()).isEqualTo(subject.getTotalStonesInPitsSouth());
+        assertThat(restored.getZobristKey()).isEqualTo(subject.getZobristKey());
+    }
+
+    private static int randomMove(final Board board, final Random random) {
+        int offset = board.isSouthTurn() ? 0 : board.getIndexKalahaSouth() + 1;
+        int move;
+        do {
+            move = offset + random.nextInt(board.getIndexKalahaSouth());
+        } while (board.isEmpty(move));
+        return move;
+    }
+
+    private static List<Integer> changedPits(final Board board) {
+        List<Integer> changedPits = new ArrayList<>();
+        board.forEachPitChangedByLastMove(changedPits::add);
+        return changedPits;
+    }
+}
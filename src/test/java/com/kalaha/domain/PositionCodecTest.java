@@ -0,0 +1,88 @@
+package com.kalaha.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PositionCodecTest {
+
+    @Test
+    @DisplayName("a standard board fits in two longs and 13 bytes")
+    void standardBoardSize() {
+        PositionCodec subject = new PositionCodec(6, 72);
+
+        assertThat(subject.getBitsPerPit()).isEqualTo(7);
+        assertThat(subject.getBitCount()).isEqualTo(99);
+        assertThat(subject.getWordCount()).isEqualTo(2);
+        assertThat(subject.getByteCount()).isEqualTo(13);
+    }
+
+    @Test
+    @DisplayName("pack and unpack round trip, also for pits spanning two longs")
+    void packAndUnpack() {
+        PositionCodec subject = new PositionCodec(6, 72);
+        int[] pits = {0, 7, 7, 7, 7, 7, 1, 6, 6, 6, 6, 6, 6, 0};
+        int[] unpacked = new int[pits.length];
+
+        long[] words = subject.pack(pits, false);
+        boolean southTurn = subject.unpack(words, unpacked);
+
+        assertThat(unpacked).containsExactly(pits);
+        assertThat(southTurn).isFalse();
+    }
+
+    @Test
+    @DisplayName("larger configurations are packed into as many longs as they need")
+    void largerConfiguration() {
+        PositionCodec subject = new PositionCodec(20, 20 * 2 * 50);
+        Random random = new Random(1);
+        int[] pits = random.ints(42, 0, 2000).toArray();
+        int[] unpacked = new int[pits.length];
+
+        long[] words = subject.pack(pits, true);
+
+        assertThat(words).hasSize(subject.getWordCount()).hasSize(8);
+        assertThat(subject.unpack(words, unpacked)).isTrue();
+        assertThat(unpacked).containsExactly(pits);
+    }
+
+    @Test
+    @DisplayName("setStones only changes the given pit")
+    void setStones() {
+        PositionCodec subject = new PositionCodec(6, 72);
+        long[] words = subject.pack(new int[]{72, 72, 72, 72, 72, 72, 72, 72, 72, 72, 72, 72, 72, 72}, true);
+
+        subject.setStones(words, 9, 5);
+
+        for (int pit = 0; pit < 14; pit++) {
+            assertThat(subject.getStones(words, pit)).isEqualTo(pit == 9 ? 5 : 72);
+        }
+        assertThat(PositionCodec.isSouthTurn(words)).isTrue();
+    }
+
+    @Test
+    @DisplayName("toBytes and fromBytes round trip")
+    void bytes() {
+        PositionCodec subject = new PositionCodec(6, 72);
+        long[] words = subject.pack(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 0, 0, 6}, true);
+
+        byte[] bytes = subject.toBytes(words);
+
+        assertThat(bytes).hasSize(13);
+        assertThat(subject.fromBytes(bytes)).containsExactly(words);
+    }
+
+    @Test
+    @DisplayName("pack rejects a pit holding more stones than its bits allow")
+    void packTooManyStones() {
+        PositionCodec subject = new PositionCodec(6, 72);
+
+        assertThatThrownBy(() -> subject.pack(new int[]{128, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}, true))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Pit 0 holds 128 stones, more than 7 bits allow");
+    }
+}
@@ -0,0 +1,67 @@
+package com.kalaha.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SowingTableTest {
+
+    @Test
+    @DisplayName("a lap of south skips the kalaha of north")
+    void lapSouth() {
+        SowingTable subject = SowingTable.forSide(14, true);
+
+        assertThat(subject.getLap()).isEqualTo(13);
+        assertThat(subject.getPosition(13)).isEqualTo(-1);
+        assertThat(subject.getLandingPit(5, 1)).isEqualTo(6);
+        assertThat(subject.getLandingPit(12, 1)).isEqualTo(0);
+        assertThat(subject.getLandingPit(5, 14)).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("a lap of north skips the kalaha of south")
+    void lapNorth() {
+        SowingTable subject = SowingTable.forSide(14, false);
+
+        assertThat(subject.getPosition(6)).isEqualTo(-1);
+        assertThat(subject.getLandingPit(5, 1)).isEqualTo(7);
+        assertThat(subject.getLandingPit(12, 1)).isEqualTo(13);
+        assertThat(subject.getLandingPit(12, 2)).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("tables are shared by boards of the same size")
+    void shared() {
+        assertThat(SowingTable.forSide(14, true)).isSameAs(SowingTable.forSide(14, true));
+        assertThat(SowingTable.forSide(14, true)).isNotSameAs(SowingTable.forSide(14, false));
+    }
+
+    @Test
+    @DisplayName("boards sowing through the tables play random games like a board sowing stone by stone")
+    void playsLikeBoardImpl() {
+        Random random = new Random(15);
+        for (int game = 0; game < 200; game++) {
+            int pitsPerPlayer = 1 + random.nextInt(8);
+            int stonesPerPit = 1 + random.nextInt(40);
+            Board expected = BoardImpl.builder().pitList(pitsPerPlayer, stonesPerPit).southTurn(true).build();
+            Board subject = ArrayBoard.builder().pits(pitsPerPlayer, stonesPerPit).southTurn(true).build();
+
+            while (!expected.isGameOver()) {
+                int offset = expected.isSouthTurn() ? 0 : expected.getIndexKalahaSouth() + 1;
+                int move;
+                do {
+                    move = offset + random.nextInt(expected.getIndexKalahaSouth());
+                } while (expected.isEmpty(move));
+                expected.makeMove(move);
+                subject.makeMove(move);
+
+                assertThat(subject.getPitList()).isEqualTo(expected.getPitList());
+                assertThat(subject.isSouthTurn()).isEqualTo(expected.isSouthTurn());
+                assertThat(subject.getZobristKey()).isEqualTo(expected.getZobristKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.kalaha.engine;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Board;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AlphaBetaEngineTest {
+
+    @Test
+    @DisplayName("search takes the capture that wins the game")
+    void searchTakesWinningCapture() {
+        Board board = ArrayBoard.builder()
+                .pits(new int[]{1, 0, 0, 0, 0, 3, 0, 0, 0, 0, 0, 5, 0, 0})
+                .southTurn(true)
+                .build();
+
+        SearchResult result = engine(4, 1).search(board);
+
+        assertThat(result.getMove()).isZero();
+        assertThat(result.getScore()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("search returns the same score as a plain negamax search, sequentially and in parallel")
+    void searchMatchesNegamax() {
+        Board board = ArrayBoard.builder()
+                .pits(4, 4)
+                .southTurn(true)
+                .build();
+        int expectedScore = negamax(board, 6);
+
+        SearchResult sequential = engine(6, 1).search(board);
+        SearchResult parallel = engine(6, 4).search(board);
+
+        assertThat(sequential.getScore()).isEqualTo(expectedScore);
+        assertThat(parallel.getScore()).isEqualTo(expectedScore);
+        assertThat(parallel.getDepth()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("search stops deepening when the time budget is spent")
+    void searchRespectsTimeBudget() {
+        Board board = ArrayBoard.builder()
+                .pits(6, 6)
+                .southTurn(false)
+                .build();
+        AlphaBetaEngine subject = AlphaBetaEngine.builder()
+                .maxDepth(100)
+                .timeBudgetMillis(50)
+                .parallelism(2)
+                .transpositionTableEntries(1 << 16)
+                .build();
+
+        SearchResult result = subject.search(board);
+
+        assertThat(result.getElapsedNanos()).isLessThan(1_000_000_000L);
+        assertThat(result.getDepth()).isBetween(1, 99);
+        assertThat(result.getMove()).isBetween(7, 12);
+        assertThat(result.getNodesPerSecond()).isPositive();
+    }
+
+    @Test
+    @DisplayName("search throws IllegalStateException when the game is over")
+    void searchGameOver() {
+        Board board = ArrayBoard.builder()
+                .pits(new int[]{0, 0, 0, 0, 0, 0, 40, 0, 0, 0, 0, 0, 0, 32})
+                .southTurn(true)
+                .build();
+
+        assertThatThrownBy(() -> engine(4, 1).search(board))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private AlphaBetaEngine engine(final int maxDepth, final int parallelism) {
+        return AlphaBetaEngine.builder()
+                .maxDepth(maxDepth)
+                .timeBudgetMillis(60_000)
+                .parallelism(parallelism)
+                .transpositionTableEntries(1 << 16)
+                .build();
+    }
+
+    private int negamax(final Board board, final int depth) {
+        if (depth == 0 || board.isGameOver())
+            return kalahaDifference(board);
+
+        int best = Integer.MIN_VALUE;
+        int firstPit = board.isSouthTurn() ? 0 : board.getIndexKalahaSouth() + 1;
+        for (int pit = firstPit; pit < firstPit + board.getIndexKalahaSouth(); pit++) {
+            if (board.isEmpty(pit))
+                continue;
+            Board child = board.copy();
+            child.makeMove(pit);
+            int score = negamax(child, depth - 1);
+            best = Math.max(best, child.isSouthTurn() == board.isSouthTurn() ? score : -score);
+        }
+        return best;
+    }
+
+    private int kalahaDifference(final Board board) {
+        int difference = board.getStonesInPit(board.getIndexKalahaSouth())
+                - board.getStonesInPit(board.getIndexKalahaNorth());
+        return board.isSouthTurn() ? difference : -difference;
+    }
+}
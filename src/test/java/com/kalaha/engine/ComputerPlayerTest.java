@@ -0,0 +1,91 @@
+package com.kalaha.engine;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Board;
+import com.kalaha.domain.Game;
+import com.kalaha.domain.GameActors;
+import com.kalaha.domain.GameRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ComputerPlayerTest {
+    private GameRegistry registry;
+    private GameActors gameActors;
+    private final AtomicInteger searches = new AtomicInteger();
+
+    @BeforeEach
+    void init() {
+        registry = new GameRegistry(() -> Game.builder()
+                .board(ArrayBoard.builder().pits(6, 6).southTurn(true).build())
+                .build());
+        gameActors = new GameActors(1, 4);
+    }
+
+    @AfterEach
+    void close() {
+        gameActors.close();
+    }
+
+    @Test
+    @DisplayName("playTurn plays until it is the turn of the player again")
+    void playTurn() {
+        Game game = computerToMove();
+
+        new ComputerPlayer(this::firstMove, gameActors, registry).playTurn(game);
+
+        assertThat(game.isComputerTurn()).isFalse();
+        assertThat(game.getVersion()).isGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("playTurn searches again in the game loaded when it was hibernated during the search")
+    void playTurnAfterHibernation() {
+        Game game = computerToMove();
+        SearchEngine hibernatingEngine = board -> {
+            if (searches.get() == 0) {
+                game.hibernate();
+                registry.restore(copyOf(game));
+            }
+            return firstMove(board);
+        };
+
+        new ComputerPlayer(hibernatingEngine, gameActors, registry).playTurn(game);
+
+        Game reloaded = registry.get(game.getId());
+        assertThat(reloaded).isNotSameAs(game);
+        assertThat(reloaded.isComputerTurn()).isFalse();
+        assertThat(reloaded.getVersion()).isGreaterThan(1);
+        assertThat(searches.get()).isGreaterThan(1);
+    }
+
+    private Game computerToMove() {
+        Game game = registry.get(registry.create(true));
+        game.play(1);
+        return game;
+    }
+
+    private SearchResult firstMove(final Board board) {
+        searches.incrementAndGet();
+        int first = board.isSouthTurn() ? 0 : board.getIndexKalahaSouth() + 1;
+        int pit = first;
+        while (board.isEmpty(pit)) {
+            pit++;
+        }
+        return SearchResult.builder().move(pit).build();
+    }
+
+    private Game copyOf(final Game game) {
+        Game copy = registry.newGame();
+        copy.setId(game.getId());
+        copy.setVersion(game.getVersion());
+        copy.setComputerNorth(true);
+        copy.setBoard(game.getBoard().copy());
+        return copy;
+    }
+}
@@ -0,0 +1,138 @@
+package com.kalaha.engine;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Board;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EndgameDatabaseTest {
+    private static final int PITS_PER_PLAYER = 3;
+    private static final int MAX_STONES = 7;
+
+    private static EndgameDatabase subject;
+
+    @BeforeAll
+    static void generate() throws IOException {
+        Path file = Files.createTempFile("endgame", ".db");
+        file.toFile().deleteOnExit();
+        EndgameDatabaseGenerator generator = new EndgameDatabaseGenerator(PITS_PER_PLAYER, MAX_STONES);
+        generator.generate();
+        generator.write(file);
+        subject = EndgameDatabase.open(file);
+    }
+
+    @Test
+    @DisplayName("open reads the board size and the number of stones covered")
+    void open() {
+        assertThat(subject.getPitsPerPlayer()).isEqualTo(PITS_PER_PLAYER);
+        assertThat(subject.getMaxStones()).isEqualTo(MAX_STONES);
+    }
+
+    @Test
+    @DisplayName("getValue matches an exhaustive search for every position and player to move")
+    void getValueMatchesExhaustiveSearch() {
+        EndgameIndex index = new EndgameIndex(PITS_PER_PLAYER, MAX_STONES);
+        int[] canonicalPits = new int[2 * PITS_PER_PLAYER];
+
+        for (int stones = 0; stones <= MAX_STONES; stones++) {
+            for (long rank = 0; rank < index.getLevelSize(stones); rank++) {
+                index.unrank(rank, stones, canonicalPits);
+                for (boolean southTurn : new boolean[]{true, false}) {
+                    Board board = boardFrom(canonicalPits, southTurn);
+
+                    assertThat(subject.getValue(board)).isEqualTo(solve(board));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("covers only positions of the same board size with few enough stones")
+    void covers() {
+        Board fewStones = ArrayBoard.builder()
+                .pits(new int[]{1, 2, 0, 20, 3, 0, 1, 10})
+                .southTurn(true)
+                .build();
+        Board tooManyStones = ArrayBoard.builder()
+                .pits(PITS_PER_PLAYER, 2)
+                .southTurn(true)
+                .build();
+        Board otherSize = ArrayBoard.builder()
+                .pits(new int[]{1, 0, 0, 0, 0, 1, 0, 0, 0, 0})
+                .southTurn(true)
+                .build();
+
+        assertThat(subject.covers(fewStones)).isTrue();
+        assertThat(subject.covers(tooManyStones)).isFalse();
+        assertThat(subject.covers(otherSize)).isFalse();
+    }
+
+    @Test
+    @DisplayName("a search using the database finds the same score as a search without it")
+    void searchWithDatabase() {
+        Board board = ArrayBoard.builder()
+                .pits(new int[]{2, 1, 1, 0, 1, 0, 2, 0})
+                .southTurn(true)
+                .build();
+        AlphaBetaEngine withDatabase = AlphaBetaEngine.builder()
+                .maxDepth(1)
+                .timeBudgetMillis(60_000)
+                .parallelism(1)
+                .transpositionTableEntries(1024)
+                .endgameDatabase(subject)
+                .build();
+        AlphaBetaEngine withoutDatabase = AlphaBetaEngine.builder()
+                .maxDepth(40)
+                .timeBudgetMillis(60_000)
+                .parallelism(1)
+                .transpositionTableEntries(1024)
+                .build();
+
+        assertThat(withDatabase.search(board).getScore()).isEqualTo(withoutDatabase.search(board).getScore());
+    }
+
+    private Board boardFrom(final int[] canonicalPits, final boolean southTurn) {
+        int[] pits = new int[2 * PITS_PER_PLAYER + 2];
+        int moverFirstPit = southTurn ? 0 : PITS_PER_PLAYER + 1;
+        int opponentFirstPit = southTurn ? PITS_PER_PLAYER + 1 : 0;
+        System.arraycopy(canonicalPits, 0, pits, moverFirstPit, PITS_PER_PLAYER);
+        System.arraycopy(canonicalPits, PITS_PER_PLAYER, pits, opponentFirstPit, PITS_PER_PLAYER);
+        return ArrayBoard.builder()
+                .pits(pits)
+                .southTurn(southTurn)
+                .build();
+    }
+
+    private int solve(final Board board) {
+        if (board.isGameOver()) {
+            int difference = board.getTotalStonesInPitsSouth() - board.getTotalStonesInPitsNorth();
+            return board.isSouthTurn() ? difference : -difference;
+        }
+
+        int best = Integer.MIN_VALUE;
+        int firstPit = board.isSouthTurn() ? 0 : PITS_PER_PLAYER + 1;
+        for (int pit = firstPit; pit < firstPit + PITS_PER_PLAYER; pit++) {
+            if (board.isEmpty(pit))
+                continue;
+            Board child = board.copy();
+            child.makeMove(pit);
+            int kalahaDifference = child.getStonesInPit(child.getIndexKalahaSouth())
+                    - child.getStonesInPit(child.getIndexKalahaNorth())
+                    - board.getStonesInPit(board.getIndexKalahaSouth())
+                    + board.getStonesInPit(board.getIndexKalahaNorth());
+            int gain = board.isSouthTurn() ? kalahaDifference : -kalahaDifference;
+            int value = child.isGameOver()
+                    ? gain
+                    : child.isSouthTurn() == board.isSouthTurn() ? gain + solve(child) : gain - solve(child);
+            best = Math.max(best, value);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,30 @@
+package com.kalaha.engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIntMapTest {
+
+    @Test
+    @DisplayName("get returns the last value put for every key, including 0, and the missing value otherwise")
+    void putAndGet() {
+        Random random = new Random(3);
+        LongIntMap subject = new LongIntMap(1000);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            long key = i == 0 ? 0 : random.nextInt(2000) * 0x100000001L;
+            subject.put(key, i);
+            expected.put(key, i);
+        }
+
+        expected.forEach((key, value) -> assertThat(subject.get(key, -1)).isEqualTo(value));
+        assertThat(subject.size()).isEqualTo(expected.size());
+        assertThat(subject.get(7, -1)).isEqualTo(-1);
+    }
+}
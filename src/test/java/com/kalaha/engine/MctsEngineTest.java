@@ -0,0 +1,84 @@
+package com.kalaha.engine;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Board;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MctsEngineTest {
+
+    @Test
+    @DisplayName("search takes the capture that wins the game")
+    void searchTakesWinningCapture() {
+        Board board = ArrayBoard.builder()
+                .pits(new int[]{1, 0, 0, 0, 0, 3, 0, 0, 0, 0, 0, 5, 0, 0})
+                .southTurn(true)
+                .build();
+
+        SearchResult result = engine(200, 2).search(board);
+
+        assertThat(result.getMove()).isZero();
+        assertThat(result.getScore()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("search returns a legal move within the time budget")
+    void searchRespectsTimeBudget() {
+        Board board = ArrayBoard.builder()
+                .pits(12, 6)
+                .southTurn(false)
+                .build();
+
+        SearchResult result = engine(50, 2).search(board);
+
+        assertThat(result.getElapsedNanos()).isLessThan(1_000_000_000L);
+        assertThat(result.getMove()).isBetween(13, 24);
+        assertThat(result.getDepth()).isPositive();
+        assertThat(result.getNodesPerSecond()).isPositive();
+    }
+
+    @Test
+    @DisplayName("search keeps the trees of the positions where it is to move next")
+    void searchKeepsTrees() {
+        Board board = ArrayBoard.builder()
+                .pits(6, 6)
+                .southTurn(true)
+                .build();
+        MctsEngine subject = engine(100, 1);
+
+        board.makeMove(subject.search(board).getMove());
+        while (!board.isSouthTurn()) {
+            board.makeMove(board.isEmpty(7) ? 12 : 7);
+        }
+        long keptTrees = subject.getReusableTreeCount();
+        SearchResult result = subject.search(board);
+
+        assertThat(keptTrees).isPositive();
+        assertThat(result.getMove()).isBetween(0, 5);
+        assertThat(board.isEmpty(result.getMove())).isFalse();
+    }
+
+    @Test
+    @DisplayName("search throws IllegalStateException when the game is over")
+    void searchGameOver() {
+        Board board = ArrayBoard.builder()
+                .pits(new int[]{0, 0, 0, 0, 0, 0, 40, 0, 0, 0, 0, 0, 0, 32})
+                .southTurn(true)
+                .build();
+
+        assertThatThrownBy(() -> engine(10, 1).search(board))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private MctsEngine engine(final long timeBudgetMillis, final int parallelism) {
+        return MctsEngine.builder()
+                .timeBudgetMillis(timeBudgetMillis)
+                .parallelism(parallelism)
+                .exploration(1.4)
+                .reusedNodes(1_000_000)
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.kalaha.engine;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Board;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OpeningBookTest {
+    private static final int PITS_PER_PLAYER = 4;
+    private static final int STONES_PER_PIT = 4;
+    private static final int DEPTH = 6;
+
+    private static OpeningBook subject;
+
+    @BeforeAll
+    static void generate() throws IOException {
+        Path file = Files.createTempFile("opening", ".book");
+        file.toFile().deleteOnExit();
+        OpeningBookGenerator generator = new OpeningBookGenerator(PITS_PER_PLAYER, STONES_PER_PIT, 2, DEPTH);
+        generator.generate();
+        generator.write(file);
+        subject = OpeningBook.open(file);
+    }
+
+    @Test
+    @DisplayName("open reads the board size, the depth and every position of the first moves")
+    void open() {
+        assertThat(subject.getPitsPerPlayer()).isEqualTo(PITS_PER_PLAYER);
+        assertThat(subject.getStonesPerPit()).isEqualTo(STONES_PER_PIT);
+        assertThat(subject.getDepth()).isEqualTo(DEPTH);
+        assertThat(subject.size()).isGreaterThan(1 + PITS_PER_PLAYER);
+    }
+
+    @Test
+    @DisplayName("find returns the move and score of a search of the position to the book depth")
+    void findMatchesSearch() {
+        Board board = ArrayBoard.builder().pits(PITS_PER_PLAYER, STONES_PER_PIT).southTurn(true).build();
+        board.makeMove(1);
+        AlphaBetaEngine engine = AlphaBetaEngine.builder()
+                .maxDepth(DEPTH)
+                .timeBudgetMillis(60_000)
+                .parallelism(1)
+                .transpositionTableEntries(1 << 16)
+                .build();
+
+        SearchResult expected = engine.search(board);
+        SearchResult result = subject.find(board);
+
+        assertThat(result.getMove()).isEqualTo(expected.getMove());
+        assertThat(result.getScore()).isEqualTo(expected.getScore());
+        assertThat(result.getDepth()).isEqualTo(DEPTH);
+    }
+
+    @Test
+    @DisplayName("the book engine plays book moves without a search and searches other positions")
+    void bookEngine() {
+        SearchEngine engine = mock(SearchEngine.class);
+        when(engine.search(any())).thenReturn(SearchResult.builder().move(3).build());
+        OpeningBookEngine bookEngine = new OpeningBookEngine(subject, engine);
+        Board start = ArrayBoard.builder().pits(PITS_PER_PLAYER, STONES_PER_PIT).southTurn(true).build();
+        Board outOfBook = ArrayBoard.builder().pits(PITS_PER_PLAYER, 1).southTurn(true).build();
+
+        assertThat(bookEngine.search(start)).isEqualTo(subject.find(start));
+        verify(engine, never()).search(any());
+        assertThat(bookEngine.search(outOfBook).getMove()).isEqualTo(3);
+        assertThat(subject.find(outOfBook)).isNull();
+        assertThat(bookEngine.getBookMoveCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,88 @@
+package com.kalaha.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TranspositionTableTest {
+    private TranspositionTable subject;
+
+    @BeforeEach
+    void init() {
+        subject = new TranspositionTable(1000);
+    }
+
+    @Test
+    @DisplayName("capacity is rounded up to a power of two")
+    void capacity() {
+        assertThat(subject.getCapacity()).isEqualTo(1024);
+    }
+
+    @Test
+    @DisplayName("probe returns the stored score, depth, bound and move")
+    void probeStoredEntry() {
+        subject.store(42L, -7, 9, TranspositionTable.LOWER_BOUND, 3);
+
+        long entry = subject.probe(42L);
+
+        assertThat(TranspositionTable.score(entry)).isEqualTo(-7);
+        assertThat(TranspositionTable.depth(entry)).isEqualTo(9);
+        assertThat(TranspositionTable.bound(entry)).isEqualTo(TranspositionTable.LOWER_BOUND);
+        assertThat(TranspositionTable.move(entry)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("probe misses an unknown position")
+    void probeUnknownEntry() {
+        subject.store(42L, 1, 1, TranspositionTable.EXACT, 0);
+
+        assertThat(subject.probe(43L)).isZero();
+    }
+
+    @Test
+    @DisplayName("store keeps the deeper entry of the current search when a bucket is full")
+    void storeReplacesShallowerEntry() {
+        long deep = 1L;
+        long shallow = deep + 1024L * 1024L;
+        long newest = deep + 2048L * 1024L;
+        subject.store(deep, 1, 10, TranspositionTable.EXACT, 0);
+        subject.store(shallow, 2, 2, TranspositionTable.EXACT, 0);
+
+        subject.store(newest, 3, 5, TranspositionTable.EXACT, 0);
+
+        assertThat(subject.probe(deep)).isNotZero();
+        assertThat(subject.probe(shallow)).isZero();
+        assertThat(subject.probe(newest)).isNotZero();
+    }
+
+    @Test
+    @DisplayName("store prefers replacing entries of an older search")
+    void storeReplacesOlderSearch() {
+        long old = 1L;
+        long recent = old + 1024L * 1024L;
+        long newest = old + 2048L * 1024L;
+        subject.store(old, 1, 10, TranspositionTable.EXACT, 0);
+        subject.newSearch();
+        subject.store(recent, 2, 2, TranspositionTable.EXACT, 0);
+
+        subject.store(newest, 3, 5, TranspositionTable.EXACT, 0);
+
+        assertThat(subject.probe(old)).isZero();
+        assertThat(subject.probe(recent)).isNotZero();
+    }
+
+    @Test
+    @DisplayName("getHitRate reports the share of probes that found an entry")
+    void getHitRate() {
+        subject.store(42L, 1, 1, TranspositionTable.EXACT, 0);
+
+        subject.probe(42L);
+        subject.probe(43L);
+
+        assertThat(subject.getHits()).isEqualTo(1);
+        assertThat(subject.getProbes()).isEqualTo(2);
+        assertThat(subject.getHitRate()).isEqualTo(0.5);
+    }
+}
@@ -3,11 +3,17 @@ package com.kalaha.gameui;
 import com.kalaha.domain.Board;
 import com.kalaha.domain.BoardImpl;
 import com.kalaha.domain.Game;
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -69,4 +75,22 @@ class GameUIServiceTest {
             assertThat(result.kalahaNorth).isEqualTo(expected.kalahaNorth);
         }
     }
+
+    @Nested
+    class GetBoardAttributes {
+        @Test
+        @DisplayName("holds everything the board template reads")
+        void getBoardAttributesRendersBoardTemplate() throws IOException {
+            game.play(0);
+            Template template;
+            try (Reader reader = new InputStreamReader(
+                    GameUIServiceTest.class.getResourceAsStream("/templates/board.mustache"), StandardCharsets.UTF_8)) {
+                template = Mustache.compiler().compile(reader);
+            }
+
+            String html = template.execute(subject.getBoardAttributesFrom(7, game));
+
+            assertThat(html).contains("/games/7/play", "value=\"1\"", "/games/7/takeback");
+        }
+    }
 }
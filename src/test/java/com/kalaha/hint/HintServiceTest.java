@@ -0,0 +1,166 @@
+package com.kalaha.hint;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Board;
+import com.kalaha.domain.Game;
+import com.kalaha.engine.AlphaBetaEngine;
+import com.kalaha.engine.SearchEngine;
+import com.kalaha.engine.SearchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HintServiceTest {
+    private SearchEngine engine;
+    private HintService subject;
+
+    @BeforeEach
+    void init() {
+        engine = mock(SearchEngine.class);
+        when(engine.search(any())).thenReturn(SearchResult.builder().move(2).score(3).depth(8).build());
+        subject = new HintService(engine, 1, 16, 1000, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void close() {
+        subject.close();
+    }
+
+    @Test
+    @DisplayName("games in the same position share one analysis")
+    void hintForSamePosition() {
+        Hint first = subject.hintFor(newGame()).orElse(null);
+        Hint second = subject.hintFor(newGame()).orElse(null);
+
+        assertThat(first).isEqualTo(Hint.builder().pit(2).score(3).depth(8).build());
+        assertThat(second).isSameAs(first);
+        verify(engine, times(1)).search(any());
+    }
+
+    @Test
+    @DisplayName("a move in a game that asked for a hint analyses the next position ahead of the request")
+    void moveAnalysesNextPosition() {
+        Game game = newGame();
+        subject.hintFor(game);
+
+        game.play(0);
+        verify(engine, timeout(5000).times(2)).search(any());
+        subject.hintFor(game);
+
+        verify(engine, times(2)).search(any());
+    }
+
+    @Test
+    @DisplayName("a move in a game that never asked for a hint is not analysed")
+    void moveWithoutHintIsNotAnalysed() {
+        Game game = newGame();
+
+        game.play(0);
+        subject.hintFor(game);
+
+        verify(engine, times(1)).search(any());
+    }
+
+    @Test
+    @DisplayName("a requested hint is searched on the calling thread instead of queueing behind the background")
+    void hintForDoesNotWaitForBackground() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(engine.search(any())).thenAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("hint-analysis"))
+                release.await(5, TimeUnit.SECONDS);
+            return SearchResult.builder().move(2).score(3).depth(8).build();
+        });
+        subject.warmUp(ArrayBoard.builder().pits(6, 6).southTurn(true).build(), 1);
+        Game game = newGame();
+        game.getBoard().makeMove(5);
+
+        Hint hint = subject.hintFor(game).orElse(null);
+
+        assertThat(hint).isEqualTo(Hint.builder().pit(2).score(3).depth(8).build());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("a requested hint is searched while the background analysis of another position is blocked")
+    void hintForDoesNotShareEngineWithBackground() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AlphaBetaEngine alphaBeta = AlphaBetaEngine.builder()
+                .maxDepth(4)
+                .timeBudgetMillis(1000)
+                .parallelism(1)
+                .transpositionTableEntries(1 << 10)
+                .build();
+        try (HintService service = new HintService(alphaBeta, 1, 16, 1000, new SimpleMeterRegistry())) {
+            Board blocked = ArrayBoard.builder().pits(4, 4).southTurn(true).build();
+            service.warmUp(blocking(blocked, started, release), 0);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Game game = newGame();
+
+            Optional<Hint> hint = CompletableFuture.supplyAsync(() -> service.hintFor(game)).get(5, TimeUnit.SECONDS);
+
+            assertThat(hint).isPresent();
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("warmUp analyses every position up to the given number of moves")
+    void warmUp() {
+        Board board = ArrayBoard.builder().pits(6, 6).southTurn(true).build();
+
+        subject.warmUp(board, 1);
+
+        verify(engine, timeout(5000).times(7)).search(any());
+    }
+
+    @Test
+    @DisplayName("there is no hint when the game is over")
+    void hintForGameOver() {
+        Game game = Game.builder()
+                .board(ArrayBoard.builder()
+                        .pits(new int[]{0, 0, 0, 0, 0, 0, 40, 0, 0, 0, 0, 0, 0, 32})
+                        .southTurn(true)
+                        .build())
+                .build();
+
+        assertThat(subject.hintFor(game)).isEmpty();
+    }
+
+    private static Board blocking(final Board board, final CountDownLatch started, final CountDownLatch release) {
+        Board blocking = mock(Board.class, delegatesTo(board));
+        doAnswer(invocation -> blocking(board.copy(), started, release)).when(blocking).copy();
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            board.makeMove(invocation.getArgument(0));
+            return null;
+        }).when(blocking).makeMove(anyInt());
+        return blocking;
+    }
+
+    private Game newGame() {
+        return Game.builder()
+                .board(ArrayBoard.builder().pits(6, 6).southTurn(true).build())
+                .listener(subject)
+                .build();
+    }
+}
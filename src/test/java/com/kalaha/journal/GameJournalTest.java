@@ -0,0 +1,257 @@
+package com.kalaha.journal;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Game;
+import com.kalaha.domain.GameRegistry;
+import com.kalaha.domain.GameSnapshot;
+import com.kalaha.domain.GameStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameJournalTest {
+    private Path directory;
+
+    @BeforeEach
+    void init() throws IOException {
+        directory = Files.createTempDirectory("journal");
+    }
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    @DisplayName("recover replays the journal into the same games")
+    void recoverFromJournal() throws IOException {
+        GameRegistry registry;
+        long firstId;
+        long secondId;
+        try (GameJournal journal = new GameJournal(directory, 16)) {
+            registry = newRegistry(journal);
+            firstId = registry.create(false);
+            secondId = registry.create(true);
+            playMoves(registry.get(firstId), 5);
+            playMoves(registry.get(secondId), 3);
+        }
+
+        GameRegistry recovered = recover();
+
+        assertThat(recovered.size()).isEqualTo(2);
+        assertSameGame(recovered.get(firstId), registry.get(firstId));
+        assertSameGame(recovered.get(secondId), registry.get(secondId));
+    }
+
+    @Test
+    @DisplayName("recover loads the snapshot and replays only the moves made since")
+    void recoverFromSnapshotAndJournal() throws IOException {
+        GameRegistry registry;
+        long id;
+        try (GameJournal journal = new GameJournal(directory, 16)) {
+            registry = newRegistry(journal);
+            id = registry.create(false);
+            playMoves(registry.get(id), 4);
+            journal.snapshot(registry);
+            playMoves(registry.get(id), 4);
+        }
+
+        assertThat(journalSegments()).hasSize(1);
+        GameRegistry recovered = recover();
+
+        assertSameGame(recovered.get(id), registry.get(id));
+        assertThat(recovered.get(id).getVersion()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("recover restores the position a take-back returned to")
+    void recoverTakeBack() throws IOException {
+        GameRegistry registry;
+        long id;
+        try (GameJournal journal = new GameJournal(directory, 16)) {
+            registry = newRegistry(journal);
+            id = registry.create(false);
+            playMoves(registry.get(id), 4);
+            journal.snapshot(registry);
+            Game game = registry.get(id);
+            playMoves(game, 1);
+            game.takeBack(game.getVersion());
+            playMoves(game, 2);
+        }
+
+        assertSameGame(recover().get(id), registry.get(id));
+    }
+
+    @Test
+    @DisplayName("recover restores a game loaded again by a store together with the moves made since")
+    void recoverRehydratedGame() throws IOException {
+        Game game;
+        try (GameJournal journal = new GameJournal(directory, 16)) {
+            GameRegistry registry = newRegistry(journal);
+            game = registry.newGame();
+            game.setId(42);
+            game.setVersion(7);
+            game.setComputerNorth(true);
+            playMoves(game, 3);
+            game.setListener(journal);
+            journal.onRehydrate(game);
+            playMoves(game, 2);
+        }
+
+        assertSameGame(recover().get(42), game);
+    }
+
+    @Test
+    @DisplayName("recover applies the journal to a hibernated game without recording its moves again")
+    void recoverHibernatedGame() throws IOException {
+        Game game;
+        GameSnapshot hibernated;
+        try (GameJournal journal = new GameJournal(directory, 16)) {
+            GameRegistry registry = newRegistry(journal);
+            game = registry.get(registry.create(false));
+            playMoves(game, 2);
+            hibernated = game.snapshot();
+            journal.snapshot(newRegistry(journal));
+            playMoves(game, 2);
+        }
+
+        GameJournal journal = new GameJournal(directory, 16);
+        GameRegistry recovered = new GameRegistry(GameJournalTest::newGame, journal, new HibernatedGames(hibernated));
+        journal.recover(recovered);
+        journal.close();
+
+        assertThat(journal.getRecords()).isZero();
+        assertSameGame(recovered.get(game.getId()), game);
+        assertThat(recovered.get(game.getId()).getListener()).isSameAs(journal);
+        assertSameGame(recover().get(game.getId()), game);
+    }
+
+    @Test
+    @DisplayName("recover ignores a record torn by a crash at the end of the journal")
+    void recoverIgnoresTornRecord() throws IOException {
+        GameRegistry registry;
+        long id;
+        try (GameJournal journal = new GameJournal(directory, 16)) {
+            registry = newRegistry(journal);
+            id = registry.create(false);
+            playMoves(registry.get(id), 6);
+        }
+        Files.write(journalSegments().findFirst().orElseThrow(IllegalStateException::new),
+                new byte[]{2, 0, 0, 0}, StandardOpenOption.APPEND);
+
+        assertSameGame(recover().get(id), registry.get(id));
+    }
+
+    @Test
+    @DisplayName("the writer commits queued moves in batches")
+    void groupCommit() throws IOException {
+        GameJournal journal = new GameJournal(directory, 1024);
+        GameRegistry registry = newRegistry(journal);
+        for (int i = 0; i < 200; i++) {
+            playMoves(registry.get(registry.create(false)), 10);
+        }
+        journal.close();
+
+        assertThat(journal.getRecords()).isGreaterThanOrEqualTo(200 * 2);
+        assertThat(journal.getBatches()).isLessThanOrEqualTo(journal.getRecords());
+    }
+
+    private GameRegistry recover() throws IOException {
+        try (GameJournal journal = new GameJournal(directory, 16)) {
+            GameRegistry registry = newRegistry(journal);
+            journal.recover(registry);
+            return registry;
+        }
+    }
+
+    private Stream<Path> journalSegments() throws IOException {
+        return Files.list(directory)
+                .filter(file -> file.getFileName().toString().startsWith("journal-"))
+                .filter(file -> file.toFile().length() > 0);
+    }
+
+    private static GameRegistry newRegistry(final GameJournal journal) {
+        return new GameRegistry(GameJournalTest::newGame, journal);
+    }
+
+    private static Game newGame() {
+        return Game.builder()
+                .board(ArrayBoard.builder().pits(6, 4).southTurn(true).build())
+                .build();
+    }
+
+    private static void playMoves(final Game game, final int moves) {
+        for (int i = 0; i < moves && !game.isGameOver(); i++) {
+            int offset = game.isSouthTurn() ? 0 : game.getOffsetPlayerNorth();
+            int pit = 0;
+            while (game.isPitEmpty(offset + pit)) {
+                ++pit;
+            }
+            game.play(offset + pit);
+        }
+    }
+
+    private static void assertSameGame(final Game actual, final Game expected) {
+        assertThat(actual.getBoard().getPitList()).isEqualTo(expected.getBoard().getPitList());
+        assertThat(actual.isSouthTurn()).isEqualTo(expected.isSouthTurn());
+        assertThat(actual.isComputerNorth()).isEqualTo(expected.isComputerNorth());
+        assertThat(actual.getVersion()).isEqualTo(expected.getVersion());
+        assertThat(actual.getBoard().getZobristKey()).isEqualTo(expected.getBoard().getZobristKey());
+    }
+
+    /**
+     * A store holding one game on disk, which it loads when the game is first asked for.
+     */
+    private static final class HibernatedGames implements GameStore {
+        private final Map<Long, Game> games = new HashMap<>();
+        private final Map<Long, GameSnapshot> hibernated = new HashMap<>();
+
+        private HibernatedGames(final GameSnapshot snapshot) {
+            hibernated.put(snapshot.getId(), snapshot);
+        }
+
+        @Override
+        public Game get(final long id, final Function<GameSnapshot, Game> rehydrate) {
+            GameSnapshot snapshot = hibernated.remove(id);
+            if (snapshot != null)
+                games.put(id, rehydrate.apply(snapshot));
+            return games.get(id);
+        }
+
+        @Override
+        public boolean putIfAbsent(final Game game) {
+            return games.putIfAbsent(game.getId(), game) == null;
+        }
+
+        @Override
+        public void put(final Game game) {
+            games.put(game.getId(), game);
+        }
+
+        @Override
+        public void forEach(final Consumer<Game> action) {
+            games.values().forEach(action);
+        }
+
+        @Override
+        public int size() {
+            return games.size();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.kalaha.metrics;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Game;
+import com.kalaha.domain.GameRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameMetricsTest {
+    private MeterRegistry meterRegistry;
+    private GameMetrics subject;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        subject = new GameMetrics(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("a move landing in the own kalaha is counted as an extra turn")
+    void extraTurn() {
+        Game game = gameWith(new int[]{6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0});
+
+        game.play(0);
+
+        assertThat(meterRegistry.counter("kalaha.moves", "player", "south").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("kalaha.extra.turns").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("kalaha.captures").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("a move landing in an own empty pit is counted as a capture")
+    void capture() {
+        Game game = gameWith(new int[]{1, 0, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0});
+
+        game.play(0);
+
+        assertThat(meterRegistry.counter("kalaha.captures").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("kalaha.extra.turns").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("a sowing move is counted as a move only")
+    void plainMove() {
+        Game game = gameWith(new int[]{6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0});
+
+        game.play(1);
+
+        assertThat(meterRegistry.counter("kalaha.moves", "player", "south").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("kalaha.extra.turns").count()).isZero();
+        assertThat(meterRegistry.counter("kalaha.captures").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("finished games are counted by winner and leave the active games")
+    void finishedGame() {
+        GameRegistry registry = new GameRegistry(() -> gameWith(new int[]{0, 0, 1, 3, 0, 2, 2, 0}), subject);
+        subject.monitor(registry);
+        long id = registry.create(false);
+        registry.create(false);
+
+        registry.get(id).play(2);
+
+        assertThat(meterRegistry.counter("kalaha.games.finished", "winner", "tie").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("kalaha.games.active").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("kalaha.games").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("timeMove records the duration of the move")
+    void timeMove() {
+        int result = subject.timeMove(() -> 42);
+
+        assertThat(result).isEqualTo(42);
+        assertThat(meterRegistry.get("kalaha.move").timer().count()).isEqualTo(1);
+    }
+
+    private Game gameWith(final int[] pits) {
+        return Game.builder()
+                .board(ArrayBoard.builder().pits(pits).southTurn(true).build())
+                .listener(subject)
+                .build();
+    }
+}
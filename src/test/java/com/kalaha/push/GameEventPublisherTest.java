@@ -0,0 +1,205 @@
+package com.kalaha.push;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Game;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameEventPublisherTest {
+    private QueueExecutor executor;
+    private GameEventPublisher subject;
+    private Game game;
+
+    @BeforeEach
+    void init() {
+        executor = new QueueExecutor();
+        subject = new GameEventPublisher(executor, 0);
+        game = Game.builder()
+                .id(42)
+                .board(ArrayBoard.builder().pits(6, 6).southTurn(true).build())
+                .listener(subject)
+                .build();
+    }
+
+    @Test
+    @DisplayName("a new subscriber first receives every pit of the game")
+    void subscribeSendsFullState() {
+        RecordingSink sink = new RecordingSink();
+
+        subject.subscribe(game, sink);
+        executor.runAll();
+
+        assertThat(sink.deltas).hasSize(1);
+        assertThat(sink.deltas.get(0).getChangedPits()).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13);
+        assertThat(sink.deltas.get(0).getStones()).containsExactly(6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0);
+    }
+
+    @Test
+    @DisplayName("a move is sent as the pits it changed")
+    void moveSendsChangedPits() {
+        RecordingSink sink = subscribed();
+
+        game.play(0);
+        executor.runAll();
+
+        GameDelta delta = sink.deltas.get(1);
+        assertThat(delta.getVersion()).isEqualTo(1);
+        assertThat(delta.getChangedPits()).containsExactly(0, 1, 2, 3, 4, 5, 6);
+        assertThat(delta.getStones()).containsExactly(0, 7, 7, 7, 7, 7, 1);
+        assertThat(delta.isSouthTurn()).isTrue();
+    }
+
+    @Test
+    @DisplayName("moves made before a subscriber is flushed are coalesced into one delta")
+    void movesAreCoalesced() {
+        RecordingSink sink = subscribed();
+
+        game.play(0);
+        game.play(5);
+        executor.runAll();
+
+        assertThat(sink.deltas).hasSize(2);
+        GameDelta delta = sink.deltas.get(1);
+        assertThat(delta.getVersion()).isEqualTo(2);
+        assertThat(delta.getChangedPits()).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12);
+        assertThat(delta.isSouthTurn()).isFalse();
+    }
+
+    @Test
+    @DisplayName("a take-back is sent as the pits it restored")
+    void takeBackSendsRestoredPits() {
+        RecordingSink sink = subscribed();
+        game.play(0);
+        game.play(5);
+        executor.runAll();
+
+        game.takeBack(2);
+        executor.runAll();
+
+        GameDelta delta = sink.deltas.get(2);
+        assertThat(delta.getVersion()).isEqualTo(3);
+        assertThat(delta.getChangedPits()).containsExactly(5, 6, 7, 8, 9, 10, 11, 12);
+        assertThat(delta.getStones()).containsExactly(7, 1, 6, 6, 6, 6, 6, 6);
+        assertThat(delta.isSouthTurn()).isTrue();
+    }
+
+    @Test
+    @DisplayName("every subscriber of a game receives its moves")
+    void fanOut() {
+        RecordingSink first = subscribed();
+        RecordingSink second = subscribed();
+
+        game.play(1);
+        executor.runAll();
+
+        assertThat(first.deltas).hasSize(2);
+        assertThat(second.deltas).hasSize(2);
+        assertThat(subject.getSubscriberCount(42)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("an unsubscribed sink is completed and receives no further moves")
+    void unsubscribe() {
+        RecordingSink sink = new RecordingSink();
+        Runnable unsubscribe = subject.subscribe(game, sink);
+        executor.runAll();
+
+        unsubscribe.run();
+        game.play(1);
+        executor.runAll();
+
+        assertThat(sink.deltas).hasSize(1);
+        assertThat(sink.completed).isTrue();
+        assertThat(subject.getSubscriberCount(42)).isZero();
+    }
+
+    @Test
+    @DisplayName("the subscription ends with the delta of the game over")
+    void gameOverCompletes() {
+        game = Game.builder()
+                .id(43)
+                .board(ArrayBoard.builder().pits(new int[]{0, 0, 1, 3, 0, 2, 2, 0}).southTurn(true).build())
+                .listener(subject)
+                .build();
+        RecordingSink sink = subscribed();
+
+        game.play(2);
+        executor.runAll();
+
+        assertThat(sink.deltas.get(1).isGameOver()).isTrue();
+        assertThat(sink.completed).isTrue();
+        assertThat(subject.getSubscriberCount(43)).isZero();
+    }
+
+    private RecordingSink subscribed() {
+        RecordingSink sink = new RecordingSink();
+        subject.subscribe(game, sink);
+        executor.runAll();
+        return sink;
+    }
+
+    private static final class RecordingSink implements DeltaSink {
+        private final List<GameDelta> deltas = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void send(final GameDelta delta) {
+            deltas.add(delta);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+
+    private static final class QueueExecutor extends AbstractExecutorService {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return new ArrayList<>(tasks);
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+            return true;
+        }
+    }
+}
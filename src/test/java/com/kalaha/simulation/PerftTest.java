@@ -0,0 +1,58 @@
+package com.kalaha.simulation;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Board;
+import com.kalaha.domain.BoardImpl;
+import com.kalaha.domain.PackedBoard;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerftTest {
+
+    @Test
+    @DisplayName("run counts the moves of the first two plies, with the extra turn of pit 0")
+    void runFirstPlies() {
+        Perft subject = new Perft(ArrayBoard.builder().pits(6, 6).southTurn(true).build());
+
+        PerftResult first = subject.run(1, 1);
+        PerftResult second = subject.run(2, 1);
+
+        assertThat(first.getNodes()).isEqualTo(6);
+        assertThat(first.getExtraTurns()).isEqualTo(1);
+        assertThat(second.getNodes()).isEqualTo(5 + 5 * 6);
+        assertThat(second.getNodesByFirstMove()).containsEntry(0, 5L).containsEntry(1, 6L).hasSize(6);
+    }
+
+    @Test
+    @DisplayName("run keeps counting the standard setup like the reference board did")
+    void runStandardSetup() {
+        PerftResult result = new Perft(ArrayBoard.builder().pits(6, 6).southTurn(true).build()).run(6, 2);
+
+        assertThat(result.getNodes()).isEqualTo(32243);
+        assertThat(result.getExtraTurns()).isEqualTo(1475);
+        assertThat(result.getGameOvers()).isZero();
+        assertThat(result.getNodesPerSecond()).isPositive();
+    }
+
+    @Test
+    @DisplayName("every board implementation counts the same, sequentially and in parallel")
+    void runMatchesReferenceBoard() {
+        PerftResult expected = new Perft(BoardImpl.builder().pitList(4, 3).southTurn(true).build()).run(9, 1);
+        Board array = ArrayBoard.builder().pits(4, 3).southTurn(true).build();
+        Board packed = PackedBoard.builder().pits(4, 3).southTurn(true).build();
+
+        for (Board board : new Board[]{array, packed}) {
+            PerftResult result = new Perft(board).run(9, 3);
+
+            assertThat(result.getNodes()).isEqualTo(expected.getNodes());
+            assertThat(result.getExtraTurns()).isEqualTo(expected.getExtraTurns());
+            assertThat(result.getGameOvers()).isEqualTo(expected.getGameOvers());
+            assertThat(result.getNodesByFirstMove()).isEqualTo(expected.getNodesByFirstMove());
+        }
+        assertThat(expected.getGameOvers()).isPositive();
+        assertThat(expected.getNodesByFirstMove().values().stream().mapToLong(Long::longValue).sum())
+                .isEqualTo(expected.getNodes());
+    }
+}
@@ -0,0 +1,111 @@
+package com.kalaha.simulation;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Board;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SelfPlayRunnerTest {
+
+    @Test
+    @DisplayName("run plays every game to the end and reports the results")
+    void run() {
+        SelfPlayRunner subject = new SelfPlayRunner(6, 4, Policies::greedy, Policies::random);
+
+        SelfPlayResult result = subject.run(500, 2, null);
+
+        assertThat(result.getGames()).isEqualTo(500);
+        assertThat(result.getWinsSouth() + result.getWinsNorth() + result.getTies()).isEqualTo(500);
+        assertThat(result.getMoves()).isGreaterThan(500);
+        assertThat(result.getGamesPerSecond()).isPositive();
+    }
+
+    @Test
+    @DisplayName("run closes the policies of every worker once the games are played")
+    void runClosesPolicies() {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        Supplier<Policy> policy = () -> {
+            created.incrementAndGet();
+            Policy random = Policies.random();
+            return new Policy() {
+                @Override
+                public int chooseMove(final Board board) {
+                    return random.chooseMove(board);
+                }
+
+                @Override
+                public void close() {
+                    closed.incrementAndGet();
+                }
+            };
+        };
+        SelfPlayRunner subject = new SelfPlayRunner(6, 4, policy, policy);
+
+        subject.run(500, 3, null);
+
+        assertThat(created.get()).isPositive();
+        assertThat(closed.get()).isEqualTo(created.get());
+    }
+
+    @Test
+    @DisplayName("run streams a record per game that replays to the recorded score")
+    void runWritesReplayableRecords() throws IOException {
+        Path file = Files.createTempFile("games", ".bin");
+        file.toFile().deleteOnExit();
+        SelfPlayRunner subject = new SelfPlayRunner(4, 3, Policies::random, () -> Policies.search(2));
+
+        try (GameRecordWriter writer = new GameRecordWriter(file, 4, 3, 16)) {
+            subject.run(100, 3, writer);
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            assertThat(in.readInt()).isEqualTo(GameRecordWriter.MAGIC);
+            assertThat(in.readInt()).isEqualTo(GameRecordWriter.FORMAT_VERSION);
+            assertThat(in.readInt()).isEqualTo(4);
+            assertThat(in.readInt()).isEqualTo(3);
+
+            int records = 0;
+            while (true) {
+                int moves;
+                try {
+                    moves = in.readUnsignedShort();
+                } catch (EOFException e) {
+                    break;
+                }
+                Board board = ArrayBoard.builder().pits(4, 3).southTurn(true).build();
+                for (int i = 0; i < moves; i++) {
+                    board.makeMove(in.readUnsignedByte());
+                }
+
+                assertThat(board.isGameOver()).isTrue();
+                assertThat(in.readUnsignedShort()).isEqualTo(board.getStonesInPit(board.getIndexKalahaSouth()));
+                assertThat(in.readUnsignedShort()).isEqualTo(board.getStonesInPit(board.getIndexKalahaNorth()));
+                records++;
+            }
+            assertThat(records).isEqualTo(100);
+        }
+    }
+
+    @Test
+    @DisplayName("the greedy policy takes a move that earns an extra turn")
+    void greedyTakesExtraTurn() {
+        Board board = ArrayBoard.builder()
+                .pits(new int[]{3, 3, 3, 2, 3, 1, 0, 3, 3, 3, 3, 3, 3, 0})
+                .southTurn(true)
+                .build();
+
+        assertThat(Policies.greedy().chooseMove(board)).isEqualTo(5);
+    }
+}
@@ -0,0 +1,148 @@
+package com.kalaha.store;
+
+import com.kalaha.domain.ArrayBoard;
+import com.kalaha.domain.Game;
+import com.kalaha.domain.GameListener;
+import com.kalaha.domain.GameRegistry;
+import com.kalaha.domain.StaleVersionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HibernatingGameStoreTest {
+    private static final int GAME_WEIGHT = HibernatingGameStore.BYTES_PER_GAME + 14 * HibernatingGameStore.BYTES_PER_PIT;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HibernatingGameStore store;
+    private GameRegistry subject;
+    private Path directory;
+
+    @BeforeEach
+    void init() throws IOException {
+        directory = Files.createTempDirectory("hibernated");
+        store = new HibernatingGameStore(directory, 4 * GAME_WEIGHT, 60, meterRegistry, nanos::get, Runnable::run);
+        subject = new GameRegistry(() -> Game.builder()
+                .board(ArrayBoard.builder().pits(6, 6).southTurn(true).build())
+                .build(), GameListener.NONE, store);
+    }
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    @DisplayName("games beyond the memory budget are hibernated and loaded again with their state")
+    void hibernateOverBudget() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Game game = subject.newGame();
+            game.setId(i + 1);
+            game.setComputerNorth(i % 2 == 0);
+            game.play(i % 6);
+            subject.restore(game);
+            ids.add(game.getId());
+        }
+        store.cleanUp();
+
+        assertThat(subject.size()).isLessThanOrEqualTo(4);
+        for (int i = 0; i < ids.size(); i++) {
+            Game game = subject.get(ids.get(i));
+            assertThat(game.getVersion()).isEqualTo(1);
+            assertThat(game.isComputerNorth()).isEqualTo(i % 2 == 0);
+            assertThat(game.getBoard().getStonesInPit(i % 6)).isZero();
+            assertThat(game.getBoard().getStonesInPit(6)).isEqualTo(1);
+        }
+        assertThat(meterRegistry.counter("kalaha.store.hibernations").count()).isGreaterThanOrEqualTo(16);
+        assertThat(meterRegistry.timer("kalaha.store.rehydration").count()).isGreaterThanOrEqualTo(16);
+    }
+
+    @Test
+    @DisplayName("idle games are hibernated and a stale reference to them rejects moves")
+    void hibernateIdle() {
+        long id = subject.create(false);
+        Game game = subject.get(id);
+        game.play(0);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        store.cleanUp();
+
+        assertThat(subject.size()).isZero();
+        assertThatThrownBy(() -> game.play(1, 1))
+                .isInstanceOf(StaleVersionException.class)
+                .hasMessage("Game " + id + " was hibernated and has to be loaded again");
+        Game rehydrated = subject.get(id);
+        assertThat(rehydrated).isNotSameAs(game);
+        assertThat(rehydrated.play(1, 1).getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("close hibernates the games still in memory")
+    void close() throws IOException {
+        long id = subject.create(true);
+        subject.get(id).play(2);
+
+        store.close();
+        HibernatingGameStore reopened = new HibernatingGameStore(directory, 4 * GAME_WEIGHT, 60,
+                meterRegistry, nanos::get, Runnable::run);
+        GameRegistry registry = new GameRegistry(() -> Game.builder()
+                .board(ArrayBoard.builder().pits(6, 6).southTurn(true).build())
+                .build(), GameListener.NONE, reopened);
+
+        assertThat(registry.get(id).getBoard().getPitList())
+                .containsExactly(6, 6, 0, 7, 7, 7, 1, 7, 7, 6, 6, 6, 6, 0);
+        assertThat(registry.find(42)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("the file of a game is deleted once it is loaded again and finished games are dropped")
+    void deleteLoadedAndFinishedGames() throws IOException {
+        long id = subject.create(false);
+        subject.get(id).play(0);
+        long finishedId = subject.create(false);
+        subject.get(finishedId).getBoard().load(new int[]{0, 0, 0, 0, 0, 1, 30, 0, 0, 0, 0, 0, 0, 41}, true);
+        subject.get(finishedId).play(5);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        store.cleanUp();
+
+        assertThat(hibernationFiles()).isEqualTo(1);
+        assertThat(subject.get(id).getVersion()).isEqualTo(1);
+        assertThat(hibernationFiles()).isZero();
+        assertThat(subject.find(finishedId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("unknown games are looked up on disk only once")
+    void cacheUnknownGames() {
+        assertThat(subject.find(42)).isEmpty();
+        assertThat(subject.find(42)).isEmpty();
+
+        assertThat(meterRegistry.timer("kalaha.store.rehydration").count()).isEqualTo(1);
+    }
+
+    private long hibernationFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".game")).count();
+        }
+    }
+}